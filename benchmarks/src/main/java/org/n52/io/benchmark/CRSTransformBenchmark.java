@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Geometry;
+import org.n52.io.crs.CRSUtils;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.operation.TransformException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures transforming geometries from the inner reference (CRS:84) to an outer reference, both geometry by
+ * geometry and as a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CRSTransformBenchmark {
+
+    @Param({
+        "EPSG:25832",
+        "EPSG:3857"
+    })
+    private String destCrs;
+
+    @Param({
+        "10",
+        "1000"
+    })
+    private int geometryCount;
+
+    private CRSUtils crsUtils;
+
+    private List<Geometry> geometries;
+
+    @Setup
+    public void setUp() throws FactoryException {
+        crsUtils = CRSUtils.createEpsgForcedXYAxisOrder();
+        geometries = SyntheticData.createPoints(geometryCount);
+        // warm up the authority factory
+        crsUtils.getCrsFor(destCrs);
+    }
+
+    @Benchmark
+    public List<Geometry> transformEach() throws FactoryException, TransformException {
+        List<Geometry> transformed = new ArrayList<>(geometries.size());
+        for (Geometry geometry : geometries) {
+            transformed.add(crsUtils.transformInnerToOuter(geometry, destCrs));
+        }
+        return transformed;
+    }
+
+    @Benchmark
+    public List<Geometry> transformBatch() throws FactoryException, TransformException {
+        return crsUtils.transformInnerToOuter(geometries, destCrs);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.io.Constants;
+import org.n52.io.IoStyleContext;
+import org.n52.io.TvpDataCollection;
+import org.n52.io.handler.IoHandlerException;
+import org.n52.io.request.IoParameters;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.quantity.QuantityDatasetOutput;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+import org.n52.io.type.quantity.handler.img.MultipleChartsRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering data collections to PNG charts, including the set up of the chart.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ChartRenderingBenchmark {
+
+    @Param({
+        "1",
+        "5"
+    })
+    private int datasetCount;
+
+    @Param({
+        "1000",
+        "10000"
+    })
+    private int seriesLength;
+
+    @Param({
+        "0.0",
+        "0.1"
+    })
+    private double gapRatio;
+
+    private IoParameters parameters;
+
+    private TvpDataCollection<Data<QuantityValue>> data;
+
+    private List<QuantityDatasetOutput> metadatas;
+
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() {
+        parameters = SyntheticData.createChartParameters(datasetCount, seriesLength);
+        data = SyntheticData.createCollection(datasetCount, seriesLength, gapRatio);
+        metadatas = SyntheticData.createMetadata(datasetCount);
+        output = new ByteArrayOutputStream();
+    }
+
+    @Benchmark
+    public int renderPng() throws IoHandlerException {
+        IoStyleContext context = IoStyleContext.createContextWith(parameters, metadatas);
+        MultipleChartsRenderer renderer = new MultipleChartsRenderer(parameters,
+                                                                     SyntheticData.createProcessChain(data),
+                                                                     context);
+        renderer.setMimeType(Constants.MimeType.IMAGE_PNG);
+        output.reset();
+        renderer.writeBinary(output);
+        return output.size();
+    }
+
+}
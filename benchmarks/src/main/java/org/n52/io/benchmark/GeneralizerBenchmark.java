@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.n52.io.TvpDataCollection;
+import org.n52.io.request.IoParameters;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+import org.n52.io.type.quantity.generalize.DouglasPeuckerGeneralizer;
+import org.n52.io.type.quantity.generalize.Generalizer;
+import org.n52.io.type.quantity.generalize.GeneralizerException;
+import org.n52.io.type.quantity.generalize.LargestTriangleThreeBucketsGeneralizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generalization of series of different lengths and gap ratios. The Douglas-Peucker generalizer
+ * does not support no-data values, so it always gets a series without gaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneralizerBenchmark {
+
+    private static final String LTTB_THRESHOLD = "200";
+
+    @Param({
+        "1000",
+        "10000",
+        "100000"
+    })
+    private int seriesLength;
+
+    @Param({
+        "0.0",
+        "0.1"
+    })
+    private double gapRatio;
+
+    private TvpDataCollection<Data<QuantityValue>> data;
+
+    private TvpDataCollection<Data<QuantityValue>> dataWithoutGaps;
+
+    private Generalizer<Data<QuantityValue>> lttb;
+
+    private Generalizer<Data<QuantityValue>> douglasPeucker;
+
+    @Setup
+    public void setUp() {
+        data = SyntheticData.createCollection(1, seriesLength, gapRatio);
+        dataWithoutGaps = SyntheticData.createCollection(1, seriesLength, 0);
+        IoParameters parameters = IoParameters.createDefaults();
+        lttb = new LargestTriangleThreeBucketsGeneralizer(parameters.extendWith("threshold", LTTB_THRESHOLD));
+        douglasPeucker = new DouglasPeuckerGeneralizer(parameters);
+    }
+
+    @Benchmark
+    public DataCollection<Data<QuantityValue>> largestTriangleThreeBuckets() throws GeneralizerException {
+        return lttb.generalize(data);
+    }
+
+    @Benchmark
+    public DataCollection<Data<QuantityValue>> douglasPeucker() throws GeneralizerException {
+        return douglasPeucker.generalize(dataWithoutGaps);
+    }
+
+}
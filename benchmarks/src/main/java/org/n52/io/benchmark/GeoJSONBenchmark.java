@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.Geometry;
+import org.n52.io.geojson.GeoJSONEncoder;
+import org.n52.io.geojson.GeoJSONException;
+import org.n52.io.geojson.GeoJSONWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Measures writing geometries as GeoJSON, either via the {@link GeoJSONEncoder} tree model or via the
+ * streaming {@link GeoJSONWriter}. The geometries are either many single points (e.g. a feature listing) or
+ * one line string (e.g. a trajectory).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoJSONBenchmark {
+
+    @Param({
+        "points",
+        "lineString"
+    })
+    private String geometryType;
+
+    @Param({
+        "100",
+        "10000"
+    })
+    private int coordinateCount;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final GeoJSONEncoder encoder = new GeoJSONEncoder();
+
+    private final GeoJSONWriter writer = GeoJSONWriter.withPrecision(6);
+
+    private List<Geometry> geometries;
+
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() {
+        geometries = "points".equals(geometryType)
+                ? SyntheticData.createPoints(coordinateCount)
+                : Collections.singletonList(SyntheticData.createLineString(coordinateCount));
+        output = new ByteArrayOutputStream();
+    }
+
+    @Benchmark
+    public int encoder() throws IOException, GeoJSONException {
+        output.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.writeStartArray();
+            for (Geometry geometry : geometries) {
+                mapper.writeTree(generator, encoder.encodeGeometry(geometry));
+            }
+            generator.writeEndArray();
+        }
+        return output.size();
+    }
+
+    @Benchmark
+    public int streamingWriter() throws IOException, GeoJSONException {
+        output.reset();
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.writeStartArray();
+            for (Geometry geometry : geometries) {
+                writer.writeGeometry(geometry, generator);
+            }
+            generator.writeEndArray();
+        }
+        return output.size();
+    }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of {@link IoParameters} from a request query and the copy operations each
+ * controller and service applies on its way to the backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IoParametersBenchmark {
+
+    /**
+     * The number of dataset ids within the query.
+     */
+    @Param({
+        "1",
+        "10",
+        "100"
+    })
+    private int datasetCount;
+
+    private Map<String, String> query;
+
+    private IoParameters parameters;
+
+    @Setup
+    public void setUp() {
+        StringBuilder datasets = new StringBuilder(SyntheticData.datasetId(0));
+        for (int i = 1; i < datasetCount; i++) {
+            datasets.append(",")
+                    .append(SyntheticData.datasetId(i));
+        }
+        query = new HashMap<>();
+        query.put(Parameters.DATASETS, datasets.toString());
+        query.put(Parameters.TIMESPAN, "2020-01-01T00:00:00Z/P7D");
+        query.put(Parameters.EXPANDED, "true");
+        query.put(Parameters.LOCALE, "de");
+        query.put(Parameters.FORMAT, "flot");
+        parameters = IoParameters.createFromSingleValueMap(query);
+    }
+
+    @Benchmark
+    public IoParameters createFromQuery() {
+        return IoParameters.createFromSingleValueMap(query);
+    }
+
+    @Benchmark
+    public IoParameters extendWith() {
+        return parameters.extendWith(Parameters.FILTER_DATASET_TYPES, "timeseries");
+    }
+
+    @Benchmark
+    public IoParameters replaceWith() {
+        return parameters.replaceWith(Parameters.DATASETS, SyntheticData.datasetId(0));
+    }
+
+    @Benchmark
+    public IoParameters removeAllOf() {
+        return parameters.removeAllOf(Parameters.LOCALE);
+    }
+
+    @Benchmark
+    public String toCanonicalString() {
+        return parameters.toCanonicalString();
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.n52.io.TvpDataCollection;
+import org.n52.io.crs.CRSUtils;
+import org.n52.io.handler.IoProcessChain;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.FeatureOutput;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.ParameterOutput;
+import org.n52.io.response.PhenomenonOutput;
+import org.n52.io.response.PlatformOutput;
+import org.n52.io.response.ProcedureOutput;
+import org.n52.io.response.TimeOutput;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.io.response.dataset.DatasetParameters;
+import org.n52.io.response.dataset.quantity.QuantityDatasetOutput;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+/**
+ * Generates deterministic synthetic datasets for the benchmarks. Series values follow a noisy sine wave with
+ * one value per minute starting at {@link #START}. A configurable ratio of the values are no-data values
+ * (i.e. gaps) which are placed at random positions.
+ */
+public final class SyntheticData {
+
+    public static final DateTime START = new DateTime(2020, 1, 1, 0, 0, DateTimeZone.UTC);
+
+    public static final long INTERVAL = 60_000L;
+
+    private static final long SEED = 52L;
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(),
+                                                                                CRSUtils.EPSG_WGS84);
+
+    private SyntheticData() {
+    }
+
+    public static String datasetId(int index) {
+        return "ds_" + index;
+    }
+
+    /**
+     * @param length
+     *        the number of values
+     * @param gapRatio
+     *        the ratio of no-data values (between <code>0</code> and <code>1</code>)
+     * @param seed
+     *        the seed of the random noise and gap positions
+     * @return a quantity series
+     */
+    public static Data<QuantityValue> createSeries(int length, double gapRatio, long seed) {
+        Random random = new Random(seed);
+        Data<QuantityValue> data = new Data<>();
+        for (int i = 0; i < length; i++) {
+            QuantityValue value = new QuantityValue();
+            value.setTimestamp(new TimeOutput(START.plus(i * INTERVAL)));
+            if (random.nextDouble() >= gapRatio) {
+                double signal = 10 * Math.sin(i / 100d) + random.nextGaussian();
+                value.setValue(BigDecimal.valueOf(signal));
+            }
+            data.addNewValue(value);
+        }
+        return data;
+    }
+
+    public static TvpDataCollection<Data<QuantityValue>> createCollection(int datasets, int length, double gapRatio) {
+        TvpDataCollection<Data<QuantityValue>> collection = new TvpDataCollection<>();
+        for (int i = 0; i < datasets; i++) {
+            collection.addNewSeries(datasetId(i), createSeries(length, gapRatio, SEED + i));
+        }
+        return collection;
+    }
+
+    public static List<QuantityDatasetOutput> createMetadata(int datasets) {
+        List<QuantityDatasetOutput> metadatas = new ArrayList<>(datasets);
+        for (int i = 0; i < datasets; i++) {
+            String id = datasetId(i);
+            FeatureOutput feature = createParameter(new FeatureOutput(), "feature_" + i);
+            feature.setGeometry(OptionalOutput.of(createPoint(7.0 + i * 0.01, 52.0)));
+
+            DatasetParameters parameters = new DatasetParameters();
+            parameters.setPhenomenon(createParameter(new PhenomenonOutput(), "phenomenon_" + i));
+            parameters.setProcedure(createParameter(new ProcedureOutput(), "procedure_" + i));
+            parameters.setPlatform(createParameter(new PlatformOutput(), "platform_" + i));
+
+            QuantityDatasetOutput metadata = new QuantityDatasetOutput();
+            metadata.setFeature(OptionalOutput.of(feature));
+            metadata.setDatasetParameters(OptionalOutput.of(parameters))
+                    .setUom(OptionalOutput.of("m"))
+                    .setId(id);
+            metadatas.add(metadata);
+        }
+        return metadatas;
+    }
+
+    /**
+     * @param datasets
+     *        the number of datasets to render
+     * @param length
+     *        the number of values per dataset
+     * @return chart parameters with a timespan covering all values and a line style per dataset
+     */
+    public static IoParameters createChartParameters(int datasets, int length) {
+        StringJoiner styles = new StringJoiner(",", "{", "}");
+        for (int i = 0; i < datasets; i++) {
+            styles.add("\"" + datasetId(i) + "\":{\"chartType\":\"line\"}");
+        }
+        DateTime end = START.plus(Math.max(1, length) * INTERVAL);
+        return IoParameters.createDefaults()
+                           .replaceWith(Parameters.TIMESPAN, START + "/" + end)
+                           .replaceWith(Parameters.STYLES, styles.toString());
+    }
+
+    public static <T extends Data<QuantityValue>> IoProcessChain<T> createProcessChain(DataCollection<T> data) {
+        return new IoProcessChain<T>() {
+
+            @Override
+            public DataCollection<T> getData() {
+                return data;
+            }
+
+            @Override
+            public DataCollection< ? > getProcessedData() {
+                return data;
+            }
+        };
+    }
+
+    public static Geometry createPoint(double x, double y) {
+        return GEOMETRY_FACTORY.createPoint(new Coordinate(x, y));
+    }
+
+    /**
+     * @param count
+     *        the number of points
+     * @return deterministic random points within the bounds of Germany
+     */
+    public static List<Geometry> createPoints(int count) {
+        Random random = new Random(SEED);
+        List<Geometry> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(createPoint(6 + random.nextDouble() * 9, 47 + random.nextDouble() * 8));
+        }
+        return points;
+    }
+
+    /**
+     * @param length
+     *        the number of coordinates
+     * @return a trajectory-like line string
+     */
+    public static Geometry createLineString(int length) {
+        Random random = new Random(SEED);
+        Coordinate[] coordinates = new Coordinate[length];
+        double x = 7.0;
+        double y = 52.0;
+        for (int i = 0; i < length; i++) {
+            x += (random.nextDouble() - 0.5) / 100;
+            y += (random.nextDouble() - 0.5) / 100;
+            coordinates[i] = new Coordinate(x, y);
+        }
+        return GEOMETRY_FACTORY.createLineString(coordinates);
+    }
+
+    private static <T extends ParameterOutput> T createParameter(T output, String label) {
+        output.setId(label)
+              .setLabel(OptionalOutput.of(label));
+        return output;
+    }
+
+}
@@ -34,11 +34,16 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 import java.util.ResourceBundle.Control;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.n52.janmayen.i18n.LocaleHelper;
 
@@ -48,6 +53,22 @@ public final class I18N {
 
     private static final String DEFAULT_LOCALE = "en";
 
+    /**
+     * Upper bound of distinct language codes remembered as given by clients (e.g. via Accept-Language).
+     */
+    private static final int MAX_LANGUAGE_CODES = 256;
+
+    private static final Control UTF8_CONTROL = new UTF8Control();
+
+    // locales supported by the platform, bounds the localizers to a fixed set
+    private static final Set<Locale> AVAILABLE_LOCALES = new HashSet<>(Arrays.asList(Locale.getAvailableLocales()));
+
+    // one (immutable) localizer per normalized locale
+    private static final Map<Locale, I18N> LOCALIZERS = new ConcurrentHashMap<>();
+
+    // language codes as requested, saves decoding known codes over and over again
+    private static final Map<String, I18N> LANGUAGE_CODES = new ConcurrentHashMap<>();
+
     private final ResourceBundle bundle;
 
     private final Locale locale;
@@ -88,9 +109,56 @@ public final class I18N {
         return getMessageLocalizer(DEFAULT_LOCALE);
     }
 
+    /**
+     * @param languageCode
+     *        the language code, e.g. <code>de</code> or <code>en-US</code>. The default locale is used if
+     *        <code>null</code>.
+     * @return a shared localizer for the given language
+     */
     public static I18N getMessageLocalizer(String languageCode) {
-        Locale locale = createLocate(languageCode);
-        return new I18N(ResourceBundle.getBundle(MESSAGES, locale, new UTF8Control()), locale);
+        String code = languageCode != null
+                ? languageCode
+                : DEFAULT_LOCALE;
+        I18N localizer = LANGUAGE_CODES.get(code);
+        if (localizer == null) {
+            localizer = LOCALIZERS.computeIfAbsent(normalize(createLocate(code)), I18N::createLocalizer);
+            if (LANGUAGE_CODES.size() < MAX_LANGUAGE_CODES) {
+                LANGUAGE_CODES.putIfAbsent(code, localizer);
+            }
+        }
+        return localizer;
+    }
+
+    /**
+     * Loads the localizers of the given languages in advance.
+     *
+     * @param languageCodes
+     *        the language codes to load
+     */
+    public static void preload(String... languageCodes) {
+        if (languageCodes != null) {
+            for (String languageCode : languageCodes) {
+                getMessageLocalizer(languageCode.trim());
+            }
+        }
+    }
+
+    private static I18N createLocalizer(Locale locale) {
+        return new I18N(ResourceBundle.getBundle(MESSAGES, locale, UTF8_CONTROL), locale);
+    }
+
+    /**
+     * Maps the given locale to one supported by the platform, so that arbitrary codes given by clients do
+     * not create localizers of their own. Falls back to the language only and then to the default locale.
+     */
+    private static Locale normalize(Locale locale) {
+        if (AVAILABLE_LOCALES.contains(locale)) {
+            return locale;
+        }
+        Locale language = new Locale(locale.getLanguage());
+        return AVAILABLE_LOCALES.contains(language)
+                ? language
+                : LocaleHelper.decode(DEFAULT_LOCALE);
     }
 
     private static Locale createLocate(String language) {
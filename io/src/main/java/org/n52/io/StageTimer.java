@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+
+/**
+ * Attributes the processing time of a single data request to the stages it passes (parsing, existence checks,
+ * fetching, generalization, formatting and serialization). Stages may nest: while a nested stage runs, the
+ * enclosing stage is paused so that each stage accounts for its exclusive time only. A stage entered multiple
+ * times accumulates its durations.
+ * <p>
+ * Besides durations, a timer collects tags describing the request (e.g. value type, output format or
+ * generalizer), samples of sizes (e.g. values fetched per dataset) and the number of bytes written to the client.
+ * </p>
+ * An instance is bound to the thread processing the request and must not be shared across threads.
+ */
+public class StageTimer {
+
+    public static final String PARSE = "parse";
+
+    public static final String EXISTS = "exists";
+
+    public static final String FETCH = "fetch";
+
+    public static final String GENERALIZE = "generalize";
+
+    public static final String FORMAT = "format";
+
+    public static final String SERIALIZE = "serialize";
+
+    public static final String VALUES_FETCHED = "values.fetched";
+
+    public static final String VALUES_EMITTED = "values.emitted";
+
+    public static final String SERIES = "series";
+
+    public static final String TAG_VALUE_TYPE = "valueType";
+
+    public static final String TAG_OUTPUT_FORMAT = "outputFormat";
+
+    public static final String TAG_GENERALIZER = "generalizer";
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+
+    private final Map<String, List<Long>> samples = new LinkedHashMap<>();
+
+    private Stage current;
+
+    private long bytesWritten;
+
+    /**
+     * Starts timing a stage. The returned stage has to be closed, preferably by a try-with-resources block.
+     *
+     * @param name
+     *        the stage name
+     * @return the running stage
+     */
+    public Stage start(String name) {
+        long now = System.nanoTime();
+        if (current != null) {
+            current.pause(now);
+        }
+        current = new Stage(name, current, now);
+        return current;
+    }
+
+    public <T> T time(String name, Supplier<T> supplier) {
+        try (Stage stage = start(name)) {
+            return supplier.get();
+        }
+    }
+
+    public StageTimer tag(String key, String value) {
+        if (value != null) {
+            tags.put(key, value);
+        }
+        return this;
+    }
+
+    public StageTimer tagIfAbsent(String key, String value) {
+        if (value != null) {
+            tags.putIfAbsent(key, value);
+        }
+        return this;
+    }
+
+    public void sample(String name, long value) {
+        samples.computeIfAbsent(name, k -> new ArrayList<>())
+               .add(value);
+    }
+
+    /**
+     * Samples the number of values of each series as <code>name</code>. The number of series is sampled as
+     * {@link #SERIES} for emitted values.
+     *
+     * @param name
+     *        the sample name, e.g. {@link #VALUES_FETCHED} or {@link #VALUES_EMITTED}
+     * @param data
+     *        the data to sample
+     * @param <T>
+     *        the data type
+     * @return the given data for chaining
+     */
+    public <T extends Data< ? >> DataCollection<T> sampleValues(String name, DataCollection<T> data) {
+        if (data != null) {
+            Map<String, T> series = data.getAllSeries();
+            series.values()
+                  .forEach(s -> sample(name, s.size()));
+            if (VALUES_EMITTED.equals(name)) {
+                sample(SERIES, series.size());
+            }
+        }
+        return data;
+    }
+
+    public void addBytesWritten(long bytes) {
+        bytesWritten += bytes;
+    }
+
+    /**
+     * @return the exclusive durations of all finished stages in nanoseconds, in order of their first completion
+     */
+    public Map<String, Long> getDurations() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+    }
+
+    /**
+     * @return all sampled values by name, in order of their first sampling
+     */
+    public Map<String, List<Long>> getSamples() {
+        Map<String, List<Long>> copy = new LinkedHashMap<>();
+        samples.forEach((name, values) -> copy.put(name, Collections.unmodifiableList(new ArrayList<>(values))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public final class Stage implements AutoCloseable {
+
+        private final String name;
+
+        private final Stage parent;
+
+        private long resumed;
+
+        private long elapsed;
+
+        private boolean closed;
+
+        private Stage(String name, Stage parent, long start) {
+            this.name = name;
+            this.parent = parent;
+            this.resumed = start;
+        }
+
+        private void pause(long now) {
+            elapsed += now - resumed;
+        }
+
+        private void resume(long now) {
+            resumed = now;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long now = System.nanoTime();
+            pause(now);
+            durations.merge(name, elapsed, Long::sum);
+            if (current == this) {
+                current = parent;
+                if (parent != null) {
+                    parent.resume(now);
+                }
+            }
+        }
+    }
+
+}
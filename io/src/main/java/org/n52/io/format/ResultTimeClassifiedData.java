@@ -29,47 +29,185 @@
 package org.n52.io.format;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
+import org.joda.time.DateTime;
+import org.n52.io.response.TimeOutput;
 import org.n52.io.response.dataset.AbstractValue;
 
-import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
+/**
+ * Groups values by result time (falling back to the timestamp for values without result time). Groups are
+ * kept in an array of primitive result times with a parallel list of value groups. Values of a single
+ * forecast run usually arrive in sequence, so that classifying a value mostly compares against the latest
+ * group only. Once result times arrive out of order (e.g. values of several forecast runs sorted by
+ * timestamp), groups are looked up by hash and appended, and sorted once before they are read.
+ * <p>
+ * Serialized as JSON object with one member per result time (in milliseconds), in chronological order.
+ * </p>
+ */
+@JsonSerialize(using = ResultTimeClassifiedDataSerializer.class)
 public class ResultTimeClassifiedData<T extends AbstractValue< ? >> {
 
-    private Map<String, List<AbstractValue< ? >>> valuesByResultTime;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] resultTimes = new long[INITIAL_CAPACITY];
+
+    private List<List<AbstractValue< ? >>> groups = new ArrayList<>();
+
+    private Map<Long, List<AbstractValue< ? >>> groupsByResultTime;
+
+    private boolean sorted = true;
 
     public ResultTimeClassifiedData() {
-        valuesByResultTime = new HashMap<>();
+        // empty
     }
 
-    @JsonAnyGetter
+    /**
+     * @return a copy of all groups in chronological order, keyed by result time (in milliseconds).
+     */
     public Map<String, List<AbstractValue< ? >>> getValuesByResultTime() {
+        ensureSorted();
+        Map<String, List<AbstractValue< ? >>> valuesByResultTime = new LinkedHashMap<>();
+        for (int i = 0; i < size(); i++) {
+            valuesByResultTime.put(Long.toString(resultTimes[i]), groups.get(i));
+        }
         return valuesByResultTime;
     }
 
     public void setValuesByResultTime(Map<String, List<AbstractValue< ? >>> valuesByResultTime) {
-        this.valuesByResultTime = valuesByResultTime;
+        groups.clear();
+        groupsByResultTime = null;
+        sorted = true;
+        if (valuesByResultTime != null) {
+            for (Entry<String, List<AbstractValue< ? >>> entry : valuesByResultTime.entrySet()) {
+                getGroup(Long.parseLong(entry.getKey())).addAll(entry.getValue());
+            }
+        }
     }
 
     /**
-     * Classifies the given value into result time (if present).
+     * @return the number of distinct result times.
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    /**
+     * @param index
+     *        the chronological index of the group
+     * @return the result time (in milliseconds) of the group
+     */
+    public long getResultTime(int index) {
+        if (index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        ensureSorted();
+        return resultTimes[index];
+    }
+
+    /**
+     * @param index
+     *        the chronological index of the group
+     * @return the values of the group
+     */
+    public List<AbstractValue< ? >> getValues(int index) {
+        ensureSorted();
+        return groups.get(index);
+    }
+
+    /**
+     * Classifies the given value by its result time, or by its timestamp if no result time is present.
      *
      * @param value
      *        the value to classify.
      */
     public void classifyValue(T value) {
-        Long resultTime = value.getTimestamp().getMillis();
+        DateTime resultTime = value.getResultTime();
+        TimeOutput timestamp = value.getTimestamp();
         if (resultTime != null) {
-            String rt = Long.toString(resultTime);
-            if (!valuesByResultTime.containsKey(rt)) {
-                valuesByResultTime.put(rt, new ArrayList<>());
+            getGroup(resultTime.getMillis()).add(value);
+        } else if (timestamp != null) {
+            getGroup(timestamp.getMillis()).add(value);
+        }
+    }
+
+    private List<AbstractValue< ? >> getGroup(long resultTime) {
+        int size = groups.size();
+        if (size > 0 && resultTime == resultTimes[size - 1]) {
+            return groups.get(size - 1);
+        }
+        if (groupsByResultTime != null) {
+            List<AbstractValue< ? >> group = groupsByResultTime.get(resultTime);
+            return group != null
+                    ? group
+                    : appendGroup(resultTime);
+        }
+        if (size == 0 || resultTime > resultTimes[size - 1]) {
+            // sorted input always ends up here or in the first case
+            return appendGroup(resultTime);
+        }
+        if (sorted) {
+            int index = Arrays.binarySearch(resultTimes, 0, size, resultTime);
+            if (index >= 0) {
+                return groups.get(index);
             }
-            valuesByResultTime.get(rt)
-                              .add(value);
         }
+        // out of order: switch to hash lookups, groups get sorted once before being read
+        groupsByResultTime = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            groupsByResultTime.put(resultTimes[i], groups.get(i));
+        }
+        List<AbstractValue< ? >> group = groupsByResultTime.get(resultTime);
+        return group != null
+                ? group
+                : appendGroup(resultTime);
+    }
+
+    private List<AbstractValue< ? >> appendGroup(long resultTime) {
+        int size = groups.size();
+        if (size == resultTimes.length) {
+            resultTimes = Arrays.copyOf(resultTimes, size * 2);
+        }
+        if (size > 0 && resultTime < resultTimes[size - 1]) {
+            sorted = false;
+        }
+        resultTimes[size] = resultTime;
+        List<AbstractValue< ? >> group = new ArrayList<>();
+        groups.add(group);
+        if (groupsByResultTime != null) {
+            groupsByResultTime.put(resultTime, group);
+        }
+        return group;
+    }
+
+    private void ensureSorted() {
+        if (sorted) {
+            return;
+        }
+        int size = groups.size();
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        long[] unsortedTimes = resultTimes;
+        Arrays.sort(order, (a, b) -> Long.compare(unsortedTimes[a], unsortedTimes[b]));
+
+        long[] sortedTimes = new long[unsortedTimes.length];
+        List<List<AbstractValue< ? >>> sortedGroups = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            sortedTimes[i] = unsortedTimes[order[i]];
+            sortedGroups.add(groups.get(order[i]));
+        }
+        resultTimes = sortedTimes;
+        groups = sortedGroups;
+        sorted = true;
     }
 
 }
@@ -34,6 +34,10 @@ import org.n52.io.response.dataset.AbstractValue;
 import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DataCollection;
 
+/**
+ * Groups the values of each dataset by result time, see {@link ResultTimeClassifiedData}. Grouping is a single
+ * pass over the values, regardless of the order the result times arrive in.
+ */
 public class ResultTimeFormatter<I extends Data< ? extends AbstractValue< ? >>>
         implements DataFormatter<I, ResultTimeClassifiedData<AbstractValue< ? >>> {
 
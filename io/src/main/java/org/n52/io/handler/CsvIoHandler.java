@@ -110,6 +110,7 @@ public abstract class CsvIoHandler<T extends AbstractValue< ? >> extends IoHandl
     protected void writeAsZipStream(DataCollection<Data<T>> data, OutputStream stream) throws IOException {
         try (ZipOutputStream zipStream = new ZipOutputStream(stream)) {
             for (DatasetOutput<T> dataset : seriesMetadatas) {
+                checkCancelled();
                 String filename = getFilenameFor(dataset) + ".csv";
 
                 ZipEntry zipEntry = new ZipEntry(filename);
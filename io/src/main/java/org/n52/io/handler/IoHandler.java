@@ -72,14 +72,15 @@ public abstract class IoHandler<T extends Data< ? extends AbstractValue< ? >>> {
 
     public void writeBinary(OutputStream outputStream) throws IoHandlerException {
         try (OutputStream stream = outputStream) {
+            DataCollection<T> data = processChain.getData();
+            checkCancelled();
             if (parameters.isBase64()) {
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                encodeAndWriteTo(processChain.getData(), baos);
-                byte[] data = baos.toByteArray();
-                byte[] encode = Base64.encodeBase64(data);
+                encodeAndWriteTo(data, baos);
+                byte[] encode = Base64.encodeBase64(baos.toByteArray());
                 stream.write(encode);
             } else {
-                encodeAndWriteTo(processChain.getData(), stream);
+                encodeAndWriteTo(data, stream);
             }
         } catch (IOException e) {
             throw new IoHandlerException("Error handling output stream.", e);
@@ -90,4 +91,16 @@ public abstract class IoHandler<T extends Data< ? extends AbstractValue< ? >>> {
         return parameters;
     }
 
+    /**
+     * To be called between expensive steps of creating the output, so that output is not created for clients
+     * which are gone already.
+     *
+     * @throws org.n52.io.request.RequestCancelledException
+     *         if the request has been cancelled
+     */
+    protected void checkCancelled() {
+        parameters.getCancellationToken()
+                  .throwIfCancelled();
+    }
+
 }
@@ -35,6 +35,7 @@ import java.util.stream.Stream;
 
 import org.n52.io.Constants;
 import org.n52.io.IoStyleContext;
+import org.n52.io.StageTimer;
 import org.n52.io.format.ResultTimeFormatter;
 import org.n52.io.handler.simple.SimpleCsvIoHandler;
 import org.n52.io.request.IoParameters;
@@ -54,6 +55,10 @@ public abstract class IoHandlerFactory<P extends DatasetOutput<V>, V extends Abs
 
     private ParameterService<P> datasetService;
 
+    private List<P> metadatas;
+
+    private StageTimer stageTimer = new StageTimer();
+
     public IoHandlerFactory() {
         this.parameters = IoParameters.createDefaults();
     }
@@ -73,6 +78,29 @@ public abstract class IoHandlerFactory<P extends DatasetOutput<V>, V extends Abs
         return this;
     }
 
+    /**
+     * @param metadatas
+     *        the already resolved metadata of the requested datasets, so that they are not queried again from
+     *        the dataset service (<code>null</code> to query them on demand).
+     * @return this instance for chaining.
+     */
+    public IoHandlerFactory<P, V> setMetadatas(List<P> metadatas) {
+        this.metadatas = metadatas;
+        return this;
+    }
+
+    /**
+     * @param stageTimer
+     *        the timer to attribute processing time of created process chains to.
+     * @return this instance for chaining.
+     */
+    public IoHandlerFactory<P, V> setStageTimer(StageTimer stageTimer) {
+        this.stageTimer = stageTimer == null
+                ? new StageTimer()
+                : stageTimer;
+        return this;
+    }
+
     public IoHandler<Data<V>> createHandler(String outputMimeType) {
         Constants.MimeType mimeType = Constants.MimeType.toInstance(outputMimeType);
         if (isCsvOutput(mimeType)) {
@@ -95,15 +123,25 @@ public abstract class IoHandlerFactory<P extends DatasetOutput<V>, V extends Abs
 
             @Override
             public DataCollection<Data<V>> getData() {
-                return getDataService().getData(parameters);
+                parameters.getCancellationToken()
+                          .throwIfCancelled();
+                DataCollection<Data<V>> data = stageTimer.time(StageTimer.FETCH,
+                                                               () -> getDataService().getData(parameters));
+                parameters.getCancellationToken()
+                          .throwIfCancelled();
+                // no generalization here, so fetched values are emitted as is
+                stageTimer.sampleValues(StageTimer.VALUES_FETCHED, data);
+                return stageTimer.sampleValues(StageTimer.VALUES_EMITTED, data);
             }
 
             @Override
             public DataCollection< ? > getProcessedData() {
-                return parameters.shallClassifyByResultTimes()
-                        ? new ResultTimeFormatter<Data<V>>().format(getData())
-                        // empty chain
-                        : getData();
+                if (!parameters.shallClassifyByResultTimes()) {
+                    // empty chain
+                    return getData();
+                }
+                DataCollection<Data<V>> data = getData();
+                return stageTimer.time(StageTimer.FORMAT, () -> new ResultTimeFormatter<Data<V>>().format(data));
             }
         };
     }
@@ -126,13 +164,16 @@ public abstract class IoHandlerFactory<P extends DatasetOutput<V>, V extends Abs
     }
 
     protected IoStyleContext createContext() {
-        if (datasetService == null || !parameters.hasStyles()) {
+        if ((datasetService == null && metadatas == null) || !parameters.hasStyles()) {
             return IoStyleContext.createEmpty();
         }
         return IoStyleContext.createContextWith(parameters, getMetadatas());
     }
 
     protected List<P> getMetadatas() {
+        if (metadatas != null) {
+            return metadatas;
+        }
         String[] datasetIds = parameters.getDatasets()
                                         .toArray(new String[0]);
         return datasetService.getParameters(datasetIds, parameters)
@@ -147,6 +188,10 @@ public abstract class IoHandlerFactory<P extends DatasetOutput<V>, V extends Abs
         return dataService;
     }
 
+    protected StageTimer getStageTimer() {
+        return stageTimer;
+    }
+
     protected boolean isCsvOutput(Constants.MimeType mimeType) {
         return mimeType == Constants.MimeType.TEXT_CSV || mimeType == Constants.MimeType.APPLICATION_ZIP;
     }
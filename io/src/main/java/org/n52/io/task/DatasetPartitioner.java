@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.task;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Assigns datasets to one of several nodes by consistent hashing on the dataset id. Each node is placed
+ * multiple times (virtual nodes) on a hash ring and owns all ids hashing up to its next position. The
+ * assignment only depends on node count and id, so all nodes agree on it without coordination. Changing
+ * the node count moves only about {@code 1/nodeCount} of the datasets to another node.
+ *
+ * @since 3.1.1
+ */
+public class DatasetPartitioner {
+
+    private static final int VIRTUAL_NODES_DEFAULT = 128;
+
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+
+    private final int nodeCount;
+
+    public DatasetPartitioner(int nodeCount) {
+        this(nodeCount, VIRTUAL_NODES_DEFAULT);
+    }
+
+    public DatasetPartitioner(int nodeCount, int virtualNodes) {
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException("node count must be positive: " + nodeCount);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtual nodes must be positive: " + virtualNodes);
+        }
+        this.nodeCount = nodeCount;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.putIfAbsent(hash("node-" + node + "#" + replica), node);
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param datasetId
+     *        the dataset id
+     * @return the index of the node owning given dataset (zero based)
+     */
+    public int getOwner(String datasetId) {
+        if (nodeCount == 1) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(datasetId));
+        return entry != null
+                ? entry.getValue()
+                : ring.firstEntry()
+                      .getValue();
+    }
+
+    public boolean isOwnedBy(String datasetId, int nodeIndex) {
+        return getOwner(datasetId) == nodeIndex;
+    }
+
+    private static long hash(String value) {
+        byte[] digest = md5().digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << Byte.SIZE) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support MD5
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+}
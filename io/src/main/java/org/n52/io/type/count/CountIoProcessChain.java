@@ -52,6 +52,8 @@ final class CountIoProcessChain implements IoProcessChain<Data<CountValue>> {
 
     @Override
     public DataCollection<Data<CountValue>> getData() {
+        parameters.getCancellationToken()
+                  .throwIfCancelled();
         return dataService.getData(parameters);
     }
 
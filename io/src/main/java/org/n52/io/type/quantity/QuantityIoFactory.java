@@ -65,7 +65,7 @@ public final class QuantityIoFactory extends IoHandlerFactory<QuantityDatasetOut
 
     @Override
     public IoProcessChain<Data<QuantityValue>> createProcessChain() {
-        return new QuantityIoProcessChain(getDataService(), getParameters());
+        return new QuantityIoProcessChain(getDataService(), getParameters(), getStageTimer());
     }
 
     @Override
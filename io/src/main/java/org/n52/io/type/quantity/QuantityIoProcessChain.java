@@ -28,6 +28,7 @@
  */
 package org.n52.io.type.quantity;
 
+import org.n52.io.StageTimer;
 import org.n52.io.format.ResultTimeClassifiedData;
 import org.n52.io.format.ResultTimeFormatter;
 import org.n52.io.handler.IoProcessChain;
@@ -46,18 +47,29 @@ final class QuantityIoProcessChain implements IoProcessChain<Data<QuantityValue>
 
     private final IoParameters parameters;
 
-    QuantityIoProcessChain(DataService<Data<QuantityValue>> dataService, IoParameters parameters) {
+    private final StageTimer stageTimer;
+
+    QuantityIoProcessChain(DataService<Data<QuantityValue>> dataService,
+                           IoParameters parameters,
+                           StageTimer stageTimer) {
         this.dataService = dataService;
         this.parameters = parameters;
+        this.stageTimer = stageTimer;
     }
 
     @Override
     public DataCollection<Data<QuantityValue>> getData() {
-        boolean generalize = parameters.isGeneralize();
-        DataService<Data<QuantityValue>> service = generalize
-                ? new GeneralizingQuantityService(dataService)
-                : dataService;
-        return service.getData(parameters);
+        // the generalizing service attributes fetch and generalization separately
+        DataCollection<Data<QuantityValue>> data = parameters.isGeneralize()
+                ? new GeneralizingQuantityService(dataService, stageTimer).getData(parameters)
+                : stageTimer.sampleValues(StageTimer.VALUES_FETCHED, fetch());
+        return stageTimer.sampleValues(StageTimer.VALUES_EMITTED, data);
+    }
+
+    private DataCollection<Data<QuantityValue>> fetch() {
+        parameters.getCancellationToken()
+                  .throwIfCancelled();
+        return stageTimer.time(StageTimer.FETCH, () -> dataService.getData(parameters));
     }
 
     @Override
@@ -68,14 +80,15 @@ final class QuantityIoProcessChain implements IoProcessChain<Data<QuantityValue>
     }
 
     private DataCollection<ResultTimeClassifiedData<AbstractValue< ? >>> formatAccordingToResultTimes() {
-        return new ResultTimeFormatter<Data<QuantityValue>>().format(getData());
+        DataCollection<Data<QuantityValue>> data = getData();
+        return stageTimer.time(StageTimer.FORMAT, () -> new ResultTimeFormatter<Data<QuantityValue>>().format(data));
     }
 
     private DataCollection< ? > formatValueOutputs() {
         FormatterFactory factory = FormatterFactory.createFormatterFactory(parameters);
         DataCollection<Data<QuantityValue>> data = getData();
-        return factory.create()
-                      .format(data);
+        return stageTimer.time(StageTimer.FORMAT, () -> factory.create()
+                                                               .format(data));
     }
 
 }
@@ -124,6 +124,7 @@ public final class DouglasPeuckerGeneralizer extends Generalizer<Data<QuantityVa
             throws GeneralizerException {
         TvpDataCollection<Data<QuantityValue>> generalizedDataCollection = new TvpDataCollection<>();
         for (String timeseriesId : data.getAllSeries().keySet()) {
+            checkCancelled();
             Data<QuantityValue> timeseries = data.getSeries(timeseriesId);
             generalizedDataCollection.addNewSeries(timeseriesId, generalize(timeseries));
         }
@@ -170,6 +171,7 @@ public final class DouglasPeuckerGeneralizer extends Generalizer<Data<QuantityVa
     }
 
     private QuantityValue[] recursiveGeneralize(Data<QuantityValue> timeseries) {
+        checkCancelled();
         QuantityValue[] values = getValueArray(timeseries);
         QuantityValue startValue = getFirstValue(timeseries);
         QuantityValue endValue = getLastValue(timeseries);
@@ -50,4 +50,15 @@ public abstract class Generalizer<T extends Data< ? >> {
 
     public abstract String getName();
 
+    /**
+     * To be called between units of work, so that generalizing stops once the request has been cancelled.
+     *
+     * @throws org.n52.io.request.RequestCancelledException
+     *         if the request has been cancelled
+     */
+    protected void checkCancelled() {
+        getParameters().getCancellationToken()
+                       .throwIfCancelled();
+    }
+
 }
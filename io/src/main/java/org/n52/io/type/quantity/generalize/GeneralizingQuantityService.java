@@ -28,6 +28,8 @@
  */
 package org.n52.io.type.quantity.generalize;
 
+import org.n52.io.StageTimer;
+import org.n52.io.request.CancellationToken;
 import org.n52.io.request.IoParameters;
 import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DataCollection;
@@ -46,16 +48,29 @@ public class GeneralizingQuantityService implements DataService<Data<QuantityVal
 
     private final DataService<Data<QuantityValue>> composedService;
 
+    private final StageTimer stageTimer;
+
     public GeneralizingQuantityService(DataService<Data<QuantityValue>> toCompose) {
+        this(toCompose, new StageTimer());
+    }
+
+    public GeneralizingQuantityService(DataService<Data<QuantityValue>> toCompose, StageTimer stageTimer) {
         this.composedService = toCompose;
+        this.stageTimer = stageTimer;
     }
 
     @Override
     public DataCollection<Data<QuantityValue>> getData(IoParameters parameters) {
-        DataCollection<Data<QuantityValue>> data = composedService.getData(parameters);
+        CancellationToken cancellation = parameters.getCancellationToken();
+        cancellation.throwIfCancelled();
+        DataCollection<Data<QuantityValue>> data = stageTimer.time(StageTimer.FETCH,
+                                                                   () -> composedService.getData(parameters));
+        stageTimer.sampleValues(StageTimer.VALUES_FETCHED, data);
+        cancellation.throwIfCancelled();
         DataCollection<Data<QuantityValue>> ungeneralizedData = data;
-        try {
+        try (StageTimer.Stage stage = stageTimer.start(StageTimer.GENERALIZE)) {
             Generalizer<Data<QuantityValue>> generalizer = GeneralizerFactory.createGeneralizer(parameters);
+            stageTimer.tag(StageTimer.TAG_GENERALIZER, generalizer.getName());
             DataCollection<Data<QuantityValue>> generalizedData = generalizer.generalize(ungeneralizedData);
             if (LOGGER.isDebugEnabled()) {
                 logGeneralizationAmount(ungeneralizedData, generalizedData);
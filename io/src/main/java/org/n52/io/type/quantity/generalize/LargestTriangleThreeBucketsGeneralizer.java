@@ -88,6 +88,7 @@ public class LargestTriangleThreeBucketsGeneralizer extends Generalizer<Data<Qua
             DataCollection<Data<QuantityValue>> data) throws GeneralizerException {
         TvpDataCollection<Data<QuantityValue>> generalizedDataCollection = new TvpDataCollection<>();
         for (String timeseriesId : data.getAllSeries().keySet()) {
+            checkCancelled();
             Data<QuantityValue> timeseries = data.getSeries(timeseriesId);
             Data<QuantityValue> generalizedTimeseries = generalize(timeseries);
             generalizedDataCollection.addNewSeries(timeseriesId, generalizedTimeseries);
@@ -115,7 +115,10 @@ public abstract class ChartIoHandler extends IoHandler<Data<QuantityValue>> {
             throws IoParseException {
         try {
             writeDataToChart(data);
-            ImageIO.write(createImage(), mimeType.getFormatName(), stream);
+            checkCancelled();
+            BufferedImage image = createImage();
+            checkCancelled();
+            ImageIO.write(image, mimeType.getFormatName(), stream);
         } catch (IOException e) {
             throw new IoParseException("Could not write image to output stream.", e);
         }
@@ -74,6 +74,7 @@ public class MultipleChartsRenderer extends ChartIoHandler {
 
         int rendererCount = timeseriesMetadatas.size();
         for (int rendererIndex = 0; rendererIndex < timeseriesMetadatas.size(); rendererIndex++) {
+            checkCancelled();
 
             /*
              * For each index put data and its renderer configured to a particular style. As each timeseries
@@ -104,6 +104,7 @@ public class PDFReportGenerator extends ReportGenerator<Data<QuantityValue>> {
     public void generateOutput(DataCollection<Data<QuantityValue>> data) throws IoHandlerException {
         try {
             generateTimeseriesChart(data);
+            checkCancelled();
             generateTimeseriesMetadata();
         } catch (IOException e) {
             throw new IoHandlerException("Error handling (temp) file!", e);
@@ -137,6 +138,8 @@ public class PDFReportGenerator extends ReportGenerator<Data<QuantityValue>> {
             throws IoHandlerException {
         try {
             generateOutput(data);
+            // rendering the document is the most expensive part
+            checkCancelled();
             DefaultConfigurationBuilder cfgBuilder = new DefaultConfigurationBuilder();
             Configuration cfg = cfgBuilder.build(document.newInputStream());
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.jupiter.api.Test;
+
+public class I18NTest {
+
+    @Test
+    public void when_requestingSameLanguageTwice_then_shareLocalizer() {
+        assertThat(I18N.getMessageLocalizer("de"), is(sameInstance(I18N.getMessageLocalizer("de"))));
+    }
+
+    @Test
+    public void when_requestingWithoutLanguage_then_useDefaultLocalizer() {
+        assertThat(I18N.getMessageLocalizer(null), is(sameInstance(I18N.getDefaultLocalizer())));
+        assertThat(I18N.getDefaultLocalizer().getTwoDigitsLanguageCode(), is("en"));
+    }
+
+    @Test
+    public void when_requestingUnsupportedLanguages_then_shareDefaultLocalizer() {
+        I18N defaultLocalizer = I18N.getDefaultLocalizer();
+        assertThat(I18N.getMessageLocalizer("xx"), is(sameInstance(defaultLocalizer)));
+        assertThat(I18N.getMessageLocalizer("xy-ZZ"), is(sameInstance(defaultLocalizer)));
+    }
+
+    @Test
+    public void when_requestingUnsupportedCountry_then_shareLanguageLocalizer() {
+        assertThat(I18N.getMessageLocalizer("de-XX"), is(sameInstance(I18N.getMessageLocalizer("de"))));
+    }
+
+}
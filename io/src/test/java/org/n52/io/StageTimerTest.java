@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+import org.junit.jupiter.api.Test;
+
+public class StageTimerTest {
+
+    private static final long NESTED_MILLIS = 50;
+
+    @Test
+    public void when_nestingStages_then_outerStageExcludesNestedTime() throws InterruptedException {
+        StageTimer timer = new StageTimer();
+        try (StageTimer.Stage outer = timer.start(StageTimer.SERIALIZE)) {
+            try (StageTimer.Stage nested = timer.start(StageTimer.FETCH)) {
+                Thread.sleep(NESTED_MILLIS);
+            }
+        }
+        long nestedNanos = TimeUnit.MILLISECONDS.toNanos(NESTED_MILLIS);
+        assertThat(timer.getDurations().keySet(), contains(StageTimer.FETCH, StageTimer.SERIALIZE));
+        assertThat(timer.getDurations().get(StageTimer.FETCH), is(greaterThanOrEqualTo(nestedNanos)));
+        assertThat(timer.getDurations().get(StageTimer.SERIALIZE), is(lessThan(nestedNanos)));
+    }
+
+    @Test
+    public void when_repeatingStage_then_durationsAccumulate() {
+        StageTimer timer = new StageTimer();
+        timer.time(StageTimer.FETCH, this::sleep);
+        timer.time(StageTimer.FETCH, this::sleep);
+        long twice = TimeUnit.MILLISECONDS.toNanos(2 * NESTED_MILLIS);
+        assertThat(timer.getDurations().size(), is(1));
+        assertThat(timer.getDurations().get(StageTimer.FETCH), is(greaterThanOrEqualTo(twice)));
+    }
+
+    @Test
+    public void when_closingStageTwice_then_recordOnce() {
+        StageTimer timer = new StageTimer();
+        StageTimer.Stage stage = timer.start(StageTimer.PARSE);
+        stage.close();
+        long duration = timer.getDurations().get(StageTimer.PARSE);
+        stage.close();
+        assertThat(timer.getDurations().get(StageTimer.PARSE), is(duration));
+    }
+
+    @Test
+    public void when_samplingEmittedValues_then_valuesPerSeriesAndSeriesCountSampled() {
+        DataCollection<Data<QuantityValue>> data = new DataCollection<>();
+        data.addNewSeries("a", createData(3));
+        data.addNewSeries("b", createData(5));
+        StageTimer timer = new StageTimer();
+        timer.sampleValues(StageTimer.VALUES_EMITTED, data);
+        assertThat(timer.getSamples().get(StageTimer.VALUES_EMITTED), containsInAnyOrder(3L, 5L));
+        assertThat(timer.getSamples().get(StageTimer.SERIES), contains(2L));
+    }
+
+    private static Data<QuantityValue> createData(int size) {
+        Data<QuantityValue> data = new Data<>();
+        for (int i = 0; i < size; i++) {
+            data.addNewValue(new QuantityValue());
+        }
+        return data;
+    }
+
+    private Void sleep() {
+        try {
+            Thread.sleep(NESTED_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+}
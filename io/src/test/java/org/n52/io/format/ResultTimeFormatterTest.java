@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.format;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.math.BigDecimal;
+
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.Test;
+import org.n52.io.response.TimeOutput;
+import org.n52.io.response.dataset.AbstractValue;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ResultTimeFormatterTest {
+
+    @Test
+    public void when_sortedValues_then_groupsInChronologicalOrder() {
+        ResultTimeClassifiedData<AbstractValue< ? >> classified = format(1000L, 1000L, 2000L, 3000L, 3000L);
+        assertThat(classified.size(), is(3));
+        assertThat(classified.getValuesByResultTime()
+                             .keySet(),
+                   contains("1000", "2000", "3000"));
+        assertThat(classified.getValues(0)
+                             .size(),
+                   is(2));
+        assertThat(classified.getValues(2)
+                             .size(),
+                   is(2));
+    }
+
+    @Test
+    public void when_unsortedValues_then_groupsInChronologicalOrder() {
+        ResultTimeClassifiedData<AbstractValue< ? >> classified = format(3000L, 1000L, 2000L, 1000L, 500L);
+        assertThat(classified.getValuesByResultTime()
+                             .keySet(),
+                   contains("500", "1000", "2000", "3000"));
+        assertThat(classified.getValues(1)
+                             .size(),
+                   is(2));
+    }
+
+    @Test
+    public void when_manyResultTimes_then_allGroupsKept() {
+        long[] times = new long[100];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = (times.length - i) * 10L;
+        }
+        ResultTimeClassifiedData<AbstractValue< ? >> classified = format(times);
+        assertThat(classified.size(), is(times.length));
+        for (int i = 1; i < classified.size(); i++) {
+            assertThat(classified.getResultTime(i - 1) < classified.getResultTime(i), is(true));
+        }
+    }
+
+    @Test
+    public void when_forecastsWithSeveralResultTimesPerTimestamp_then_groupByResultTime() {
+        // three forecast runs covering the same timestamps, values sorted by timestamp
+        long[] runs = {3_600_000L, 0L, 7_200_000L};
+        Data<QuantityValue> data = new Data<>();
+        for (long time = 10_000_000L; time < 10_000_000L + 24 * 3_600_000L; time += 3_600_000L) {
+            for (long run : runs) {
+                QuantityValue value = new QuantityValue();
+                value.setTimestamp(new TimeOutput(new DateTime(time)));
+                value.setResultTime(new DateTime(run));
+                value.setValue(BigDecimal.ONE);
+                data.addNewValue(value);
+            }
+        }
+        DataCollection<Data<QuantityValue>> collection = new DataCollection<>();
+        collection.addNewSeries("forecast", data);
+        ResultTimeClassifiedData<AbstractValue< ? >> classified =
+                new ResultTimeFormatter<Data<QuantityValue>>().format(collection)
+                                                              .getSeries("forecast");
+
+        assertThat(classified.getValuesByResultTime()
+                             .keySet(),
+                   contains("0", "3600000", "7200000"));
+        for (int i = 0; i < classified.size(); i++) {
+            assertThat(classified.getValues(i)
+                                 .size(),
+                       is(24));
+            for (AbstractValue< ? > value : classified.getValues(i)) {
+                assertThat(value.getResultTime()
+                                .getMillis(),
+                           is(classified.getResultTime(i)));
+            }
+        }
+    }
+
+    @Test
+    public void when_serialized_then_membersInChronologicalOrder() {
+        ResultTimeClassifiedData<AbstractValue< ? >> classified = format(2000L, 1000L, 2000L);
+        JsonNode json = new ObjectMapper().valueToTree(classified);
+        assertThat(json.fieldNames()
+                       .next(),
+                   is("1000"));
+        assertThat(json.size(), is(2));
+        assertThat(json.get("2000")
+                       .size(),
+                   is(2));
+    }
+
+    private static ResultTimeClassifiedData<AbstractValue< ? >> format(long... times) {
+        Data<QuantityValue> data = new Data<>();
+        for (long time : times) {
+            QuantityValue value = new QuantityValue();
+            value.setTimestamp(new TimeOutput(new DateTime(time)));
+            value.setValue(BigDecimal.ONE);
+            data.addNewValue(value);
+        }
+        DataCollection<Data<QuantityValue>> collection = new DataCollection<>();
+        collection.addNewSeries("test", data);
+        return new ResultTimeFormatter<Data<QuantityValue>>().format(collection)
+                                                            .getSeries("test");
+    }
+
+}
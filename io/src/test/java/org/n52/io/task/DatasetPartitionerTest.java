@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.task;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class DatasetPartitionerTest {
+
+    private static final int DATASETS = 10000;
+
+    @Test
+    public void when_singleNode_then_ownsAllDatasets() {
+        DatasetPartitioner partitioner = new DatasetPartitioner(1);
+        assertThat(partitioner.isOwnedBy("42", 0), is(true));
+    }
+
+    @Test
+    public void when_partitioningTwice_then_sameOwners() {
+        DatasetPartitioner first = new DatasetPartitioner(4);
+        DatasetPartitioner second = new DatasetPartitioner(4);
+        for (int i = 0; i < DATASETS; i++) {
+            String id = Integer.toString(i);
+            assertThat(first.getOwner(id), is(second.getOwner(id)));
+        }
+    }
+
+    @Test
+    public void when_partitioning_then_eachDatasetOwnedByExactlyOneNode() {
+        DatasetPartitioner partitioner = new DatasetPartitioner(3);
+        for (int i = 0; i < DATASETS; i++) {
+            String id = "dataset_" + i;
+            int owners = 0;
+            for (int node = 0; node < partitioner.getNodeCount(); node++) {
+                owners += partitioner.isOwnedBy(id, node) ? 1 : 0;
+            }
+            assertThat(owners, is(1));
+        }
+    }
+
+    @Test
+    public void when_partitioning_then_datasetsSpreadEvenly() {
+        int nodes = 4;
+        DatasetPartitioner partitioner = new DatasetPartitioner(nodes);
+        int[] counts = new int[nodes];
+        for (int i = 0; i < DATASETS; i++) {
+            counts[partitioner.getOwner("dataset_" + i)]++;
+        }
+        int fairShare = DATASETS / nodes;
+        for (int count : counts) {
+            assertThat(count, is(greaterThan(fairShare * 3 / 4)));
+            assertThat(count, is(lessThan(fairShare * 5 / 4)));
+        }
+    }
+
+    @Test
+    public void when_addingNode_then_onlyFewDatasetsMove() {
+        DatasetPartitioner three = new DatasetPartitioner(3);
+        DatasetPartitioner four = new DatasetPartitioner(4);
+        int moved = 0;
+        for (int i = 0; i < DATASETS; i++) {
+            String id = "dataset_" + i;
+            int owner = four.getOwner(id);
+            moved += owner != 3 && owner != three.getOwner(id) ? 1 : 0;
+        }
+        assertThat(moved, is(0));
+    }
+
+    @Test
+    public void when_invalidNodeCount_then_throwIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new DatasetPartitioner(0));
+    }
+
+}
@@ -38,8 +38,10 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -57,12 +59,15 @@ import org.n52.io.handler.DatasetFactoryException;
 import org.n52.io.handler.DefaultIoFactory;
 import org.n52.io.handler.IoHandlerException;
 import org.n52.io.handler.IoHandlerFactory;
+import org.n52.io.request.CancellationToken;
 import org.n52.io.request.IoParameters;
 import org.n52.io.request.Parameters;
+import org.n52.io.request.RequestCancelledException;
 import org.n52.io.response.dataset.AbstractValue;
 import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DatasetOutput;
 import org.n52.io.response.dataset.quantity.QuantityValue;
+import org.n52.io.task.DatasetPartitioner;
 import org.n52.io.task.ScheduledJob;
 import org.n52.series.spi.srv.DataService;
 import org.n52.series.spi.srv.ParameterService;
@@ -98,6 +103,8 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
 
     private static final String JOB_DATA_CONFIG_FILE = "configFile";
     private static final String JOB_DATA_WEBAPP_FOLDER = "webappFolder";
+    private static final String JOB_DATA_NODE_INDEX = "nodeIndex";
+    private static final String JOB_DATA_NODE_COUNT = "nodeCount";
     private static final String IMAGE_EXTENSION = "png";
 
     @Autowired
@@ -116,7 +123,11 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
 
     private String configFile;
 
-    private boolean interrupted;
+    private int nodeIndex;
+
+    private int nodeCount = 1;
+
+    private final CancellationToken cancellation = CancellationToken.create();
 
     @FindbugsSuppressWarnings("OBL_UNSATISFIED_OBLIGATION")
     private PrerenderingJobConfig readJobConfig(String file) {
@@ -136,12 +147,14 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
                          .withDescription(getJobDescription())
                          .usingJobData(JOB_DATA_CONFIG_FILE, configFile)
                          .usingJobData(JOB_DATA_WEBAPP_FOLDER, webappFolder)
+                         .usingJobData(JOB_DATA_NODE_INDEX, nodeIndex)
+                         .usingJobData(JOB_DATA_NODE_COUNT, nodeCount)
                          .build();
     }
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
-        if (interrupted) {
+        if (cancellation.isCancelled()) {
             return;
         }
 
@@ -151,6 +164,14 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
         JobDataMap jobDataMap = details.getJobDataMap();
         taskConfigPrerendering = readJobConfig(jobDataMap.getString(JOB_DATA_CONFIG_FILE));
         webappFolder = jobDataMap.getString(JOB_DATA_WEBAPP_FOLDER);
+        nodeIndex = jobDataMap.getInt(JOB_DATA_NODE_INDEX);
+        nodeCount = jobDataMap.getInt(JOB_DATA_NODE_COUNT);
+        if (nodeCount < 1 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+            LOGGER.warn("Invalid node index {} for {} nodes. Skip prerendering.", nodeIndex, nodeCount);
+            return;
+        }
+        DatasetPartitioner partitioner = new DatasetPartitioner(nodeCount);
+        LOGGER.debug("Prerendering datasets of partition {} (of {} nodes)", nodeIndex, nodeCount);
 
         List<RenderingConfig> phenomenonStyles = taskConfigPrerendering.getPhenomenonStyles();
         List<RenderingConfig> styles = taskConfigPrerendering.getDatasetStyles();
@@ -160,17 +181,21 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
             IoParameters query = IoParameters.createFromSingleValueMap(parameters);
             for (DatasetOutput< ? > metadata : datasetService.getCondensedParameters(query)) {
                 String timeseriesId = metadata.getId();
-                renderConfiguredIntervals(timeseriesId, config);
-                if (interrupted) {
+                if (partitioner.isOwnedBy(timeseriesId, nodeIndex)) {
+                    renderConfiguredIntervals(timeseriesId, config);
+                }
+                if (cancellation.isCancelled()) {
                     return;
                 }
             }
         }
 
         for (RenderingConfig config : styles) {
-            renderConfiguredIntervals(config.getId(), config);
+            if (partitioner.isOwnedBy(config.getId(), nodeIndex)) {
+                renderConfiguredIntervals(config.getId(), config);
+            }
 
-            if (interrupted) {
+            if (cancellation.isCancelled()) {
                 return;
             }
         }
@@ -183,6 +208,8 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
             for (String interval : style.getInterval()) {
                 renderWithStyle(datasetId, style, interval);
             }
+        } catch (RequestCancelledException e) {
+            LOGGER.debug("Prerendering timeseries {} cancelled.", datasetId);
         } catch (Throwable e) {
             LOGGER.error("Error occured while prerendering timeseries {}.", datasetId, e);
         }
@@ -191,17 +218,44 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
     private void renderWithStyle(String datasetId, RenderingConfig renderingConfig, String interval)
             throws IOException, DatasetFactoryException, URISyntaxException {
         IntervalWithTimeZone timespan = createTimespanFromInterval(datasetId, interval);
-        IoParameters parameters = createConfig(datasetId, timespan.toString(), renderingConfig);
+        IoParameters parameters = createConfig(datasetId, timespan.toString(), renderingConfig)
+                .setCancellationToken(cancellation);
 
         String chartQualifier = renderingConfig.getChartQualifier();
-        FileOutputStream fos = createFile(datasetId, interval, chartQualifier);
+        File file = createFile(datasetId, interval, chartQualifier);
 
-        try (FileOutputStream out = fos;) {
+        try (FileOutputStream out = new FileOutputStream(file)) {
             createIoFactory(parameters).createHandler(IMAGE_EXTENSION)
                                        .writeBinary(out);
-            fos.flush();
+            out.flush();
         } catch (IoHandlerException | IOException e) {
             LOGGER.error("Image creation occures error.", e);
+            deleteIncompleteFile(file);
+            return;
+        } catch (RequestCancelledException e) {
+            // do not serve an incomplete image
+            deleteIncompleteFile(file);
+            throw e;
+        }
+        publishFile(file);
+    }
+
+    private void publishFile(File file) throws IOException {
+        // other nodes may serve from a shared output path, so replace the image in one step
+        String name = file.getName();
+        Path target = file.toPath()
+                          .resolveSibling(name.substring(1));
+        try {
+            Files.move(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.debug("Atomic move not supported for '{}'", target, e);
+            Files.move(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void deleteIncompleteFile(File file) {
+        if (!file.delete()) {
+            LOGGER.debug("Can't delete incomplete file '{}'", file.getAbsolutePath());
         }
     }
 
@@ -221,7 +275,8 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
 
     @Override
     public void interrupt() throws UnableToInterruptJobException {
-        interrupted = true;
+        // stops rendering in progress, too
+        cancellation.cancel("prerendering job interrupted");
         LOGGER.info("Marked job to interrupt.");
     }
 
@@ -239,6 +294,31 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
         this.configFile = configFile;
     }
 
+    public int getNodeIndex() {
+        return nodeIndex;
+    }
+
+    /**
+     * @param nodeIndex
+     *        the zero based index of this node when prerendering is partitioned across multiple nodes
+     */
+    public void setNodeIndex(int nodeIndex) {
+        this.nodeIndex = nodeIndex;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param nodeCount
+     *        the number of nodes sharing the prerendering work. Each node renders only those datasets which
+     *        are assigned to its {@link #setNodeIndex(int) node index}.
+     */
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
     public List<String> getPrerenderedImages(final String datasetId) {
         if (taskConfigPrerendering == null) {
             taskConfigPrerendering = readJobConfig(configFile);
@@ -306,18 +386,20 @@ public class PreRenderingJob extends ScheduledJob implements InterruptableJob, S
         }
     }
 
-    private FileOutputStream createFile(String datasetId, String interval, String postfix) throws IOException {
+    private File createFile(String datasetId, String interval, String postfix) throws IOException {
         String chartQualifier = postfix != null
                 ? interval + "_" + postfix
                 : interval;
-        File file = createFileName(datasetId, chartQualifier);
+        File target = createFileName(datasetId, chartQualifier);
+        // render to a hidden file first which is published when complete
+        File file = new File(target.getParentFile(), "." + target.getName());
         if (!file.exists() && !file.createNewFile()) {
             LOGGER.warn("Can't create file '{}'", file.getAbsolutePath());
         }
         if (!file.setLastModified(new Date().getTime())) {
             LOGGER.debug("Can't set last modified date at '{}'", file.getAbsolutePath());
         }
-        return new FileOutputStream(file);
+        return file;
     }
 
     private File createFileName(String datasetId, String qualifier) {
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.extension;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Watches config files for changes and notifies registered listeners. A single daemon thread serves all
+ * watched files. The thread is started on first registration and ends when the watcher is destroyed, so the
+ * watcher has to be managed by the application context (or {@link #destroy() destroyed} explicitly).
+ */
+public class ConfigFileWatcher implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigFileWatcher.class);
+
+    private static final long STOP_TIMEOUT = 1000L;
+
+    private final Map<Path, List<Runnable>> listeners = new ConcurrentHashMap<>();
+
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+
+    private Thread watcher;
+
+    private boolean destroyed;
+
+    synchronized void register(Path file, Runnable onChange) throws IOException {
+        if (destroyed) {
+            throw new IllegalStateException("Config file watcher has been destroyed.");
+        }
+        Path absolute = file.toAbsolutePath();
+        Path directory = absolute.getParent();
+        if (watchService == null) {
+            WatchService service = FileSystems.getDefault()
+                                              .newWatchService();
+            watchService = service;
+            watcher = new Thread(() -> processEvents(service), "config-file-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+        if (!directories.containsValue(directory)) {
+            WatchKey key = directory.register(watchService,
+                                              StandardWatchEventKinds.ENTRY_MODIFY,
+                                              StandardWatchEventKinds.ENTRY_CREATE);
+            directories.put(key, directory);
+        }
+        listeners.computeIfAbsent(absolute, k -> new CopyOnWriteArrayList<>())
+                 .add(onChange);
+        LOGGER.debug("Watching {} for changes.", absolute);
+    }
+
+    /**
+     * Closes the watch service and stops the watching thread.
+     */
+    @Override
+    public void destroy() {
+        Thread thread;
+        synchronized (this) {
+            destroyed = true;
+            thread = watcher;
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Could not close config file watch service.", e);
+                }
+            }
+            watchService = null;
+            watcher = null;
+            listeners.clear();
+            directories.clear();
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(STOP_TIMEOUT);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+
+    private void processEvents(WatchService service) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = directories.get(key);
+            if (directory != null) {
+                for (WatchEvent< ? > event : key.pollEvents()) {
+                    if (event.context() instanceof Path) {
+                        notifyListeners(directory.resolve((Path) event.context()));
+                    }
+                }
+            }
+            key.reset();
+        }
+    }
+
+    private void notifyListeners(Path file) {
+        for (Runnable listener : listeners.getOrDefault(file, Collections.emptyList())) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not process change of {}", file, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.extension;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.n52.io.response.ParameterOutput;
+import org.n52.io.response.dataset.DatasetOutput;
+import org.n52.io.response.dataset.DatasetParameters;
+
+/**
+ * An immutable lookup table of extension results configured per dataset or per phenomenon. Dataset entries
+ * take precedence over phenomenon entries.
+ *
+ * @param <V>
+ *        the type of the configured result
+ */
+final class ExtensionLookup<V> {
+
+    private static final ExtensionLookup< ? > EMPTY = new ExtensionLookup<>(Collections.emptyMap(),
+                                                                            Collections.emptyMap());
+
+    private final Map<String, V> byDataset;
+
+    private final Map<String, V> byPhenomenon;
+
+    ExtensionLookup(Map<String, V> byDataset, Map<String, V> byPhenomenon) {
+        this.byDataset = Collections.unmodifiableMap(new HashMap<>(byDataset));
+        this.byPhenomenon = Collections.unmodifiableMap(new HashMap<>(byPhenomenon));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <V> ExtensionLookup<V> empty() {
+        return (ExtensionLookup<V>) EMPTY;
+    }
+
+    boolean isEmpty() {
+        return byDataset.isEmpty() && byPhenomenon.isEmpty();
+    }
+
+    /**
+     * @param output
+     *        the dataset
+     * @return the result configured for the dataset or its phenomenon, or <code>null</code> if none is
+     *         configured.
+     */
+    V find(DatasetOutput< ? > output) {
+        V value = byDataset.get(output.getId());
+        if (value == null && !byPhenomenon.isEmpty()) {
+            // resolve the phenomenon only if there is something to find
+            String phenomenonId = getPhenomenonId(output);
+            value = phenomenonId != null
+                    ? byPhenomenon.get(phenomenonId)
+                    : null;
+        }
+        return value;
+    }
+
+    private String getPhenomenonId(DatasetOutput< ? > output) {
+        DatasetParameters parameters = output.getDatasetParameters(true);
+        ParameterOutput phenomenon = parameters != null
+                ? parameters.getPhenomenon()
+                : null;
+        return phenomenon != null
+                ? phenomenon.getId()
+                : null;
+    }
+
+}
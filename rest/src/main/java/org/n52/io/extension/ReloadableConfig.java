@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.extension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds a configuration compiled from a classpath resource. Readers always get a consistent, fully compiled
+ * snapshot without locking. If the resource resides on the file system and a {@link ConfigFileWatcher} is
+ * {@link #watch(ConfigFileWatcher) set}, changes are picked up and the compiled snapshot is replaced atomically. A configuration failing to
+ * load keeps the previous snapshot.
+ *
+ * @param <V>
+ *        the compiled configuration type
+ */
+final class ReloadableConfig<V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableConfig.class);
+
+    private final String resource;
+
+    private final Compiler<V> compiler;
+
+    private volatile V current;
+
+    ReloadableConfig(String resource, Compiler<V> compiler, V fallback) {
+        this.resource = resource;
+        this.compiler = compiler;
+        this.current = fallback;
+        reload();
+    }
+
+    V get() {
+        return current;
+    }
+
+    void reload() {
+        try (InputStream config = getClass().getResourceAsStream(resource)) {
+            if (config == null) {
+                LOGGER.error("Could not find {}. Keeping current config.", resource);
+                return;
+            }
+            current = compiler.compile(config);
+            LOGGER.debug("Loaded {}", resource);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Could not load {}. Keeping current config.", resource, e);
+        }
+    }
+
+    void watch(ConfigFileWatcher watcher) {
+        URL url = getClass().getResource(resource);
+        if (watcher != null && url != null && "file".equals(url.getProtocol())) {
+            try {
+                Path file = Paths.get(url.toURI());
+                watcher.register(file, this::reload);
+            } catch (URISyntaxException | IOException | RuntimeException e) {
+                LOGGER.warn("Could not watch {} for changes.", resource, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Compiler<V> {
+
+        V compile(InputStream config) throws IOException;
+    }
+
+}
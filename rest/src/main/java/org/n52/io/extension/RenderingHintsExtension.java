@@ -30,38 +30,59 @@ package org.n52.io.extension;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.n52.io.request.IoParameters;
 import org.n52.io.request.StyleProperties;
 import org.n52.io.response.dataset.DatasetOutput;
 import org.n52.io.response.extension.MetadataExtension;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SuppressWarnings("deprecation")
 public class RenderingHintsExtension<T extends DatasetOutput< ? >> extends MetadataExtension<T> {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(RenderingHintsExtension.class);
-
     private static final String CONFIG_FILE = "/config-rendering-hints.json";
 
     private static final String EXTENSION_NAME = "renderingHints";
 
-    private final RenderingHintsExtensionConfig renderingConfig = readConfig();
+    private final ReloadableConfig<ExtensionLookup<StyleProperties>> renderingConfig =
+            new ReloadableConfig<>(CONFIG_FILE, RenderingHintsExtension::compile, ExtensionLookup.empty());
+
+    static ExtensionLookup<StyleProperties> compile(InputStream config) throws IOException {
+        ObjectMapper om = new ObjectMapper();
+        RenderingHintsExtensionConfig parsed = om.readValue(config, RenderingHintsExtensionConfig.class);
+        return new ExtensionLookup<>(createStyles(parsed.getDatasetStyles()),
+                                     createStyles(parsed.getPhenomenonStyles()));
+    }
 
-    private RenderingHintsExtensionConfig readConfig() {
-        try (InputStream config = getClass().getResourceAsStream(CONFIG_FILE);) {
-            ObjectMapper om = new ObjectMapper();
-            return om.readValue(config, RenderingHintsExtensionConfig.class);
-        } catch (IOException e) {
-            LOGGER.error("Could not load {}. Using empty config.", CONFIG_FILE, e);
-            return new RenderingHintsExtensionConfig();
+    private static Map<String, StyleProperties> createStyles(
+            Map<String, RenderingHintsExtensionConfig.ConfiguredStyle> configured) {
+        Map<String, StyleProperties> styles = new HashMap<>();
+        for (Entry<String, RenderingHintsExtensionConfig.ConfiguredStyle> entry : configured.entrySet()) {
+            StyleProperties style = entry.getValue()
+                                         .getStyle();
+            if (style != null) {
+                styles.put(entry.getKey(), style);
+            }
         }
+        return styles;
+    }
+
+    /**
+     * @param watcher
+     *        reloads the config file when changed (no hot reload when not set)
+     */
+    @Autowired(required = false)
+    public void setConfigFileWatcher(ConfigFileWatcher watcher) {
+        renderingConfig.watch(watcher);
     }
 
     @Override
@@ -71,65 +92,44 @@ public class RenderingHintsExtension<T extends DatasetOutput< ? >> extends Metad
 
     @Override
     public Collection<String> getExtraMetadataFieldNames(T output) {
-        return hasRenderingHints(output)
-            ? Collections.singleton(EXTENSION_NAME)
-            : Collections.emptySet();
-    }
-
-    private boolean hasRenderingHints(T output) {
-        return hasSeriesConfiguration(output) || hasPhenomenonConfiguration(output);
+        return getExtraMetadataFieldNames(output, renderingConfig.get());
     }
 
-    private boolean hasSeriesConfiguration(T output) {
-        return renderingConfig.getTimeseriesStyles()
-                              .containsKey(output.getId());
+    @Override
+    public List<Collection<String>> getAllExtraMetadataFieldNames(List<T> outputs) {
+        ExtensionLookup<StyleProperties> styles = renderingConfig.get();
+        List<Collection<String>> fieldNames = new ArrayList<>(outputs.size());
+        for (T output : outputs) {
+            fieldNames.add(styles.isEmpty()
+                ? Collections.emptySet()
+                : getExtraMetadataFieldNames(output, styles));
+        }
+        return fieldNames;
     }
 
-    private boolean hasPhenomenonConfiguration(T output) {
-        String id = output.getDatasetParameters(true)
-                          .getPhenomenon()
-                          .getId();
-        return renderingConfig.getPhenomenonStyles()
-                              .containsKey(id);
+    private Collection<String> getExtraMetadataFieldNames(T output, ExtensionLookup<StyleProperties> styles) {
+        return styles.find(output) != null
+            ? Collections.singleton(EXTENSION_NAME)
+            : Collections.emptySet();
     }
 
     @Override
     public Map<String, Object> getExtras(T output, IoParameters parameters) {
-        if (!hasExtrasToReturn(output, parameters)) {
+        if (!super.hasExtrasToReturn(output, parameters)) {
             return Collections.emptyMap();
         }
-
-        if (hasSeriesConfiguration(output)) {
-            return wrapSingleIntoMap(createStyle(getSeriesStyle(output)));
-        } else if (hasPhenomenonConfiguration(output)) {
-            return wrapSingleIntoMap(createStyle(getPhenomenonStyle(output)));
-        }
-
-        LOGGER.error("No rendering style found for {} (id={})", output, output.getId());
-        return Collections.emptyMap();
+        StyleProperties style = renderingConfig.get()
+                                               .find(output);
+        return style != null
+            ? wrapSingleIntoMap(style)
+            : Collections.emptyMap();
     }
 
     @Override
     protected boolean hasExtrasToReturn(T output, IoParameters parameters) {
         return super.hasExtrasToReturn(output, parameters)
-                && hasRenderingHints(output);
-    }
-
-    private RenderingHintsExtensionConfig.ConfiguredStyle getSeriesStyle(T output) {
-        return renderingConfig.getTimeseriesStyles()
-                              .get(output.getId());
-    }
-
-    private RenderingHintsExtensionConfig.ConfiguredStyle getPhenomenonStyle(T output) {
-        String id = output.getDatasetParameters()
-                          .getPhenomenon()
-                          .getId();
-        return renderingConfig.getPhenomenonStyles()
-                              .get(id);
-    }
-
-    private StyleProperties createStyle(RenderingHintsExtensionConfig.ConfiguredStyle configuredStyle) {
-        return configuredStyle.getStyle();
+                && renderingConfig.get()
+                                  .find(output) != null;
     }
 
 }
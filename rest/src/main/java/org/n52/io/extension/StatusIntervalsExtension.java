@@ -28,9 +28,13 @@
  */
 package org.n52.io.extension;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -39,30 +43,51 @@ import org.n52.io.request.IoParameters;
 import org.n52.io.response.StatusInterval;
 import org.n52.io.response.dataset.DatasetOutput;
 import org.n52.io.response.extension.MetadataExtension;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @SuppressWarnings("deprecation")
 public class StatusIntervalsExtension<T extends DatasetOutput< ? >> extends MetadataExtension<T> {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(StatusIntervalsExtension.class);
-
     private static final String CONFIG_FILE = "/config-status-intervals.json";
 
     private static final String EXTENSION_NAME = "statusIntervals";
 
-    private final StatusIntervalsExtensionConfig intervalConfig = readConfig();
+    private final ReloadableConfig<ExtensionLookup<Collection<StatusInterval>>> intervalConfig =
+            new ReloadableConfig<>(CONFIG_FILE, StatusIntervalsExtension::compile, ExtensionLookup.empty());
+
+    static ExtensionLookup<Collection<StatusInterval>> compile(InputStream config) throws IOException {
+        ObjectMapper om = new ObjectMapper();
+        StatusIntervalsExtensionConfig parsed = om.readValue(config, StatusIntervalsExtensionConfig.class);
+        return new ExtensionLookup<>(createIntervals(parsed.getDatasetIntervals()),
+                                     createIntervals(parsed.getPhenomenonIntervals()));
+    }
 
-    private StatusIntervalsExtensionConfig readConfig() {
-        try (InputStream config = getClass().getResourceAsStream(CONFIG_FILE);) {
-            ObjectMapper om = new ObjectMapper();
-            return om.readValue(config, StatusIntervalsExtensionConfig.class);
-        } catch (Exception e) {
-            LOGGER.error("Using empty config because could not load {}. \n {}", CONFIG_FILE, e);
-            return new StatusIntervalsExtensionConfig();
+    private static Map<String, Collection<StatusInterval>> createIntervals(Map<String, ConfigInterval> configured) {
+        Map<String, Collection<StatusInterval>> intervals = new HashMap<>();
+        for (Entry<String, ConfigInterval> entry : configured.entrySet()) {
+            List<StatusInterval> named = new ArrayList<>();
+            for (Entry<String, StatusInterval> interval : entry.getValue()
+                                                               .getStatusIntervals()
+                                                               .entrySet()) {
+                // named once while compiling, never modified afterwards
+                StatusInterval value = interval.getValue();
+                value.setName(interval.getKey());
+                named.add(value);
+            }
+            intervals.put(entry.getKey(), Collections.unmodifiableList(named));
         }
+        return intervals;
+    }
+
+    /**
+     * @param watcher
+     *        reloads the config file when changed (no hot reload when not set)
+     */
+    @Autowired(required = false)
+    public void setConfigFileWatcher(ConfigFileWatcher watcher) {
+        intervalConfig.watch(watcher);
     }
 
     @Override
@@ -72,66 +97,45 @@ public class StatusIntervalsExtension<T extends DatasetOutput< ? >> extends Meta
 
     @Override
     public Collection<String> getExtraMetadataFieldNames(T output) {
-        return hasStatusIntervals(output)
-            ? Collections.singleton(EXTENSION_NAME)
-            : Collections.emptySet();
-    }
-
-    private boolean hasStatusIntervals(T output) {
-        return hasSeriesConfiguration(output) || hasPhenomenonConfiguration(output);
+        return getExtraMetadataFieldNames(output, intervalConfig.get());
     }
 
-    private boolean hasSeriesConfiguration(T output) {
-        Map<String, ConfigInterval> intervals = intervalConfig.getTimeseriesIntervals();
-        return intervals.containsKey(output.getId());
+    @Override
+    public List<Collection<String>> getAllExtraMetadataFieldNames(List<T> outputs) {
+        ExtensionLookup<Collection<StatusInterval>> intervals = intervalConfig.get();
+        List<Collection<String>> fieldNames = new ArrayList<>(outputs.size());
+        for (T output : outputs) {
+            fieldNames.add(intervals.isEmpty()
+                ? Collections.emptySet()
+                : getExtraMetadataFieldNames(output, intervals));
+        }
+        return fieldNames;
     }
 
-    private boolean hasPhenomenonConfiguration(T output) {
-        Map<String, ConfigInterval> intervals = intervalConfig.getPhenomenonIntervals();
-        return intervals.containsKey(output.getId());
+    private Collection<String> getExtraMetadataFieldNames(T output,
+            ExtensionLookup<Collection<StatusInterval>> intervals) {
+        return intervals.find(output) != null
+            ? Collections.singleton(EXTENSION_NAME)
+            : Collections.emptySet();
     }
 
     @Override
     public Map<String, Object> getExtras(T output, IoParameters parameters) {
-        if (!hasExtrasToReturn(output, parameters)) {
+        if (!super.hasExtrasToReturn(output, parameters)) {
             return Collections.emptyMap();
         }
-
-        if (hasSeriesConfiguration(output)) {
-            return wrapSingleIntoMap(createIntervals(getSeriesIntervals(output)));
-        } else if (hasPhenomenonConfiguration(output)) {
-            return wrapSingleIntoMap(createIntervals(getPhenomenonIntervals(output)));
-        }
-        LOGGER.error("No status intervals found for {} (id={})", output, output.getId());
-        return Collections.emptyMap();
+        Collection<StatusInterval> intervals = intervalConfig.get()
+                                                             .find(output);
+        return intervals != null
+            ? wrapSingleIntoMap(intervals)
+            : Collections.emptyMap();
     }
 
     @Override
     protected boolean hasExtrasToReturn(T output, IoParameters parameters) {
         return super.hasExtrasToReturn(output, parameters)
-                && hasStatusIntervals(output);
-    }
-
-    private StatusIntervalsExtensionConfig.ConfigInterval getSeriesIntervals(T output) {
-        return intervalConfig.getTimeseriesIntervals()
-                             .get(output.getId());
-    }
-
-    private StatusIntervalsExtensionConfig.ConfigInterval getPhenomenonIntervals(DatasetOutput< ? > output) {
-        String id = output.getDatasetParameters(true)
-                          .getPhenomenon()
-                          .getId();
-        return intervalConfig.getPhenomenonIntervals()
-                             .get(id);
-    }
-
-    private Collection<StatusInterval> createIntervals(ConfigInterval configInterval) {
-        Map<String, StatusInterval> statusIntervals = configInterval.getStatusIntervals();
-        for (Entry<String, StatusInterval> entry : statusIntervals.entrySet()) {
-            StatusInterval value = entry.getValue();
-            value.setName(entry.getKey());
-        }
-        return statusIntervals.values();
+                && intervalConfig.get()
+                                 .find(output) != null;
     }
 
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.n52.io.request.CancellationToken;
+import org.n52.web.exception.InternalServerException;
+import org.n52.web.exception.ServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Executes the processing of a request on a dedicated thread pool, releasing the container thread while the SPI
+ * is waiting on the database. The number of concurrent requests per node is then bounded by the pool (and its
+ * queue) instead of the container's thread pool.
+ * <p>
+ * Handler methods return the result of {@link #execute(Callable)} as is: either the result of the task if it
+ * was executed inline, or a {@link WebAsyncTask} which Spring MVC processes asynchronously, rendering its result
+ * on the async dispatch as if it had been returned directly. Tasks are executed inline if async processing is
+ * disabled (the default), not supported by the container or filter chain, or if already executing within an
+ * async dispatch.
+ * </p>
+ * <p>
+ * Requests running longer than the configured timeout are answered with <code>503 Service Unavailable</code>
+ * and the executing thread gets interrupted. Handlers writing the response themselves (CSV, ZIP and PDF output)
+ * are not executed by this class but stay on the container thread, as the timeout would cut off a response
+ * already being streamed. The request's {@link RequestCancellation cancellation token} is cancelled on timeouts
+ * and on errors reported by the container. If the pool and its queue are exhausted, tasks run on the container
+ * thread, which throttles accepting new requests.
+ * </p>
+ */
+public class AsyncRequestExecutor implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncRequestExecutor.class);
+
+    private static final String THREAD_NAME_PREFIX = "helgoland-async-";
+
+    private static final String CANCELLING_INTERCEPTOR = AsyncRequestExecutor.class.getName() + ".cancelling";
+
+    private boolean enabled;
+
+    private int corePoolSize = 16;
+
+    private int maxPoolSize = 64;
+
+    private int queueCapacity = 256;
+
+    private long timeout = 30000L;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${request.async.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        LOGGER.debug("CONFIG: request.async.enabled={}", enabled);
+        this.enabled = enabled;
+    }
+
+    @Value("${request.async.corePoolSize:16}")
+    public void setCorePoolSize(int corePoolSize) {
+        LOGGER.debug("CONFIG: request.async.corePoolSize={}", corePoolSize);
+        this.corePoolSize = corePoolSize;
+    }
+
+    @Value("${request.async.maxPoolSize:64}")
+    public void setMaxPoolSize(int maxPoolSize) {
+        LOGGER.debug("CONFIG: request.async.maxPoolSize={}", maxPoolSize);
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    @Value("${request.async.queueCapacity:256}")
+    public void setQueueCapacity(int queueCapacity) {
+        LOGGER.debug("CONFIG: request.async.queueCapacity={}", queueCapacity);
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param timeout
+     *        the time (in milliseconds) after which async processing is aborted, <code>0</code> to never time
+     *        out.
+     */
+    @Value("${request.async.timeout:30000}")
+    public void setTimeout(long timeout) {
+        LOGGER.debug("CONFIG: request.async.timeout={}", timeout);
+        this.timeout = timeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Executes the given task for the request bound to the current thread. Handler methods have to return the
+     * result as is.
+     *
+     * @param <T>
+     *        the type of the result
+     * @param task
+     *        the request processing
+     * @return the result of the task if executed inline, or a {@link WebAsyncTask} executing it asynchronously
+     * @throws Exception
+     *         if the task fails when executed inline
+     */
+    public <T> Object execute(Callable<T> task) throws Exception {
+        ServletRequestAttributes attributes = getRequestAttributes();
+        if (!isAsync(attributes)) {
+            return task.call();
+        }
+        HttpServletRequest request = attributes.getRequest();
+        HttpServletResponse response = attributes.getResponse();
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        // bound to the request before switching threads, so that it can be cancelled from the container thread
+        CancellationToken cancellation = RequestCancellation.current();
+        Callable<T> bound = () -> callBound(task, request, response, localeContext);
+        WebAsyncTask<T> asyncTask = new WebAsyncTask<>(timeout, getExecutor(), bound);
+        asyncTask.onTimeout(() -> {
+            String message = "Processing the request took longer than " + timeout + "ms.";
+            cancellation.cancel(message);
+            throw new ServiceUnavailableException(message);
+        });
+        // picked up when Spring MVC starts processing the returned task
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.registerCallableInterceptor(CANCELLING_INTERCEPTOR, new CancellingInterceptor(cancellation));
+        return asyncTask;
+    }
+
+    /**
+     * Like {@link #execute(Callable)} for tasks not throwing checked exceptions.
+     *
+     * @param <T>
+     *        the type of the result
+     * @param task
+     *        the request processing
+     * @return the result of the task if executed inline, or a {@link WebAsyncTask} executing it asynchronously
+     */
+    public <T> Object supply(Supplier<T> task) {
+        try {
+            return execute(task::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InternalServerException("Could not start processing the request.", e);
+        }
+    }
+
+    private boolean isAsync(ServletRequestAttributes attributes) {
+        if (!enabled || attributes == null) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        return request.isAsyncSupported()
+                && !request.isAsyncStarted()
+                && request.getDispatcherType() != DispatcherType.ASYNC;
+    }
+
+    private static <T> T callBound(Callable<T> task,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response,
+                                   LocaleContext localeContext)
+            throws Exception {
+        // the attributes of the container thread are completed as soon as the initial dispatch returns
+        ServletRequestAttributes attributes = new ServletRequestAttributes(request, response);
+        // restored in case the task runs on the container thread because the pool is exhausted
+        RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+        LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+        // allocations of the container thread are counted by the RequestTimingInterceptor
+        AtomicLong allocated = previousAttributes == null
+                ? RequestTimings.getAllocatedBytes(request)
+                : null;
+        long allocatedBefore = allocated != null
+                ? SlowRequestSampler.getAllocatedBytesOfCurrentThread()
+                : -1L;
+        RequestContextHolder.setRequestAttributes(attributes);
+        LocaleContextHolder.setLocaleContext(localeContext);
+        try {
+            return task.call();
+        } finally {
+            if (allocated != null) {
+                allocated.addAndGet(SlowRequestSampler.getAllocatedBytesOfCurrentThread() - allocatedBefore);
+            }
+            attributes.requestCompleted();
+            LocaleContextHolder.setLocaleContext(previousLocaleContext);
+            RequestContextHolder.setRequestAttributes(previousAttributes);
+        }
+    }
+
+    private static ServletRequestAttributes getRequestAttributes() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? (ServletRequestAttributes) attributes
+                : null;
+    }
+
+    private synchronized ThreadPoolTaskExecutor getExecutor() {
+        if (executor == null) {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setThreadNamePrefix(THREAD_NAME_PREFIX);
+            pool.setCorePoolSize(corePoolSize);
+            pool.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+            pool.setQueueCapacity(queueCapacity);
+            pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.initialize();
+            executor = pool;
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    /**
+     * Cancels the request's token when the container reports an error for the async request, e.g. because the
+     * client disconnected.
+     */
+    private static final class CancellingInterceptor implements CallableProcessingInterceptor {
+
+        private final CancellationToken cancellation;
+
+        CancellingInterceptor(CancellationToken cancellation) {
+            this.cancellation = cancellation;
+        }
+
+        @Override
+        public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+            cancellation.cancel("async processing failed: " + t.getMessage());
+            return RESULT_NONE;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A simple thread-safe cache whose entries expire after a fixed time to live. The cache is bounded: when the
+ * maximum size is exceeded, expired entries are evicted first and all entries if that was not sufficient.
+ * Concurrent requests of the same absent or expired key are loaded only once: the first caller loads the
+ * value while all others wait for its result.
+ *
+ * @param <K>
+ *        the key type
+ * @param <V>
+ *        the value type
+ */
+public class ExpiringCache<K, V> {
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final long ttlInMillis;
+
+    private final int maxSize;
+
+    public ExpiringCache(long ttl, TimeUnit unit) {
+        this(ttl, unit, DEFAULT_MAX_SIZE);
+    }
+
+    public ExpiringCache(long ttl, TimeUnit unit, int maxSize) {
+        this.ttlInMillis = unit.toMillis(ttl);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached value or loads (and caches) it if absent or expired. A <code>null</code> value
+     * returned by the loader is not cached. Callers requesting a key which is being loaded by another thread
+     * wait for that value (or the loader's exception) instead of loading it again.
+     *
+     * @param key
+     *        the key
+     * @param loader
+     *        loads the value if necessary
+     * @return the (cached) value
+     */
+    public V get(K key, Function<K, V> loader) {
+        if (ttlInMillis <= 0) {
+            return loader.apply(key);
+        }
+        long now = System.currentTimeMillis();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && !entry.isExpired(now)) {
+            return entry.await();
+        }
+        evictIfFull(now);
+        Entry<V> loading = new Entry<>();
+        Entry<V> current = entries.compute(key, (k, e) -> e == null || e.isExpired(now)
+                ? loading
+                : e);
+        return current == loading
+                ? load(key, loading, loader)
+                : current.await();
+    }
+
+    private V load(K key, Entry<V> entry, Function<K, V> loader) {
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        if (value == null) {
+            entries.remove(key, entry);
+        } else {
+            entry.expiresAt = System.currentTimeMillis() + ttlInMillis;
+        }
+        entry.future.complete(value);
+        return value;
+    }
+
+    public void put(K key, V value) {
+        long now = System.currentTimeMillis();
+        evictIfFull(now);
+        Entry<V> entry = new Entry<>();
+        entry.expiresAt = now + ttlInMillis;
+        entry.future.complete(value);
+        Entry<V> previous = entries.put(key, entry);
+        if (previous != null) {
+            // let callers waiting for a concurrent load see the new value
+            previous.future.complete(value);
+        }
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() >= maxSize) {
+            entries.values()
+                   .removeIf(e -> e.isExpired(now));
+            if (entries.size() >= maxSize) {
+                entries.clear();
+            }
+        }
+    }
+
+    public void invalidate() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+
+        // never expires while loading
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        V await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.n52.io.request.KeysetCursor;
+import org.n52.io.request.Parameters;
+
+/**
+ * Pagination based on a {@link KeysetCursor} pointing to the last item of the previous page. Backends can
+ * seek directly to the requested page so that deep pages are as cheap as the first one. As cursors only
+ * point forward, neither the total number of elements nor a previous or last page are available.
+ */
+public class KeysetPagination implements Pagination {
+
+    private static final long UNKNOWN = -1;
+
+    private final KeysetCursor cursor;
+
+    private final KeysetCursor nextCursor;
+
+    private final long limit;
+
+    /**
+     * @param cursor
+     *        the cursor of the current page (<code>null</code> for the first page).
+     * @param limit
+     *        the page size
+     */
+    public KeysetPagination(KeysetCursor cursor, long limit) {
+        this(cursor, limit, null);
+    }
+
+    /**
+     * @param cursor
+     *        the cursor of the current page (<code>null</code> for the first page).
+     * @param limit
+     *        the page size
+     * @param nextCursor
+     *        the cursor of the next page (<code>null</code> if the current page is the last one).
+     */
+    public KeysetPagination(KeysetCursor cursor, long limit, KeysetCursor nextCursor) {
+        this.cursor = cursor;
+        this.nextCursor = nextCursor;
+        this.limit = limit <= 0
+                ? DEFAULT_LIMIT
+                : Math.min(limit, MAX_LIMIT);
+    }
+
+    public Optional<KeysetCursor> getCursor() {
+        return Optional.ofNullable(cursor);
+    }
+
+    /**
+     * @return always -1 as positions are unknown when paging with a cursor
+     */
+    @Override
+    public long getStart() {
+        return UNKNOWN;
+    }
+
+    /**
+     * @return always -1 as positions are unknown when paging with a cursor
+     */
+    @Override
+    public long getEnd() {
+        return UNKNOWN;
+    }
+
+    /**
+     * @return always -1 as positions are unknown when paging with a cursor
+     */
+    @Override
+    public long getOffset() {
+        return UNKNOWN;
+    }
+
+    @Override
+    public long getLimit() {
+        return limit;
+    }
+
+    @Override
+    public Optional<Pagination> first(long elements) {
+        return Optional.of(new KeysetPagination(null, limit));
+    }
+
+    @Override
+    public Optional<Pagination> previous(long elements) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Pagination> next(long elements) {
+        return nextCursor == null
+                ? Optional.empty()
+                : Optional.of(new KeysetPagination(nextCursor, limit));
+    }
+
+    @Override
+    public Optional<Pagination> last(long elements) {
+        return Optional.empty();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cursor, limit);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof KeysetPagination) {
+            KeysetPagination that = (KeysetPagination) obj;
+            return Objects.equals(cursor, that.cursor)
+                    && getLimit() == that.getLimit();
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        String token = cursor == null
+                ? ""
+                : cursor.encode();
+        return Parameters.CURSOR + "=" + token + "&" + Parameters.LIMIT + "=" + limit;
+    }
+
+}
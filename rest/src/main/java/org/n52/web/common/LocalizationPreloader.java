@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.Arrays;
+
+import org.n52.io.I18N;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * Loads the localizations of the configured languages on startup, so that the first requests asking for
+ * them do not have to load the message bundles.
+ */
+public class LocalizationPreloader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalizationPreloader.class);
+
+    /**
+     * @param languages
+     *        comma separated language codes whose localizations shall be loaded on startup
+     */
+    @Value("${i18n.preload:en,de,nl}")
+    public void setPreloadedLanguages(String[] languages) {
+        LOGGER.debug("CONFIG: i18n.preload={}", Arrays.toString(languages));
+        I18N.preload(languages);
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.n52.io.Constants;
+import org.n52.io.StageTimer;
+import org.n52.io.geojson.GeoJSONWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A {@link MappingJackson2JsonView} adding the number of bytes written to the {@link StageTimer} of the current
+ * request, so that JSON responses are covered by the payload size metrics like those written by output handlers.
+ * Coordinates of GeoJSON geometries are rounded to <code>request.geojson.precision</code> decimal places, if
+ * set.
+ */
+public class MeteredJsonView extends MappingJackson2JsonView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MeteredJsonView.class);
+
+    // null unless configured
+    private Integer geoJsonPrecision;
+
+    /**
+     * @param precision
+     *        number of decimal places GeoJSON coordinates are rounded to (a negative value disables rounding)
+     */
+    @Value("${request.geojson.precision:-1}")
+    public void setGeoJsonPrecision(int precision) {
+        LOGGER.debug("CONFIG: request.geojson.precision={}", precision);
+        this.geoJsonPrecision = precision;
+        GeoJSONWriter.setPrecision(getObjectMapper(), precision);
+    }
+
+    @Override
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        super.setObjectMapper(geoJsonPrecision != null
+                ? GeoJSONWriter.setPrecision(objectMapper, geoJsonPrecision)
+                : objectMapper);
+    }
+
+    @Override
+    protected void writeContent(OutputStream stream, Object object) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(stream);
+        super.writeContent(counting, object);
+        RequestTimings.current()
+                      .tagIfAbsent(StageTimer.TAG_OUTPUT_FORMAT, Constants.APPLICATION_JSON)
+                      .addBytesWritten(counting.getByteCount());
+    }
+
+}
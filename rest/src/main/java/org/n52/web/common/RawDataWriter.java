@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Executor;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.n52.web.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Writes raw data provided as {@link ReadableByteChannel} to the response.
+ * <p>
+ * File channels are copied on the request thread via {@link FileChannel#transferTo(long, long,
+ * WritableByteChannel)}, which avoids copying through an intermediate buffer where the platform supports it.
+ * </p>
+ * <p>
+ * Other channels are written via non-blocking servlet I/O if the current request supports asynchronous
+ * processing: the request thread is released immediately and chunks are only read when the client is ready to
+ * receive more data. Reading from the channel may block, so reads are done on a thread pool shared by all raw
+ * data downloads of this writer (<code>request.rawdata.readThreads</code>, 8 by default) instead of container
+ * threads. Each read fills a buffer of 64 KB before it is handed back for writing. This way, neither slow
+ * clients nor slow channels pin container threads; if all read threads block on slow channels, further reads
+ * are queued. Without asynchronous support the channel is copied on the request thread.
+ * </p>
+ * The channel is closed in any case.
+ */
+public class RawDataWriter implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RawDataWriter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String THREAD_NAME_PREFIX = "raw-data-read-";
+
+    private static final int READ_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private int readThreads = 8;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${request.rawdata.readThreads:8}")
+    public void setReadThreads(int readThreads) {
+        LOGGER.debug("CONFIG: request.rawdata.readThreads={}", readThreads);
+        this.readThreads = readThreads;
+    }
+
+    /**
+     * Writes the given channel to the response and closes it.
+     *
+     * @param channel
+     *        the raw data
+     * @param response
+     *        the response to write to
+     * @throws IOException
+     *         if copying the channel on the request thread or starting async processing fails
+     * @throws ResourceNotFoundException
+     *         if no raw data is available (<code>null</code> channel)
+     */
+    public void write(ReadableByteChannel channel, HttpServletResponse response) throws IOException {
+        if (channel == null) {
+            throw new ResourceNotFoundException("No raw data available for the request.");
+        }
+        HttpServletRequest request = getCurrentRequest();
+        if (!(channel instanceof FileChannel)
+                && request != null
+                && request.isAsyncSupported()
+                && !request.isAsyncStarted()) {
+            writeAsync(channel, request, response);
+        } else {
+            try (ReadableByteChannel source = channel) {
+                copy(source, response.getOutputStream());
+            }
+        }
+    }
+
+    private void writeAsync(ReadableByteChannel channel,
+                            HttpServletRequest request,
+                            HttpServletResponse response)
+            throws IOException {
+        try {
+            AsyncContext context = request.startAsync(request, response);
+            // large exports may take long, progress is bounded by the connector's socket timeouts
+            context.setTimeout(0);
+            ServletOutputStream output = response.getOutputStream();
+            ChannelWriteListener listener = new ChannelWriteListener(channel, context, output, getExecutor());
+            context.addListener(listener);
+            output.setWriteListener(listener);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static void copy(ReadableByteChannel source, OutputStream output) throws IOException {
+        WritableByteChannel target = Channels.newChannel(output);
+        if (source instanceof FileChannel) {
+            FileChannel file = (FileChannel) source;
+            long position = file.position();
+            long size = file.size();
+            while (position < size) {
+                position += file.transferTo(position, size - position, target);
+            }
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (source.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static HttpServletRequest getCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest()
+                : null;
+    }
+
+    private synchronized Executor getExecutor() {
+        if (executor == null) {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setThreadFactory(new DaemonThreadFactory(THREAD_NAME_PREFIX));
+            pool.setCorePoolSize(readThreads);
+            pool.setMaxPoolSize(readThreads);
+            pool.setKeepAliveSeconds(READ_THREAD_KEEP_ALIVE_SECONDS);
+            // idle threads time out, so no threads are left behind once raw data is not requested anymore
+            pool.setAllowCoreThreadTimeOut(true);
+            pool.initialize();
+            executor = pool;
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    static final class ChannelWriteListener implements WriteListener, AsyncListener {
+
+        private final ReadableByteChannel channel;
+
+        private final AsyncContext context;
+
+        private final ServletOutputStream output;
+
+        private final Executor executor;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private final Object lock = new Object();
+
+        // guarded by lock
+        private boolean reading;
+
+        private boolean endOfChannel;
+
+        private boolean done;
+
+        private int pending;
+
+        ChannelWriteListener(ReadableByteChannel channel,
+                             AsyncContext context,
+                             ServletOutputStream output,
+                             Executor executor) {
+            this.channel = channel;
+            this.context = context;
+            this.output = output;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            synchronized (lock) {
+                writePending();
+            }
+        }
+
+        /**
+         * Writes read chunks as long as the client can take data without blocking (the container calls
+         * {@link #onWritePossible()} again otherwise) and schedules the next read.
+         */
+        private void writePending() throws IOException {
+            while (!reading && !done && output.isReady()) {
+                if (pending > 0) {
+                    output.write(buffer.array(), 0, pending);
+                    pending = 0;
+                } else if (endOfChannel) {
+                    finish();
+                } else {
+                    reading = true;
+                    executor.execute(this::read);
+                }
+            }
+        }
+
+        private void read() {
+            try {
+                buffer.clear();
+                // fill the buffer, stream based channels return small chunks only
+                int read = 0;
+                while (buffer.hasRemaining() && read != -1) {
+                    read = channel.read(buffer);
+                    if (read == 0) {
+                        break;
+                    }
+                }
+                synchronized (lock) {
+                    reading = false;
+                    endOfChannel = read == -1;
+                    pending = buffer.position();
+                    writePending();
+                }
+            } catch (IOException | RuntimeException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.debug("Streaming raw data failed.", t);
+            synchronized (lock) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (!done) {
+                done = true;
+                try {
+                    closeChannel();
+                } finally {
+                    context.complete();
+                }
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            stop();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            stop();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            stop();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // nothing to do
+        }
+
+        private void stop() {
+            synchronized (lock) {
+                done = true;
+            }
+            closeChannel();
+        }
+
+        private void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Could not close raw data channel.", e);
+            }
+        }
+    }
+
+}
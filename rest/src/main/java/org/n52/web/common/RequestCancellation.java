@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import org.n52.io.request.CancellationToken;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Binds a {@link CancellationToken} to the current request. The token is attached to the request's
+ * {@link org.n52.io.request.IoParameters} and cancelled as soon as the request becomes obsolete: when writing to
+ * the client fails, when async processing times out, or when the container reports an error (e.g. a client
+ * disconnect) for an async request.
+ */
+public final class RequestCancellation {
+
+    static final String TOKEN_ATTRIBUTE = RequestCancellation.class.getName() + ".token";
+
+    private RequestCancellation() {
+    }
+
+    /**
+     * @return the token of the request bound to the current thread, or {@link CancellationToken#NONE} if no
+     *         request is bound.
+     */
+    public static CancellationToken current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return CancellationToken.NONE;
+        }
+        Object token = attributes.getAttribute(TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (token instanceof CancellationToken) {
+            return (CancellationToken) token;
+        }
+        CancellationToken newToken = CancellationToken.create();
+        attributes.setAttribute(TOKEN_ATTRIBUTE, newToken, RequestAttributes.SCOPE_REQUEST);
+        return newToken;
+    }
+
+}
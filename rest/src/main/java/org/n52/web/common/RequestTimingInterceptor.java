@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.n52.io.StageTimer;
+import org.n52.io.request.IoParameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes the stage timings and sizes of requests as Micrometer metrics. All meters are tagged with the
+ * handling endpoint (controller and method name), value type, output format and generalizer:
+ * <ul>
+ * <li><code>helgoland.data.stage</code>: timer of each finished stage</li>
+ * <li><code>helgoland.data.values.fetched</code>: histogram of values fetched per dataset</li>
+ * <li><code>helgoland.data.values.emitted</code>: histogram of values emitted per dataset (after
+ * generalization)</li>
+ * <li><code>helgoland.data.series</code>: histogram of series per request</li>
+ * <li><code>helgoland.response.bytes</code>: histogram of bytes written per response</li>
+ * </ul>
+ * <p>
+ * Requests exceeding the threshold of an enabled {@link SlowRequestSampler} are recorded there, too.
+ * </p>
+ * <p>
+ * For responses rendered by a view (JSON), the <code>Server-Timing</code> header is set before rendering, which
+ * is timed as <code>serialize</code> stage. Responses written directly by output handlers get their header via
+ * {@link ServerTimingOutputStream}.
+ * </p>
+ * <p>
+ * Requests processed by an {@link AsyncRequestExecutor} are recorded once their async dispatch completes. Their
+ * allocations are summed up over the container threads of both dispatches and the pool thread.
+ * </p>
+ */
+public class RequestTimingInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STAGE_TIMER_NAME = "helgoland.data.stage";
+
+    public static final String RESPONSE_BYTES_NAME = "helgoland.response.bytes";
+
+    public static final String SAMPLE_NAME_PREFIX = "helgoland.data.";
+
+    private static final String TAG_ENDPOINT = "endpoint";
+
+    private static final String SERIALIZE_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".serialize";
+
+    private static final String START_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".start";
+
+    private static final String THREAD_ALLOCATED_ATTRIBUTE = RequestTimingInterceptor.class.getName() + ".threadAllocated";
+
+    private static final String[] TAG_KEYS = {
+        StageTimer.TAG_VALUE_TYPE,
+        StageTimer.TAG_OUTPUT_FORMAT,
+        StageTimer.TAG_GENERALIZER
+    };
+
+    private static final String NONE = "none";
+
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private SlowRequestSampler slowRequestSampler;
+
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        if (meterRegistry != null) {
+            this.meterRegistry = meterRegistry;
+        }
+    }
+
+    @Autowired(required = false)
+    public void setSlowRequestSampler(SlowRequestSampler slowRequestSampler) {
+        this.slowRequestSampler = slowRequestSampler;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // keep timings of the initial dispatch, allocations are counted per thread
+            if (RequestTimings.getAllocatedBytes(request) != null) {
+                startCountingAllocations(request);
+            }
+            return true;
+        }
+        request.setAttribute(RequestTimings.TIMER_ATTRIBUTE, new StageTimer());
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        if (slowRequestSampler != null && slowRequestSampler.isEnabled() && startCountingAllocations(request)) {
+            // set before processing may switch threads, the pool thread adds its allocations
+            request.setAttribute(RequestTimings.ALLOCATED_ATTRIBUTE, new AtomicLong());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               Object handler) {
+        stopCountingAllocations(request);
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request,
+                           HttpServletResponse response,
+                           Object handler,
+                           ModelAndView modelAndView) {
+        StageTimer timer = getTimer(request);
+        if (timer == null || modelAndView == null || timer.getDurations()
+                                                         .isEmpty()) {
+            return;
+        }
+        if (!response.isCommitted()) {
+            response.setHeader(RequestTimings.SERVER_TIMING_HEADER, RequestTimings.toServerTiming(timer));
+        }
+        request.setAttribute(SERIALIZE_ATTRIBUTE, timer.start(StageTimer.SERIALIZE));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        Object serialize = request.getAttribute(SERIALIZE_ATTRIBUTE);
+        if (serialize instanceof StageTimer.Stage) {
+            ((StageTimer.Stage) serialize).close();
+        }
+        StageTimer timer = getTimer(request);
+        if (timer != null) {
+            String endpoint = getEndpoint(handler);
+            record(timer, endpoint);
+            sample(request, timer, endpoint);
+        }
+    }
+
+    private void sample(HttpServletRequest request, StageTimer timer, String endpoint) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (slowRequestSampler == null || !(start instanceof Long)) {
+            return;
+        }
+        long duration = System.nanoTime() - (Long) start;
+        if (!slowRequestSampler.isSampled(duration)) {
+            return;
+        }
+        Object parameters = request.getAttribute(RequestTimings.PARAMETERS_ATTRIBUTE);
+        slowRequestSampler.offer(SlowRequestSample.builder(timer)
+                                                  .withDuration(duration)
+                                                  .withEndpoint(endpoint)
+                                                  .withRequest(getRequestLine(request))
+                                                  .withParameters(parameters instanceof IoParameters
+                                                          ? (IoParameters) parameters
+                                                          : null)
+                                                  .withAllocatedBytes(getAllocatedBytes(request))
+                                                  .build());
+    }
+
+    private static String getRequestLine(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return request.getMethod() + " " + request.getRequestURI() + (query == null
+                ? ""
+                : "?" + query);
+    }
+
+    private static boolean startCountingAllocations(HttpServletRequest request) {
+        long allocated = SlowRequestSampler.getAllocatedBytesOfCurrentThread();
+        if (allocated < 0) {
+            return false;
+        }
+        request.setAttribute(THREAD_ALLOCATED_ATTRIBUTE, allocated);
+        return true;
+    }
+
+    /**
+     * Adds the bytes allocated by the current thread since {@link #startCountingAllocations(HttpServletRequest)}
+     * to the allocations of the request.
+     */
+    private static void stopCountingAllocations(HttpServletRequest request) {
+        Object before = request.getAttribute(THREAD_ALLOCATED_ATTRIBUTE);
+        AtomicLong allocated = RequestTimings.getAllocatedBytes(request);
+        if (before instanceof Long && allocated != null) {
+            allocated.addAndGet(SlowRequestSampler.getAllocatedBytesOfCurrentThread() - (Long) before);
+        }
+        request.removeAttribute(THREAD_ALLOCATED_ATTRIBUTE);
+    }
+
+    private static long getAllocatedBytes(HttpServletRequest request) {
+        stopCountingAllocations(request);
+        AtomicLong allocated = RequestTimings.getAllocatedBytes(request);
+        return allocated != null
+                ? allocated.get()
+                : -1L;
+    }
+
+    private void record(StageTimer timer, String endpoint) {
+        List<Tag> tags = createTags(timer.getTags(), endpoint);
+        for (Map.Entry<String, Long> stage : timer.getDurations()
+                                                  .entrySet()) {
+            Timer.builder(STAGE_TIMER_NAME)
+                 .description("Exclusive time spent per stage of a data request")
+                 .tags(tags)
+                 .tag("stage", stage.getKey())
+                 .register(meterRegistry)
+                 .record(stage.getValue(), TimeUnit.NANOSECONDS);
+        }
+        for (Map.Entry<String, List<Long>> sample : timer.getSamples()
+                                                         .entrySet()) {
+            DistributionSummary summary = DistributionSummary.builder(SAMPLE_NAME_PREFIX + sample.getKey())
+                                                             .tags(tags)
+                                                             .publishPercentileHistogram()
+                                                             .register(meterRegistry);
+            sample.getValue()
+                  .forEach(summary::record);
+        }
+        if (timer.getBytesWritten() > 0) {
+            DistributionSummary.builder(RESPONSE_BYTES_NAME)
+                               .description("Bytes written per response")
+                               .baseUnit("bytes")
+                               .tags(tags)
+                               .publishPercentileHistogram()
+                               .register(meterRegistry)
+                               .record(timer.getBytesWritten());
+        }
+    }
+
+    private static String getEndpoint(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod method = (HandlerMethod) handler;
+            return method.getBeanType()
+                         .getSimpleName()
+                    + "."
+                    + method.getMethod()
+                            .getName();
+        }
+        return NONE;
+    }
+
+    private static List<Tag> createTags(Map<String, String> values, String endpoint) {
+        List<Tag> tags = new ArrayList<>(TAG_KEYS.length + 1);
+        tags.add(Tag.of(TAG_ENDPOINT, endpoint));
+        for (String key : TAG_KEYS) {
+            tags.add(Tag.of(key, values.getOrDefault(key, NONE)));
+        }
+        return tags;
+    }
+
+    private static StageTimer getTimer(HttpServletRequest request) {
+        Object timer = request.getAttribute(RequestTimings.TIMER_ATTRIBUTE);
+        return timer instanceof StageTimer
+                ? (StageTimer) timer
+                : null;
+    }
+
+}
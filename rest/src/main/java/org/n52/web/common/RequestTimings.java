@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletRequest;
+
+import org.n52.io.StageTimer;
+import org.n52.io.request.IoParameters;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Binds a {@link StageTimer} to the current request so that controllers and the
+ * {@link RequestTimingInterceptor} attribute processing time to the same timer. The parsed parameters of the
+ * request can be bound as well, so they can be reported along with the timings.
+ */
+public final class RequestTimings {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    static final String TIMER_ATTRIBUTE = RequestTimings.class.getName() + ".timer";
+
+    static final String PARAMETERS_ATTRIBUTE = RequestTimings.class.getName() + ".parameters";
+
+    static final String ALLOCATED_ATTRIBUTE = RequestTimings.class.getName() + ".allocated";
+
+    private RequestTimings() {
+    }
+
+    /**
+     * @return the timer of the request bound to the current thread, or a detached timer if no request is bound.
+     */
+    public static StageTimer current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new StageTimer();
+        }
+        Object timer = attributes.getAttribute(TIMER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timer instanceof StageTimer) {
+            return (StageTimer) timer;
+        }
+        StageTimer newTimer = new StageTimer();
+        attributes.setAttribute(TIMER_ATTRIBUTE, newTimer, RequestAttributes.SCOPE_REQUEST);
+        return newTimer;
+    }
+
+    /**
+     * Keeps the parsed parameters of the request bound to the current thread, e.g. to describe slow requests.
+     *
+     * @param parameters
+     *        the parsed request parameters
+     */
+    public static void bindParameters(IoParameters parameters) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && parameters != null) {
+            attributes.setAttribute(PARAMETERS_ATTRIBUTE, parameters, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * @param request
+     *        the request
+     * @return the bytes allocated so far by the threads which finished their part of processing the request, or
+     *         <code>null</code> if allocations are not counted for the request
+     */
+    static AtomicLong getAllocatedBytes(ServletRequest request) {
+        Object allocated = request.getAttribute(ALLOCATED_ATTRIBUTE);
+        return allocated instanceof AtomicLong
+                ? (AtomicLong) allocated
+                : null;
+    }
+
+    /**
+     * Formats the finished stages of the given timer as <code>Server-Timing</code> header value, e.g.
+     * <code>fetch;dur=12.3, format;dur=1.2</code>.
+     *
+     * @param timer
+     *        the timer to format
+     * @return the header value, empty if no stage has finished yet
+     */
+    public static String toServerTiming(StageTimer timer) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> stage : timer.getDurations()
+                                                  .entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            double millis = stage.getValue() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            sb.append(stage.getKey())
+              .append(";dur=")
+              .append(String.format(Locale.ROOT, "%.3f", millis));
+        }
+        return sb.toString();
+    }
+
+}
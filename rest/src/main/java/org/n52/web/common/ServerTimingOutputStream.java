@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.output.CountingOutputStream;
+import org.n52.io.StageTimer;
+import org.n52.io.request.CancellationToken;
+
+/**
+ * Wraps the output stream of a response which is written directly by an output handler. Right before the first
+ * byte is written (and the response gets committed) the <code>Server-Timing</code> header is set from the stages
+ * finished until then. On close, the number of bytes written is added to the timer.
+ * <p>
+ * A failing write usually means that the client is gone, so the request's {@link CancellationToken} gets
+ * cancelled to stop any work still producing output.
+ * </p>
+ */
+public class ServerTimingOutputStream extends CountingOutputStream {
+
+    private final HttpServletResponse response;
+
+    private final StageTimer timer;
+
+    private final CancellationToken cancellation;
+
+    private boolean headerWritten;
+
+    private boolean closed;
+
+    public ServerTimingOutputStream(OutputStream out, HttpServletResponse response, StageTimer timer) {
+        this(out, response, timer, CancellationToken.NONE);
+    }
+
+    public ServerTimingOutputStream(OutputStream out,
+                                    HttpServletResponse response,
+                                    StageTimer timer,
+                                    CancellationToken cancellation) {
+        super(out);
+        this.response = response;
+        this.timer = timer;
+        this.cancellation = cancellation;
+    }
+
+    @Override
+    protected synchronized void beforeWrite(int n) {
+        if (!headerWritten) {
+            headerWritten = true;
+            if (!response.isCommitted()) {
+                String timing = RequestTimings.toServerTiming(timer);
+                if (!timing.isEmpty()) {
+                    response.setHeader(RequestTimings.SERVER_TIMING_HEADER, timing);
+                }
+            }
+        }
+        super.beforeWrite(n);
+    }
+
+    @Override
+    protected void handleIOException(IOException e) throws IOException {
+        cancellation.cancel("writing response failed: " + e.getMessage());
+        super.handleIOException(e);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            timer.addBytesWritten(getByteCount());
+        }
+        super.close();
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.n52.io.StageTimer;
+import org.n52.io.request.IoParameters;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * An immutable snapshot of a request recorded by the {@link SlowRequestSampler}.
+ */
+public final class SlowRequestSample {
+
+    private final long timestamp;
+
+    private final long durationInNanos;
+
+    private final String endpoint;
+
+    private final String request;
+
+    private final String parameters;
+
+    private final Set<String> datasets;
+
+    private final Map<String, Double> stages;
+
+    private final Map<String, Long> valueCounts;
+
+    private final Map<String, String> tags;
+
+    private final long bytesWritten;
+
+    private final long allocatedBytes;
+
+    private SlowRequestSample(Builder builder) {
+        this.timestamp = builder.timestamp;
+        this.durationInNanos = builder.durationInNanos;
+        this.endpoint = builder.endpoint;
+        this.request = builder.request;
+        this.parameters = builder.parameters == null
+                ? null
+                : builder.parameters.toCanonicalString();
+        this.datasets = builder.parameters == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new TreeSet<>(builder.parameters.getDatasets()));
+        this.stages = toMillis(builder.timer.getDurations());
+        this.valueCounts = sum(builder.timer.getSamples());
+        this.tags = builder.timer.getTags();
+        this.bytesWritten = builder.timer.getBytesWritten();
+        this.allocatedBytes = builder.allocatedBytes;
+    }
+
+    private static Map<String, Double> toMillis(Map<String, Long> durations) {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        durations.forEach((stage, nanos) -> millis.put(stage, toMillis(nanos)));
+        return Collections.unmodifiableMap(millis);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static Map<String, Long> sum(Map<String, List<Long>> samples) {
+        Map<String, Long> sums = new LinkedHashMap<>();
+        samples.forEach((name, values) -> sums.put(name, values.stream()
+                                                               .mapToLong(Long::longValue)
+                                                               .sum()));
+        return Collections.unmodifiableMap(sums);
+    }
+
+    /**
+     * @return the time the request completed, in milliseconds since epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @JsonIgnore
+    public long getDurationInNanos() {
+        return durationInNanos;
+    }
+
+    public double getDurationInMillis() {
+        return toMillis(durationInNanos);
+    }
+
+    /**
+     * @return the handling controller method
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the request method, path and query string
+     */
+    public String getRequest() {
+        return request;
+    }
+
+    /**
+     * @return the canonical form of the parsed request parameters, or <code>null</code> if the handler did not
+     *         parse any
+     */
+    public String getParameters() {
+        return parameters;
+    }
+
+    public Set<String> getDatasets() {
+        return datasets;
+    }
+
+    /**
+     * @return the exclusive time of each stage in milliseconds
+     */
+    public Map<String, Double> getStages() {
+        return stages;
+    }
+
+    /**
+     * @return the total of each sampled value count, e.g. values fetched over all datasets
+     */
+    public Map<String, Long> getValueCounts() {
+        return valueCounts;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return an estimate of bytes allocated by the threads processing the request (including the pool thread
+     *         of async requests), or <code>-1</code> if not supported by the JVM
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    static Builder builder(StageTimer timer) {
+        return new Builder(timer);
+    }
+
+    static final class Builder {
+
+        private final StageTimer timer;
+
+        private long timestamp = System.currentTimeMillis();
+
+        private long durationInNanos;
+
+        private String endpoint;
+
+        private String request;
+
+        private IoParameters parameters;
+
+        private long allocatedBytes = -1L;
+
+        private Builder(StageTimer timer) {
+            this.timer = timer;
+        }
+
+        Builder withTimestamp(long time) {
+            this.timestamp = time;
+            return this;
+        }
+
+        Builder withDuration(long nanos) {
+            this.durationInNanos = nanos;
+            return this;
+        }
+
+        Builder withEndpoint(String name) {
+            this.endpoint = name;
+            return this;
+        }
+
+        Builder withRequest(String value) {
+            this.request = value;
+            return this;
+        }
+
+        Builder withParameters(IoParameters value) {
+            this.parameters = value;
+            return this;
+        }
+
+        Builder withAllocatedBytes(long bytes) {
+            this.allocatedBytes = bytes;
+            return this;
+        }
+
+        SlowRequestSample build() {
+            return new SlowRequestSample(this);
+        }
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * An opt-in flight recorder keeping the slowest recent requests. Samples are kept in a fixed number of slots. A
+ * new sample replaces an empty or expired slot, or else the fastest sample if it is slower than that. Slots are
+ * replaced by compare-and-set, so recording never blocks request threads. Under contention a sample may get
+ * dropped, which is acceptable for a diagnostic tool.
+ * <p>
+ * Requests faster than the threshold are rejected by a single comparison, so the sampler is cheap enough to be
+ * left enabled in production.
+ * </p>
+ */
+public class SlowRequestSampler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowRequestSampler.class);
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private static final long DEFAULT_THRESHOLD = 1000L;
+
+    private static final long DEFAULT_MAX_AGE = 60L;
+
+    private static final int MAX_ATTEMPTS = 4;
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    private volatile AtomicReferenceArray<SlowRequestSample> slots = new AtomicReferenceArray<>(DEFAULT_CAPACITY);
+
+    private volatile boolean enabled;
+
+    private volatile long thresholdInNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD);
+
+    private volatile long maxAgeInMillis = TimeUnit.MINUTES.toMillis(DEFAULT_MAX_AGE);
+
+    @Value("${request.slowRequests.enabled:false}")
+    public void setEnabled(boolean enabled) {
+        LOGGER.debug("CONFIG: request.slowRequests.enabled={}", enabled);
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param capacity
+     *        the number of slowest requests to keep. Changing the capacity drops all samples.
+     */
+    @Value("${request.slowRequests.capacity:32}")
+    public void setCapacity(int capacity) {
+        LOGGER.debug("CONFIG: request.slowRequests.capacity={}", capacity);
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    /**
+     * @param threshold
+     *        the minimum duration (in milliseconds) of requests to sample.
+     */
+    @Value("${request.slowRequests.threshold:1000}")
+    public void setThreshold(long threshold) {
+        LOGGER.debug("CONFIG: request.slowRequests.threshold={}", threshold);
+        this.thresholdInNanos = TimeUnit.MILLISECONDS.toNanos(threshold);
+    }
+
+    /**
+     * @param maxAge
+     *        the time (in minutes) after which samples are considered outdated and get replaced first.
+     */
+    @Value("${request.slowRequests.maxAge:60}")
+    public void setMaxAge(long maxAge) {
+        LOGGER.debug("CONFIG: request.slowRequests.maxAge={}", maxAge);
+        this.maxAgeInMillis = TimeUnit.MINUTES.toMillis(maxAge);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    public long getThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdInNanos);
+    }
+
+    /**
+     * @param durationInNanos
+     *        the duration of a request
+     * @return if a request of the given duration shall be sampled
+     */
+    public boolean isSampled(long durationInNanos) {
+        return enabled && durationInNanos >= thresholdInNanos;
+    }
+
+    /**
+     * Records the given sample if it is slower than the fastest recent sample kept.
+     *
+     * @param sample
+     *        the sample to record
+     * @return <code>true</code> if the sample was recorded
+     */
+    public boolean offer(SlowRequestSample sample) {
+        AtomicReferenceArray<SlowRequestSample> buffer = slots;
+        long oldest = sample.getTimestamp() - maxAgeInMillis;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int victim = -1;
+            SlowRequestSample victimSample = null;
+            long victimDuration = Long.MAX_VALUE;
+            for (int i = 0; i < buffer.length(); i++) {
+                SlowRequestSample current = buffer.get(i);
+                long duration = current == null || current.getTimestamp() < oldest
+                        ? -1L
+                        : current.getDurationInNanos();
+                if (duration < victimDuration) {
+                    victim = i;
+                    victimSample = current;
+                    victimDuration = duration;
+                    if (duration < 0) {
+                        break;
+                    }
+                }
+            }
+            if (victimDuration >= sample.getDurationInNanos()) {
+                return false;
+            }
+            if (buffer.compareAndSet(victim, victimSample, sample)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the recent samples, slowest first
+     */
+    public List<SlowRequestSample> getSamples() {
+        AtomicReferenceArray<SlowRequestSample> buffer = slots;
+        long oldest = System.currentTimeMillis() - maxAgeInMillis;
+        List<SlowRequestSample> samples = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SlowRequestSample sample = buffer.get(i);
+            if (sample != null && sample.getTimestamp() >= oldest) {
+                samples.add(sample);
+            }
+        }
+        samples.sort(Comparator.comparingLong(SlowRequestSample::getDurationInNanos)
+                               .reversed());
+        return samples;
+    }
+
+    public void clear() {
+        AtomicReferenceArray<SlowRequestSample> buffer = slots;
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or <code>-1</code> if the JVM does not support
+     *         measuring allocations per thread
+     */
+    static long getAllocatedBytesOfCurrentThread() {
+        if (THREAD_BEAN instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_BEAN;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread()
+                                                          .getId());
+            }
+        }
+        return -1L;
+    }
+
+}
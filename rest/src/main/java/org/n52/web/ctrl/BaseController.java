@@ -33,6 +33,7 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
@@ -45,17 +46,24 @@ import org.n52.io.HrefHelper;
 import org.n52.io.IoParseException;
 import org.n52.io.request.IoParameters;
 import org.n52.io.request.Parameters;
+import org.n52.io.request.RequestCancelledException;
 import org.n52.io.request.RequestSimpleParameterSet;
 import org.n52.io.request.RequestStyledParameterSet;
+import org.n52.web.common.AsyncRequestExecutor;
+import org.n52.web.common.RawDataWriter;
+import org.n52.web.common.RequestCancellation;
+import org.n52.web.common.RequestTimings;
 import org.n52.web.common.RequestUtils;
 import org.n52.web.exception.BadQueryParameterException;
 import org.n52.web.exception.BadRequestException;
 import org.n52.web.exception.ExceptionResponse;
 import org.n52.web.exception.InternalServerException;
 import org.n52.web.exception.ResourceNotFoundException;
+import org.n52.web.exception.ServiceUnavailableException;
 import org.n52.web.exception.WebException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
@@ -98,6 +106,10 @@ public abstract class BaseController {
     @Value("${external.url:http://localhost:8080/api}")
     private String externalUrl;
 
+    private AsyncRequestExecutor asyncRequestExecutor = new AsyncRequestExecutor();
+
+    private RawDataWriter rawDataWriter = new RawDataWriter();
+
     public String getExternalUrl() {
         return externalUrl;
     }
@@ -106,6 +118,46 @@ public abstract class BaseController {
         this.externalUrl = RequestUtils.resolveQueryLessRequestUrl(externalUrl);
     }
 
+    @Autowired(required = false)
+    public void setAsyncRequestExecutor(AsyncRequestExecutor asyncRequestExecutor) {
+        if (asyncRequestExecutor != null) {
+            this.asyncRequestExecutor = asyncRequestExecutor;
+        }
+    }
+
+    public AsyncRequestExecutor getAsyncRequestExecutor() {
+        return asyncRequestExecutor;
+    }
+
+    @Autowired(required = false)
+    public void setRawDataWriter(RawDataWriter rawDataWriter) {
+        if (rawDataWriter != null) {
+            this.rawDataWriter = rawDataWriter;
+        }
+    }
+
+    public RawDataWriter getRawDataWriter() {
+        return rawDataWriter;
+    }
+
+    /**
+     * Executes the processing of a request, asynchronously if enabled. Handler methods have to return the result
+     * as is, which is a {@link org.springframework.web.context.request.async.WebAsyncTask} if the response gets
+     * rendered on the async dispatch.
+     *
+     * @param <T>
+     *        the type of the result
+     * @param task
+     *        the request processing
+     * @return the result of the task, or the task to be executed asynchronously
+     * @throws Exception
+     *         if the task fails when executed inline
+     * @see AsyncRequestExecutor
+     */
+    protected <T> Object execute(Callable<T> task) throws Exception {
+        return asyncRequestExecutor.execute(task);
+    }
+
     public String createCollectionUrl(String collectionName) {
         return HrefHelper.constructHref(getExternalUrl(), collectionName);
     }
@@ -156,8 +208,11 @@ public abstract class BaseController {
         if (parameters != null && response != null) {
             addCacheHeader(parameters, response);
         }
-        return RequestUtils.overrideQueryLocaleWhenSet(locale, parameters)
-                           .setParseExceptionHandle(getExceptionHandle());
+        IoParameters result = RequestUtils.overrideQueryLocaleWhenSet(locale, parameters)
+                                          .setParseExceptionHandle(getExceptionHandle())
+                                          .setCancellationToken(RequestCancellation.current());
+        RequestTimings.bindParameters(result);
+        return result;
     }
 
     protected boolean isRequestingJsonData(HttpServletRequest request) {
@@ -192,6 +247,21 @@ public abstract class BaseController {
         writeExceptionResponse((WebException) e, response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(value = ServiceUnavailableException.class)
+    public void handle503(Exception e, HttpServletRequest request, HttpServletResponse response) {
+        writeExceptionResponse((WebException) e, response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(value = RequestCancelledException.class)
+    public void handleCancelled(Exception e, HttpServletRequest request, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            LOGGER.debug("Request cancelled after response has been committed: {}", e.getMessage());
+            return;
+        }
+        WebException ex = new ServiceUnavailableException("Request has been cancelled: " + e.getMessage(), e);
+        writeExceptionResponse(ex, response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(value = InternalServerException.class)
     public void handle500(Exception e, HttpServletRequest request, HttpServletResponse response) {
         writeExceptionResponse((WebException) e, response, HttpStatus.INTERNAL_SERVER_ERROR);
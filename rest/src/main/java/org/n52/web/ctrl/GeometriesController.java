@@ -28,21 +28,57 @@
  */
 package org.n52.web.ctrl;
 
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.n52.io.Constants;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
 import org.n52.io.response.GeometryOutput;
+import org.n52.series.spi.geo.GeometryClusters;
+import org.n52.series.spi.geo.TileClusterer;
 import org.n52.series.spi.geo.TransformingGeometryOutputService;
 import org.n52.series.spi.srv.CountingMetadataService;
 import org.n52.series.spi.srv.ParameterService;
+import org.n52.web.common.ExpiringCache;
+import org.n52.web.exception.BadRequestException;
+import org.n52.web.exception.SpiAssertionExceptionAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.ModelAndView;
 
 @RestController
 @RequestMapping(value = UrlSettings.COLLECTION_GEOMETRIES)
 public class GeometriesController extends ParameterRequestMappingAdapter<GeometryOutput> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeometriesController.class);
+
+    private static final long DEFAULT_TILE_CACHE_TTL = 300;
+
+    private final ParameterService<GeometryOutput> geometryService;
+
+    private ExpiringCache<String, TileClusterer> clustererCache =
+            new ExpiringCache<>(DEFAULT_TILE_CACHE_TTL, TimeUnit.SECONDS);
+
+    private ExpiringCache<String, GeometryClusters> tileCache =
+            new ExpiringCache<>(DEFAULT_TILE_CACHE_TTL, TimeUnit.SECONDS);
+
+    private int clusterGridSize = TileClusterer.DEFAULT_GRID_SIZE;
+
     @Autowired
     public GeometriesController(CountingMetadataService counter, ParameterService<GeometryOutput> parameterService) {
         super(counter, new TransformingGeometryOutputService(parameterService));
+        // clusters are computed on CRS:84 geometries, no transformation needed
+        this.geometryService = new SpiAssertionExceptionAdapter<>(parameterService);
     }
 
     @Override
@@ -50,4 +86,61 @@ public class GeometriesController extends ParameterRequestMappingAdapter<Geometr
         return UrlSettings.COLLECTION_GEOMETRIES;
     }
 
+    @RequestMapping(value = "/tiles/{zoom}/{x}/{y}", produces = Constants.APPLICATION_JSON)
+    public ModelAndView getClusteredTile(HttpServletResponse response,
+                                         @PathVariable("zoom") int zoom,
+                                         @PathVariable("x") int x,
+                                         @PathVariable("y") int y,
+                                         @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                                             required = false) String locale,
+                                         @RequestParam MultiValueMap<String, String> query) {
+        if (!TileClusterer.isValidTile(zoom, x, y)) {
+            throw new BadRequestException("Invalid tile: " + zoom + "/" + x + "/" + y);
+        }
+        IoParameters parameters = createParameters(addAdditionalParameter(query), locale, response)
+                .removeAllOf(Parameters.CRS)
+                .removeAllOf(Parameters.OFFSET)
+                .removeAllOf(Parameters.LIMIT)
+                .removeAllOf(Parameters.CURSOR)
+                .replaceWith(Parameters.EXPANDED, Boolean.TRUE.toString());
+        String filterKey = parameters.toCanonicalString();
+        String tileKey = filterKey + "/" + zoom + "/" + x + "/" + y;
+        GeometryClusters tile = tileCache.get(tileKey, key -> getClusterer(filterKey, parameters).cluster(zoom, x, y));
+        return new ModelAndView().addObject(tile);
+    }
+
+    private TileClusterer getClusterer(String filterKey, IoParameters parameters) {
+        return clustererCache.get(filterKey, key -> {
+            LOGGER.debug("Loading geometries to cluster for query '{}'", parameters);
+            return TileClusterer.of(geometryService.getExpandedParameters(parameters).getItems(),
+                                    clusterGridSize);
+        });
+    }
+
+    /**
+     * @param ttl
+     *        time in seconds the loaded geometries and clustered tiles are cached (<code>0</code> disables
+     *        caching)
+     */
+    @Value("${request.tiles.cacheTtl:300}")
+    public void setTileCacheTtl(long ttl) {
+        LOGGER.debug("CONFIG: request.tiles.cacheTtl={}", ttl);
+        this.clustererCache = new ExpiringCache<>(ttl, TimeUnit.SECONDS);
+        this.tileCache = new ExpiringCache<>(ttl, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param gridSize
+     *        number of cluster cells per tile axis
+     */
+    @Value("${request.tiles.gridSize:8}")
+    public void setClusterGridSize(int gridSize) {
+        LOGGER.debug("CONFIG: request.tiles.gridSize={}", gridSize);
+        if (gridSize < 1 || gridSize > TileClusterer.MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("request.tiles.gridSize must be within 1 and "
+                    + TileClusterer.MAX_GRID_SIZE);
+        }
+        this.clusterGridSize = gridSize;
+    }
+
 }
@@ -74,6 +74,11 @@ public class ParameterBackwardsCompatibilityAdapter<T extends ParameterOutput> e
         return service.supportsRawData();
     }
 
+    @Override
+    public boolean supportsCursor() {
+        return service.supportsCursor();
+    }
+
     @Override
     public RawDataService getRawDataService() {
         return service.getRawDataService();
@@ -29,25 +29,28 @@
 package org.n52.web.ctrl;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.n52.io.request.IoParameters;
+import org.n52.io.request.KeysetCursor;
 import org.n52.io.request.Parameters;
 import org.n52.io.response.OutputCollection;
 import org.n52.io.response.ParameterOutput;
 import org.n52.io.response.extension.MetadataExtension;
 import org.n52.series.spi.srv.ParameterService;
+import org.n52.web.common.ExpiringCache;
+import org.n52.web.common.KeysetPagination;
 import org.n52.web.common.OffsetBasedPagination;
 import org.n52.web.common.PageLinkUtil;
 import org.n52.web.common.Paginated;
@@ -58,6 +61,7 @@ import org.n52.web.exception.ResourceNotFoundException;
 import org.n52.web.exception.SpiAssertionExceptionAdapter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.servlet.ModelAndView;
 
@@ -66,8 +70,13 @@ public abstract class ParameterController<T extends ParameterOutput>
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ParameterController.class);
 
+    private static final long DEFAULT_ELEMENT_COUNT_CACHE_TTL = 60;
+
     private List<MetadataExtension<T>> metadataExtensions = new ArrayList<>();
 
+    private ExpiringCache<String, Long> elementCountCache =
+            new ExpiringCache<>(DEFAULT_ELEMENT_COUNT_CACHE_TTL, TimeUnit.SECONDS);
+
     private final ParameterService<T> parameterService;
 
     public ParameterController(ParameterService<T> parameterService) {
@@ -86,9 +95,10 @@ public abstract class ParameterController<T extends ParameterOutput>
         IoParameters queryMap = createParameters(query, locale, response);
         LOGGER.debug("getRawData() with id '{}' and query '{}'", id, queryMap);
 
-        try (InputStream inputStream = parameterService.getRawDataService()
-                                                            .getRawData(id, queryMap)) {
-            IOUtils.copyLarge(inputStream, response.getOutputStream());
+        try {
+            getRawDataWriter().write(parameterService.getRawDataService()
+                                                     .getRawDataChannel(id, queryMap),
+                                     response);
         } catch (IOException e) {
             throw new InternalServerException("Error while querying raw data", e);
         }
@@ -131,17 +141,65 @@ public abstract class ParameterController<T extends ParameterOutput>
     }
 
     @Override
-    public ModelAndView getCollection(HttpServletResponse response,
-                                      String locale,
-                                      MultiValueMap<String, String> query) {
-        Stopwatch stopwatch = Stopwatch.startStopwatch();
-        IoParameters parameters = createParameters(query, locale, response);
-        try {
-            LOGGER.debug("getCollection() with query '{}'", parameters);
-            preparePagingHeaders(parameters, response);
-            return createModelAndView(getCollection(parameters), parameters);
-        } finally {
-            LOGGER.debug("Processing request took {} seconds.", stopwatch.stopInSeconds());
+    public Object getCollection(HttpServletResponse response,
+                                String locale,
+                                MultiValueMap<String, String> query) {
+        return getAsyncRequestExecutor().supply(() -> {
+            Stopwatch stopwatch = Stopwatch.startStopwatch();
+            IoParameters parameters = createParameters(query, locale, response);
+            try {
+                LOGGER.debug("getCollection() with query '{}'", parameters);
+                if (parameters.containsParameter(Parameters.CURSOR)) {
+                    return getCollectionPage(parameters, response);
+                }
+                preparePagingHeaders(parameters, response);
+                return createModelAndView(getCollection(parameters), parameters);
+            } finally {
+                LOGGER.debug("Processing request took {} seconds.", stopwatch.stopInSeconds());
+            }
+        });
+    }
+
+    private ModelAndView getCollectionPage(IoParameters parameters, HttpServletResponse response) {
+        Optional<KeysetCursor> cursor = parameters.getCursor();
+        long limit = new KeysetPagination(null, parameters.getLimit()).getLimit();
+        boolean keyset = parameterService.supportsCursor();
+        // backends not supporting cursors get the page offset carried by the cursor
+        int offset = keyset
+                ? -1
+                : cursor.map(c -> c.getPage().orElse(0)).orElse(0);
+        IoParameters pageParameters = keyset
+                ? parameters.removeAllOf(Parameters.OFFSET)
+                : parameters.removeAllOf(Parameters.CURSOR)
+                            .replaceWith(Parameters.OFFSET, Integer.toString(offset));
+        OutputCollection<T> page = getCollection(pageParameters.replaceWith(Parameters.LIMIT, Long.toString(limit)));
+
+        List<T> items = page.getItems();
+        KeysetCursor nextCursor = null;
+        if (items.size() >= limit) {
+            T last = items.get(items.size() - 1);
+            nextCursor = keyset
+                    ? KeysetCursor.after(last)
+                    : KeysetCursor.after(last, offset + 1);
+        }
+        if (keyset) {
+            cursor.ifPresent(c -> skipUntil(c, page));
+        }
+
+        KeysetPagination pagination = new KeysetPagination(cursor.orElse(null), limit, nextCursor);
+        Paginated paginated = new Paginated(pagination, -1);
+        PageLinkUtil.addPagingHeaders(createCollectionUrl(getCollectionName()), response, paginated);
+        return createModelAndView(page, parameters);
+    }
+
+    private void skipUntil(KeysetCursor cursor, OutputCollection<T> page) {
+        // safeguard for backends ignoring the cursor although declaring support
+        List<T> toSkip = page.stream()
+                             .filter(item -> !cursor.isBefore(item))
+                             .collect(Collectors.toList());
+        if (!toSkip.isEmpty()) {
+            LOGGER.debug("Backend ignored cursor, skipped {} items.", toSkip.size());
+            toSkip.forEach(page::removeItem);
         }
     }
 
@@ -153,9 +211,9 @@ public abstract class ParameterController<T extends ParameterOutput>
 
     private void preparePagingHeaders(IoParameters parameters, HttpServletResponse response) {
         if (parameters.containsParameter(Parameters.LIMIT) || parameters.containsParameter(Parameters.OFFSET)) {
-            Long elementcount = this.getElementCount(parameters.removeAllOf(Parameters.LIMIT)
-                                                                  .removeAllOf(Parameters.OFFSET));
-            if (elementcount > 0) {
+            Long elementcount = getCachedElementCount(parameters.removeAllOf(Parameters.LIMIT)
+                                                                .removeAllOf(Parameters.OFFSET));
+            if (elementcount != null && elementcount > 0) {
                 int limit = parameters.getLimit();
                 int offset = parameters.getOffset();
                 OffsetBasedPagination obp = new OffsetBasedPagination(offset, limit);
@@ -166,11 +224,13 @@ public abstract class ParameterController<T extends ParameterOutput>
     }
 
     @Override
-    public ModelAndView getItem(String id, String locale, MultiValueMap<String, String> query,
+    public Object getItem(String id, String locale, MultiValueMap<String, String> query,
             HttpServletResponse response) {
-        IoParameters parameters = createParameters(query, locale, response);
-        LOGGER.debug("getItem() with id '{}' and query '{}'", id, parameters);
-        return createModelAndView(getItem(id, parameters), parameters);
+        return getAsyncRequestExecutor().supply(() -> {
+            IoParameters parameters = createParameters(query, locale, response);
+            LOGGER.debug("getItem() with id '{}' and query '{}'", id, parameters);
+            return createModelAndView(getItem(id, parameters), parameters);
+        });
     }
 
     private T getItem(String id, IoParameters parameters) {
@@ -191,8 +251,21 @@ public abstract class ParameterController<T extends ParameterOutput>
     }
 
     private OutputCollection<T> addExtensionInfos(OutputCollection<T> toBeProcessed, IoParameters ioParameters) {
-        for (T parameterOutput : toBeProcessed) {
-            addExtensionInfos(parameterOutput, ioParameters);
+        List<T> items = toBeProcessed.getItems();
+        List<List<String>> extras = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            extras.add(new ArrayList<>());
+        }
+        for (MetadataExtension<T> extension : metadataExtensions) {
+            // each extension resolves the extras of the whole collection at once
+            List<Collection<String>> fieldNames = extension.getAllExtraMetadataFieldNames(items);
+            for (int i = 0; i < items.size(); i++) {
+                extras.get(i).addAll(fieldNames.get(i));
+            }
+        }
+        for (int i = 0; i < items.size(); i++) {
+            T output = items.get(i);
+            output.setValue(ParameterOutput.EXTRAS, extras.get(i), ioParameters, output::setExtras);
         }
         return toBeProcessed;
     }
@@ -218,6 +291,21 @@ public abstract class ParameterController<T extends ParameterOutput>
      */
     protected abstract Long getElementCount(IoParameters queryMap);
 
+    private Long getCachedElementCount(IoParameters queryMap) {
+        return elementCountCache.get(queryMap.toCanonicalString(), key -> getElementCount(queryMap));
+    }
+
+    /**
+     * @param ttl
+     *        time in seconds the element counts for paging headers are cached (<code>0</code> disables
+     *        caching)
+     */
+    @Value("${request.paging.countCacheTtl:60}")
+    public void setElementCountCacheTtl(long ttl) {
+        LOGGER.debug("CONFIG: request.paging.countCacheTtl={}", ttl);
+        this.elementCountCache = new ExpiringCache<>(ttl, TimeUnit.SECONDS);
+    }
+
     @Override
     protected void addCacheHeader(IoParameters parameter, HttpServletResponse response) {
         if (parameter.hasCache()
@@ -48,7 +48,6 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.servlet.ModelAndView;
 
 @RequestMapping(method = RequestMethod.GET)
 public abstract class ParameterRequestMappingAdapter<T extends ParameterOutput> extends ParameterController<T> {
@@ -63,20 +62,20 @@ public abstract class ParameterRequestMappingAdapter<T extends ParameterOutput>
 
     @Override
     @RequestMapping(path = "", produces = Constants.APPLICATION_JSON)
-    public ModelAndView getCollection(HttpServletResponse response,
-                                      @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
-                                          required = false) String locale,
-                                      @RequestParam MultiValueMap<String, String> query) {
+    public Object getCollection(HttpServletResponse response,
+                                @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                                    required = false) String locale,
+                                @RequestParam MultiValueMap<String, String> query) {
         return super.getCollection(response, locale, addAdditionalParameter(query));
     }
 
     @Override
     @RequestMapping(value = "/{item}", produces = Constants.APPLICATION_JSON)
-    public ModelAndView getItem(@PathVariable("item") String id,
-                                @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
-                                    required = false) String locale,
-                                @RequestParam MultiValueMap<String, String> query,
-                                HttpServletResponse response) {
+    public Object getItem(@PathVariable("item") String id,
+                          @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                              required = false) String locale,
+                          @RequestParam MultiValueMap<String, String> query,
+                          HttpServletResponse response) {
         return super.getItem(id, locale, addAdditionalParameter(query), response);
     }
 
@@ -34,15 +34,14 @@ import java.util.Map;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.servlet.ModelAndView;
 
 public interface ResourceController {
 
-    ModelAndView getCollection(HttpServletResponse response, String locale, MultiValueMap<String, String> query);
+    Object getCollection(HttpServletResponse response, String locale, MultiValueMap<String, String> query);
 
     String getCollectionName();
 
-    ModelAndView getItem(String id, String locale, MultiValueMap<String, String> query, HttpServletResponse response);
+    Object getItem(String id, String locale, MultiValueMap<String, String> query, HttpServletResponse response);
 
     default Map<String, Object> getExtras(HttpServletResponse response, String id, String locale,
             MultiValueMap<String, String> query) {
@@ -29,15 +29,34 @@
 package org.n52.web.ctrl;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import javax.servlet.http.HttpServletResponse;
 
 import org.n52.io.I18N;
 import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
 import org.n52.series.spi.srv.CountingMetadataService;
+import org.n52.web.common.DaemonThreadFactory;
+import org.n52.web.common.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -48,19 +67,104 @@ import org.springframework.web.servlet.ModelAndView;
 @RequestMapping(value = "/", produces = {
     "application/json"
 })
-public class ResourcesController {
+public class ResourcesController implements DisposableBean {
 
     private static final String TIMESERIES = "timeseries";
     private static final String TAJECTORIES = "trajectories";
     private static final String INDIVIDUAL_OBSERVATIONS = "individualObservations";
 
+    private static final String SERVICES = "services";
+    private static final String CATEGORIES = "categories";
+    private static final String OFFERINGS = "offerings";
+    private static final String FEATURES = "features";
+    private static final String PROCEDURES = "procedures";
+    private static final String PHENOMENA = "phenomena";
+    private static final String PLATFORMS = "platforms";
+    private static final String DATASETS = "datasets";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourcesController.class);
+
+    private static final long DEFAULT_COUNT_CACHE_TTL = 60;
+
+    private static final int COUNT_THREADS = 4;
+
+    // queries whose counts are kept up to date when background refresh is enabled
+    private static final int MAX_REFRESHED_QUERIES = 16;
+
     private final CountingMetadataService metadataService;
 
+    private final ExecutorService countExecutor =
+            Executors.newFixedThreadPool(COUNT_THREADS, new DaemonThreadFactory("resource-count-"));
+
+    private final Map<String, IoParameters> refreshedQueries = new ConcurrentHashMap<>();
+
+    private ExpiringCache<String, Map<String, Long>> countCache =
+            new ExpiringCache<>(DEFAULT_COUNT_CACHE_TTL, TimeUnit.SECONDS);
+
+    private ScheduledExecutorService refreshScheduler;
+
+    private volatile ScheduledFuture< ? > refreshTask;
+
     @Autowired
     public ResourcesController(CountingMetadataService metadataService) {
         this.metadataService = metadataService;
     }
 
+    /**
+     * @param ttl
+     *        time in seconds the resource counts of the expanded resource listing are cached (<code>0</code>
+     *        disables caching)
+     */
+    @Value("${request.resources.countCacheTtl:60}")
+    public void setCountCacheTtl(long ttl) {
+        LOGGER.debug("CONFIG: request.resources.countCacheTtl={}", ttl);
+        this.countCache = new ExpiringCache<>(ttl, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Recomputes the cached resource counts of recently requested queries in the background, so that the
+     * resource listing can be answered from memory. The interval should be shorter than the cache's time to
+     * live.
+     *
+     * @param interval
+     *        time in seconds between two background refreshes (<code>0</code> disables background refresh)
+     */
+    @Value("${request.resources.countRefreshInterval:0}")
+    public synchronized void setCountRefreshInterval(long interval) {
+        LOGGER.debug("CONFIG: request.resources.countRefreshInterval={}", interval);
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        if (interval > 0) {
+            if (refreshScheduler == null) {
+                refreshScheduler =
+                        Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("resource-refresh-"));
+            }
+            refreshTask = refreshScheduler.scheduleWithFixedDelay(this::refreshCounts,
+                                                                  interval,
+                                                                  interval,
+                                                                  TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stops background refresh and counting threads.
+     */
+    @Override
+    public synchronized void destroy() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+            refreshScheduler = null;
+        }
+        countExecutor.shutdownNow();
+        refreshedQueries.clear();
+    }
+
     @RequestMapping("/")
     public ModelAndView getResources(HttpServletResponse response,
                                      @RequestParam(required = false) MultiValueMap<String, String> parameters) {
@@ -79,26 +183,30 @@ public class ResourcesController {
     private List<ResourceCollection> createResources(IoParameters parameters) {
         I18N i18n = I18N.getMessageLocalizer(parameters.getLocale());
 
-        ResourceCollection services = add("services", "Service Provider", i18n.get("msg.web.resources.services"));
+        Map<String, Long> counts = parameters.isExpanded()
+                ? getCounts(parameters)
+                : Collections.emptyMap();
+
+        ResourceCollection services = add(SERVICES, "Service Provider", i18n.get("msg.web.resources.services"));
         // ResourceCollection stations = add("stations", "Station", i18n.get("msg.web.resources.stations"));
         ResourceCollection timeseries = add(TIMESERIES, "Timeseries", i18n.get("msg.web.resources.timeseries"));
-        ResourceCollection categories = add("categories", "Category", i18n.get("msg.web.resources.categories"));
-        ResourceCollection offerings = add("offerings", "Offering", i18n.get("msg.web.resources.offerings"));
-        ResourceCollection features = add("features", "Feature", i18n.get("msg.web.resources.features"));
-        ResourceCollection procedures = add("procedures", "Procedure", i18n.get("msg.web.resources.procedures"));
-        ResourceCollection phenomena = add("phenomena", "Phenomenon", i18n.get("msg.web.resources.phenomena"));
+        ResourceCollection categories = add(CATEGORIES, "Category", i18n.get("msg.web.resources.categories"));
+        ResourceCollection offerings = add(OFFERINGS, "Offering", i18n.get("msg.web.resources.offerings"));
+        ResourceCollection features = add(FEATURES, "Feature", i18n.get("msg.web.resources.features"));
+        ResourceCollection procedures = add(PROCEDURES, "Procedure", i18n.get("msg.web.resources.procedures"));
+        ResourceCollection phenomena = add(PHENOMENA, "Phenomenon", i18n.get("msg.web.resources.phenomena"));
         if (parameters.isExpanded()) {
-            services.setSize(metadataService.getServiceCount(parameters));
+            services.setSize(counts.get(SERVICES));
             // if (parameters.shallBehaveBackwardsCompatible()) {
             // ensure backwards compatibility
             // stations.setSize(metadataService.getStationCount());
             // timeseries.setSize(metadataService.getTimeseriesCount());
             // }
-            categories.setSize(metadataService.getCategoryCount(parameters));
-            offerings.setSize(metadataService.getOfferingCount(parameters));
-            features.setSize(metadataService.getFeatureCount(parameters));
-            procedures.setSize(metadataService.getProcedureCount(parameters));
-            phenomena.setSize(metadataService.getPhenomenaCount(parameters));
+            categories.setSize(counts.get(CATEGORIES));
+            offerings.setSize(counts.get(OFFERINGS));
+            features.setSize(counts.get(FEATURES));
+            procedures.setSize(counts.get(PROCEDURES));
+            phenomena.setSize(counts.get(PHENOMENA));
         }
 
         List<ResourceCollection> resources = new ArrayList<>();
@@ -112,8 +220,8 @@ public class ResourcesController {
         resources.add(phenomena);
 
         // since 2.0.0
-        ResourceCollection platforms = add("platforms", "Platforms", i18n.get("msg.web.resources.platforms"));
-        ResourceCollection datasets = add("datasets", "Datasets", i18n.get("msg.web.resources.datasets"));
+        ResourceCollection platforms = add(PLATFORMS, "Platforms", i18n.get("msg.web.resources.platforms"));
+        ResourceCollection datasets = add(DATASETS, "Datasets", i18n.get("msg.web.resources.datasets"));
         ResourceCollection individualObservations = add(INDIVIDUAL_OBSERVATIONS,
                                                         "IndividualObservations",
                                                         i18n.get("msg.web.resources.individualObservations"));
@@ -130,14 +238,11 @@ public class ResourcesController {
 
         // resources.add(geometries);
         if (parameters.isExpanded()) {
-            platforms.setSize(metadataService.getPlatformCount(parameters));
-            datasets.setSize(metadataService.getDatasetCount(parameters));
-
-            List<String> datasetTypes = new LinkedList<>(parameters.getDatasetTypes());
-            timeseries.setSize(countDatasets(parameters, TIMESERIES));
-            trajectories.setSize(countDatasets(parameters, TAJECTORIES));
-            individualObservations.setSize(countDatasets(parameters, INDIVIDUAL_OBSERVATIONS));
-            parameters.extendWith(IoParameters.FILTER_DATASET_TYPES, datasetTypes);
+            platforms.setSize(counts.get(PLATFORMS));
+            datasets.setSize(counts.get(DATASETS));
+            timeseries.setSize(counts.get(TIMESERIES));
+            trajectories.setSize(counts.get(TAJECTORIES));
+            individualObservations.setSize(counts.get(INDIVIDUAL_OBSERVATIONS));
         }
 
         ResourceCollection samplings = add("samplings", "Samplings", i18n.get("msg.web.resources.samplings"));
@@ -150,10 +255,69 @@ public class ResourcesController {
         return resources;
     }
 
-    private Long countDatasets(IoParameters parameters, String datasetType) {
+    private Map<String, Long> getCounts(IoParameters parameters) {
+        // counts do not depend on the requested language
+        IoParameters filter = parameters.removeAllOf(Parameters.LOCALE);
+        String key = filter.toCanonicalString();
+        if (refreshTask != null && refreshedQueries.size() < MAX_REFRESHED_QUERIES) {
+            refreshedQueries.putIfAbsent(key, filter);
+        }
+        return countCache.get(key, k -> countAll(filter));
+    }
+
+    private void refreshCounts() {
+        refreshedQueries.forEach((key, filter) -> {
+            try {
+                countCache.put(key, countAll(filter));
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not refresh resource counts for '{}'.", key, e);
+            }
+        });
+    }
+
+    private Map<String, Long> countAll(IoParameters parameters) {
+        Map<String, CompletableFuture<Long>> futures = new HashMap<>();
+        futures.put(SERVICES, count(metadataService::getServiceCount, parameters));
+        futures.put(CATEGORIES, count(metadataService::getCategoryCount, parameters));
+        futures.put(OFFERINGS, count(metadataService::getOfferingCount, parameters));
+        futures.put(FEATURES, count(metadataService::getFeatureCount, parameters));
+        futures.put(PROCEDURES, count(metadataService::getProcedureCount, parameters));
+        futures.put(PHENOMENA, count(metadataService::getPhenomenaCount, parameters));
+        futures.put(PLATFORMS, count(metadataService::getPlatformCount, parameters));
+        futures.put(DATASETS, count(metadataService::getDatasetCount, parameters));
+        futures.put(TIMESERIES, countDatasets(parameters, TIMESERIES));
+        futures.put(TAJECTORIES, countDatasets(parameters, TAJECTORIES));
+        futures.put(INDIVIDUAL_OBSERVATIONS, countDatasets(parameters, INDIVIDUAL_OBSERVATIONS));
+
+        Map<String, Long> counts = new HashMap<>();
+        try {
+            for (Map.Entry<String, CompletableFuture<Long>> entry : futures.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return Collections.unmodifiableMap(counts);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Counting resources has been interrupted.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Could not count resources: " + cause.getMessage(), cause);
+        } finally {
+            // no-op for completed counts
+            futures.values().forEach(future -> future.cancel(true));
+        }
+    }
+
+    private CompletableFuture<Long> countDatasets(IoParameters parameters, String datasetType) {
         String filterName = IoParameters.FILTER_DATASET_TYPES;
         IoParameters filter = parameters.extendWith(filterName, datasetType);
-        return metadataService.getDatasetCount(filter);
+        return count(metadataService::getDatasetCount, filter);
+    }
+
+    private CompletableFuture<Long> count(Function<IoParameters, Long> counter, IoParameters parameters) {
+        return CompletableFuture.supplyAsync(() -> counter.apply(parameters), countExecutor);
     }
 
     private void addVersionHeader(HttpServletResponse response) {
@@ -28,10 +28,16 @@
  */
 package org.n52.web.ctrl;
 
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import javax.servlet.http.HttpServletResponse;
 
 import org.n52.io.request.IoParameters;
 import org.n52.io.request.Parameters;
+import org.n52.series.spi.search.SearchResult;
 import org.n52.series.spi.search.SearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.MultiValueMap;
@@ -63,7 +69,21 @@ public class SearchController extends BaseController {
                                         HttpServletResponse response) {
         IoParameters parameters = createParameters(query, locale, response).extendWith(Parameters.SEARCH_TERM, q)
                                                                  .respectBackwardsCompatibility();
-        return new ModelAndView().addObject(searchService.searchResources(parameters));
+        Collection<SearchResult> results = searchService.searchResources(parameters);
+        return new ModelAndView().addObject(parameters.isSearchTypeahead()
+                ? limitResults(results, parameters)
+                : results);
+    }
+
+    /*
+     * Search services not aware of typeahead mode may return all matches. Keep the payload bounded anyway.
+     */
+    private Collection<SearchResult> limitResults(Collection<SearchResult> results, IoParameters parameters) {
+        Set<String> types = parameters.getSearchTypes();
+        return results.stream()
+                      .filter(result -> types.isEmpty() || types.contains(result.getType().toLowerCase(Locale.ROOT)))
+                      .limit(parameters.getSearchTypeaheadLimit())
+                      .collect(Collectors.toList());
     }
 
     @Override
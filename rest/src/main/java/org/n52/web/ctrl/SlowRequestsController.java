@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.n52.web.common.SlowRequestSampler;
+import org.n52.web.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Exposes the requests recorded by the {@link SlowRequestSampler}. The endpoint answers <code>404</code> unless
+ * both the sampler (<code>request.slowRequests.enabled=true</code>) and the endpoint
+ * (<code>request.slowRequests.endpoint=true</code>) are enabled. The controller is not registered by default and
+ * has to be declared by the web application. As recorded requests include query strings and anyone can clear the
+ * samples, the web application has to restrict access to this path to administrators (e.g. by a security
+ * filter).
+ */
+@RestController
+@RequestMapping(value = UrlSettings.ADMIN_SLOW_REQUESTS, produces = {
+    "application/json"
+})
+public class SlowRequestsController extends BaseController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowRequestsController.class);
+
+    private final SlowRequestSampler sampler;
+
+    private boolean endpointEnabled;
+
+    @Autowired
+    public SlowRequestsController(SlowRequestSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @RequestMapping(method = RequestMethod.GET)
+    public ModelAndView getSlowRequests() {
+        assertEndpointEnabled();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", sampler.isEnabled());
+        result.put("capacity", sampler.getCapacity());
+        result.put("thresholdInMillis", sampler.getThreshold());
+        result.put("requests", sampler.getSamples());
+        return new ModelAndView().addObject(result);
+    }
+
+    @RequestMapping(method = RequestMethod.DELETE)
+    public void clearSlowRequests(HttpServletResponse response) {
+        assertEndpointEnabled();
+        sampler.clear();
+        response.setStatus(HttpStatus.NO_CONTENT.value());
+    }
+
+    private void assertEndpointEnabled() {
+        if (!endpointEnabled || !sampler.isEnabled()) {
+            throw new ResourceNotFoundException("Resource not available.");
+        }
+    }
+
+    public boolean isEndpointEnabled() {
+        return endpointEnabled;
+    }
+
+    /**
+     * @param endpointEnabled
+     *        if the recorded requests can be listed and cleared via this endpoint
+     */
+    @Value("${request.slowRequests.endpoint:false}")
+    public void setEndpointEnabled(boolean endpointEnabled) {
+        LOGGER.debug("CONFIG: request.slowRequests.endpoint={}", endpointEnabled);
+        this.endpointEnabled = endpointEnabled;
+    }
+
+}
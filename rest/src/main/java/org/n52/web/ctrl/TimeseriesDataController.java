@@ -29,7 +29,6 @@
 package org.n52.web.ctrl;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.util.Arrays;
@@ -39,7 +38,6 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.joda.time.Interval;
@@ -248,9 +246,9 @@ public class TimeseriesDataController extends BaseController {
             throwNewRawDataQueryNotSupportedException();
         }
         final RawDataService rawDataService = timeseriesDataService.getRawDataService();
-        try (InputStream inputStream = rawDataService.getRawData(parameters)) {
+        try {
             response.setContentType(parameters.getFormat());
-            IOUtils.copyLarge(inputStream, response.getOutputStream());
+            getRawDataWriter().write(rawDataService.getRawDataChannel(parameters), response);
         } catch (IOException e) {
             throw new InternalServerException("Error while querying raw data", e);
         }
@@ -60,6 +60,11 @@ public interface UrlSettings {
      */
     String SEARCH = "/search";
 
+    /**
+     * Subpath identifying the slowest recent requests recorded.
+     */
+    String ADMIN_SLOW_REQUESTS = "/admin/slowRequests";
+
     /**
      * Subpath identifying a collection of services availabe.
      */
@@ -29,24 +29,29 @@
 package org.n52.web.ctrl.data;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.joda.time.Interval;
 import org.joda.time.Period;
 import org.n52.io.Constants;
 import org.n52.io.IntervalWithTimeZone;
+import org.n52.io.StageTimer;
 import org.n52.io.handler.DatasetFactoryException;
 import org.n52.io.handler.DefaultIoFactory;
+import org.n52.io.handler.IoHandler;
+import org.n52.io.handler.IoHandlerException;
 import org.n52.io.handler.IoHandlerFactory;
 import org.n52.io.handler.IoProcessChain;
 import org.n52.io.request.IoParameters;
@@ -58,15 +63,21 @@ import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DataCollection;
 import org.n52.io.response.dataset.DatasetOutput;
 import org.n52.series.spi.srv.DataService;
+import org.n52.series.spi.srv.ParallelDataService;
 import org.n52.series.spi.srv.ParameterService;
 import org.n52.series.spi.srv.RawDataService;
 import org.n52.series.spi.srv.RawFormats;
+import org.n52.web.common.DaemonThreadFactory;
+import org.n52.web.common.RequestCancellation;
+import org.n52.web.common.RequestTimings;
+import org.n52.web.common.ServerTimingOutputStream;
 import org.n52.web.ctrl.BaseController;
 import org.n52.web.exception.BadRequestException;
 import org.n52.web.exception.InternalServerException;
 import org.n52.web.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.MultiValueMap;
@@ -78,7 +89,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
-public abstract class DataController extends BaseController {
+public abstract class DataController extends BaseController implements DisposableBean {
 
     protected static final String CONTENT_DISPOSITION_HEADER = "Content-Disposition";
 
@@ -91,7 +102,7 @@ public abstract class DataController extends BaseController {
 
     protected static final String OBSERVATIONS = "observations";
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetsDataController.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataController.class);
 
     private static final String DEFAULT_RESPONSE_ENCODING = "UTF-8";
 
@@ -101,6 +112,10 @@ public abstract class DataController extends BaseController {
 
     private final ParameterService<DatasetOutput<AbstractValue< ? >>> datasetService;
 
+    private volatile DataService<Data<AbstractValue< ? >>> parallelDataService;
+
+    private ExecutorService dataExecutor;
+
     @Value("${requestIntervalRestriction:P370D}")
     private String requestIntervalRestriction;
 
@@ -113,43 +128,91 @@ public abstract class DataController extends BaseController {
         this.dataService = dataService;
     }
 
-    protected abstract String getValueType(IoParameters map, String requestUrl);
+    protected abstract String getValueType(DatasetOutput<AbstractValue< ? >> item, String requestUrl);
+
+    protected String getValueType(IoParameters map, String requestUrl) {
+        return getValueType(getFirstDatasetOutput(map), requestUrl);
+    }
 
     protected ParameterService<DatasetOutput<AbstractValue< ? >>> getDatasetService() {
         return datasetService;
     }
 
+    /**
+     * @param parallelism
+     *        the maximum number of sub-requests the datasets of one data request are fetched with concurrently
+     *        (<code>0</code> or <code>1</code> fetches all datasets within one request). Sub-requests of all
+     *        requests share a pool of as many threads.
+     * @see ParallelDataService
+     */
+    @Value("${request.data.parallelism:0}")
+    public synchronized void setDataParallelism(int parallelism) {
+        LOGGER.debug("CONFIG: request.data.parallelism={}", parallelism);
+        shutdownDataExecutor();
+        if (parallelism > 1) {
+            dataExecutor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory("data-fetch-"));
+            ParallelDataService<Data<AbstractValue< ? >>> service = new ParallelDataService<>(dataService,
+                                                                                              dataExecutor);
+            service.setMaxParallelism(parallelism);
+            parallelDataService = service;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        shutdownDataExecutor();
+    }
+
+    private void shutdownDataExecutor() {
+        parallelDataService = null;
+        if (dataExecutor != null) {
+            dataExecutor.shutdownNow();
+            dataExecutor = null;
+        }
+    }
+
+    private DataService<Data<AbstractValue< ? >>> getDataService() {
+        DataService<Data<AbstractValue< ? >>> parallel = parallelDataService;
+        return parallel != null
+                ? parallel
+                : dataService;
+    }
+
     @RequestMapping(value = "/{datasetId}/observations",
         produces = {
             Constants.APPLICATION_JSON
         },
         method = RequestMethod.GET)
-    public ModelAndView getSeriesData(HttpServletRequest request,
-                                      HttpServletResponse response,
-                                      @PathVariable String datasetId,
-                                      @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
-                                          required = false) String locale,
-                                      @RequestParam(required = false) MultiValueMap<String, String> query)
+    public Object getSeriesData(HttpServletRequest request,
+                                HttpServletResponse response,
+                                @PathVariable String datasetId,
+                                @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                                    required = false) String locale,
+                                @RequestParam(required = false) MultiValueMap<String, String> query)
             throws Exception {
-        IoParameters map = createParameters(datasetId, query, locale, response);
-        LOGGER.debug("get data for item '{}' with query: {}", datasetId, map);
-        checkAgainstTimespanRestriction(map.getTimespan());
-        checkForUnknownDatasetId(map.removeAllOf(Parameters.BBOX)
-                                    .removeAllOf(Parameters.NEAR),
-                                 datasetId);
-
-        // RequestSimpleIoParameters parameters = RequestSimpleIoParameters.createForSingleSeries(seriesId,
-        // map);
-        // String valueType = ValueType.extractType(datasetId, handleAsValueTypeFallback);
-        String valueType = getValueType(map, request.getRequestURI());
-        IoProcessChain< ? > ioChain = createIoFactory(valueType).setParameters(map)
-                                                                .createProcessChain();
-
-        DataCollection< ? > formattedDataCollection = ioChain.getProcessedData();
-        final Map<String, ? > processed = formattedDataCollection.getAllSeries();
-        return map.isExpanded()
-                ? new ModelAndView().addObject(processed)
-                : new ModelAndView().addObject(processed.get(datasetId));
+        return execute(() -> {
+            IoParameters map = createParameters(datasetId, query, locale, response);
+            LOGGER.debug("get data for item '{}' with query: {}", datasetId, map);
+            checkAgainstTimespanRestriction(map.getTimespan());
+            List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(map.removeAllOf(Parameters.BBOX)
+                                                                                  .removeAllOf(Parameters.NEAR),
+                                                                               datasetId);
+
+            // RequestSimpleIoParameters parameters = RequestSimpleIoParameters.createForSingleSeries(seriesId,
+            // map);
+            // String valueType = ValueType.extractType(datasetId, handleAsValueTypeFallback);
+            String valueType = getValueType(datasets.get(0), request.getRequestURI());
+            RequestTimings.current()
+                          .tag(StageTimer.TAG_OUTPUT_FORMAT, Constants.APPLICATION_JSON);
+            IoProcessChain< ? > ioChain = createIoFactory(valueType, datasets).setParameters(map)
+                                                                    .createProcessChain();
+
+            DataCollection< ? > formattedDataCollection = ioChain.getProcessedData();
+            final Map<String, ? > processed = formattedDataCollection.getAllSeries();
+            return map.isExpanded()
+                    ? new ModelAndView().addObject(processed)
+                    : new ModelAndView().addObject(processed.get(datasetId));
+        });
     }
 
     @RequestMapping(value = "/observations",
@@ -157,24 +220,28 @@ public abstract class DataController extends BaseController {
             Constants.APPLICATION_JSON
         },
         method = RequestMethod.POST)
-    public ModelAndView getCollectionData(HttpServletRequest request,
-                                          HttpServletResponse response,
-                                          @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
-                                              required = false) String locale,
-                                          @RequestBody RequestSimpleParameterSet simpleParameters)
+    public Object getCollectionData(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                                        required = false) String locale,
+                                    @RequestBody RequestSimpleParameterSet simpleParameters)
             throws Exception {
-        IoParameters parameters = createParameters(simpleParameters, locale, response);
-        LOGGER.debug("get data collection with parameter set: {}", parameters);
-        checkForUnknownDatasetIds(parameters, parameters.getDatasets());
-        checkAgainstTimespanRestriction(parameters.getTimespan());
-
-        // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
-        IoProcessChain< ? > ioChain = createIoFactory(valueType).setParameters(parameters)
-                                                                .createProcessChain();
-
-        DataCollection< ? > processed = ioChain.getData();
-        return new ModelAndView().addObject(processed.getAllSeries());
+        return execute(() -> {
+            IoParameters parameters = createParameters(simpleParameters, locale, response);
+            LOGGER.debug("get data collection with parameter set: {}", parameters);
+            checkAgainstTimespanRestriction(parameters.getTimespan());
+            List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, parameters.getDatasets());
+
+            // final String datasetType = getValueType(parameters);
+            final String valueType = getValueType(datasets.get(0), request.getRequestURI());
+            RequestTimings.current()
+                          .tag(StageTimer.TAG_OUTPUT_FORMAT, Constants.APPLICATION_JSON);
+            IoProcessChain< ? > ioChain = createIoFactory(valueType, datasets).setParameters(parameters)
+                                                                    .createProcessChain();
+
+            DataCollection< ? > processed = ioChain.getData();
+            return new ModelAndView().addObject(processed.getAllSeries());
+        });
     }
 
     // private String getValueType(IoParameters parameters) {
@@ -224,9 +291,9 @@ public abstract class DataController extends BaseController {
                     + "by the underlying service!");
         }
         final RawDataService rawDataService = dataService.getRawDataService();
-        try (InputStream inputStream = rawDataService.getRawData(parameters)) {
+        try {
             response.setContentType(parameters.getRawFormat());
-            IOUtils.copyLarge(inputStream, response.getOutputStream());
+            getRawDataWriter().write(rawDataService.getRawDataChannel(parameters), response);
         } catch (IOException e) {
             throw new InternalServerException("Error while querying raw data", e);
         }
@@ -245,16 +312,14 @@ public abstract class DataController extends BaseController {
             throws Exception {
         IoParameters parameters = createParameters(simpleParameters, locale, response);
         LOGGER.debug("get data collection report with query: {}", parameters);
-        checkForUnknownDatasetIds(parameters, parameters.getDatasets());
         checkAgainstTimespanRestriction(parameters.getTimespan());
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, parameters.getDatasets());
 
         // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
+        final String valueType = getValueType(datasets.get(0), request.getRequestURI());
         String outputFormat = Constants.APPLICATION_PDF;
         response.setContentType(outputFormat);
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(outputFormat)
-                                  .writeBinary(response.getOutputStream());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters), outputFormat, response);
     }
 
     @RequestMapping(value = "/{datasetId}/observations",
@@ -272,18 +337,16 @@ public abstract class DataController extends BaseController {
         IoParameters parameters = createParameters(datasetId, query, locale, response);
         LOGGER.debug("get data collection report for '{}' with query: {}", datasetId, parameters);
         checkAgainstTimespanRestriction(parameters.getTimespan());
-        checkForUnknownDatasetId(parameters, datasetId);
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, datasetId);
 
         // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
+        final String valueType = getValueType(datasets.get(0), request.getRequestURI());
         String outputFormat = Constants.APPLICATION_PDF;
         response.setContentType(outputFormat);
         response.setHeader(CONTENT_DISPOSITION_HEADER,
                 CONTENT_DISPOSITION_VALUE_TEMPLATE + validateResponseSplitting(datasetId) + ".pdf\"");
 
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(outputFormat)
-                                  .writeBinary(response.getOutputStream());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters), outputFormat, response);
     }
 
     @RequestMapping(value = "/{datasetId}/observations",
@@ -304,7 +367,7 @@ public abstract class DataController extends BaseController {
         IoParameters parameters = createParameters(datasetId, query, locale, response);
         LOGGER.debug("get data collection zip for '{}' with query: {}", datasetId, parameters);
         checkAgainstTimespanRestriction(parameters.getTimespan());
-        checkForUnknownDatasetId(parameters, datasetId);
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, datasetId);
 
         response.setCharacterEncoding(DEFAULT_RESPONSE_ENCODING);
         response.setContentType(Constants.APPLICATION_ZIP);
@@ -312,10 +375,10 @@ public abstract class DataController extends BaseController {
                 CONTENT_DISPOSITION_VALUE_TEMPLATE + validateResponseSplitting(datasetId) + ".zip\"");
 
         // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(Constants.APPLICATION_ZIP)
-                                  .writeBinary(response.getOutputStream());
+        final String valueType = getValueType(datasets.get(0), request.getRequestURI());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters),
+                    Constants.APPLICATION_ZIP,
+                    response);
     }
 
     @RequestMapping(value = "/{datasetId}/observations",
@@ -333,7 +396,7 @@ public abstract class DataController extends BaseController {
         IoParameters parameters = createParameters(datasetId, query, locale, response);
         LOGGER.debug("get data collection csv for '{}' with query: {}", datasetId, parameters);
         checkAgainstTimespanRestriction(parameters.getTimespan());
-        checkForUnknownDatasetId(parameters, datasetId);
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, datasetId);
 
         String extension = ".";
         response.setCharacterEncoding(DEFAULT_RESPONSE_ENCODING);
@@ -351,13 +414,79 @@ public abstract class DataController extends BaseController {
                                    + "\"");
 
         // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(Constants.TEXT_CSV)
-                                  .writeBinary(response.getOutputStream());
+        final String valueType = getValueType(datasets.get(0), request.getRequestURI());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters),
+                    Constants.TEXT_CSV,
+                    response);
+    }
+
+    /**
+     * Creates the output via an {@link org.n52.io.handler.IoHandler} and writes it directly to the response.
+     * Encoding and writing is timed as {@link StageTimer#SERIALIZE serialize} stage, the number of bytes written
+     * is added to the request's timer.
+     *
+     * @param ioFactory
+     *        the factory set up for the request
+     * @param outputFormat
+     *        the mime type of the output
+     * @param response
+     *        the response to write to
+     * @throws IoHandlerException
+     *         if creating or writing the output fails
+     * @throws IOException
+     *         if the response's output stream cannot be obtained
+     */
+    protected void writeOutput(IoHandlerFactory<DatasetOutput<AbstractValue< ? >>, AbstractValue< ? >> ioFactory,
+                               String outputFormat,
+                               HttpServletResponse response)
+            throws IoHandlerException, IOException {
+        StageTimer timer = RequestTimings.current()
+                                         .tag(StageTimer.TAG_OUTPUT_FORMAT, outputFormat);
+        // handlers may fetch metadata on creation
+        IoHandler<Data<AbstractValue< ? >>> handler = timer.time(StageTimer.FETCH,
+                                                                 () -> ioFactory.createHandler(outputFormat));
+        try (StageTimer.Stage stage = timer.start(StageTimer.SERIALIZE)) {
+            handler.writeBinary(new ServerTimingOutputStream(response.getOutputStream(),
+                                                             response,
+                                                             timer,
+                                                             RequestCancellation.current()));
+        }
+    }
+
+    @Override
+    protected IoParameters createParameters(RequestSimpleParameterSet query,
+                                            String locale,
+                                            HttpServletResponse response) {
+        return RequestTimings.current()
+                             .time(StageTimer.PARSE, () -> super.createParameters(query, locale, response));
+    }
+
+    @Override
+    protected IoParameters createParameters(RequestStyledParameterSet query,
+                                            String locale,
+                                            HttpServletResponse response) {
+        return RequestTimings.current()
+                             .time(StageTimer.PARSE, () -> super.createParameters(query, locale, response));
+    }
+
+    @Override
+    protected IoParameters createParameters(String datasetId,
+                                            MultiValueMap<String, String> query,
+                                            String locale,
+                                            HttpServletResponse response) {
+        return RequestTimings.current()
+                             .time(StageTimer.PARSE,
+                                   () -> super.createParameters(datasetId, query, locale, response));
     }
 
     protected void checkAgainstTimespanRestriction(IntervalWithTimeZone timespan) {
+        try (StageTimer.Stage stage = RequestTimings.current()
+                                                    .start(StageTimer.PARSE)) {
+            assertTimespanRestriction(timespan);
+        }
+    }
+
+    private void assertTimespanRestriction(IntervalWithTimeZone timespan) {
         if (requestIntervalRestriction != null) {
             Duration duration = Period.parse(requestIntervalRestriction)
                                       .toDurationFrom(new DateTime());
@@ -375,13 +504,71 @@ public abstract class DataController extends BaseController {
     }
 
     protected void checkForUnknownDatasetIds(IoParameters parameters, Set<String> seriesIds) {
-        if (seriesIds != null) {
-            for (String id : seriesIds) {
-                if (!datasetService.exists(id, parameters)) {
-                    throw new ResourceNotFoundException("Series with id '" + id + "' wasn't found.");
-                }
-            }
+        if (seriesIds != null && !seriesIds.isEmpty()) {
+            // resolved by the same bulk lookup as for data requests
+            resolveDatasets(parameters, seriesIds);
+        }
+    }
+
+    protected List<DatasetOutput<AbstractValue< ? >>> resolveDatasets(IoParameters parameters, String datasetId) {
+        return resolveDatasets(parameters, Collections.singleton(datasetId));
+    }
+
+    /**
+     * Checks that all requested datasets exist and resolves their metadata within one (unpaged) query. The
+     * resolved datasets are meant to be passed to {@link #createIoFactory(String, List)}, so that the metadata
+     * is not queried again when processing the request.
+     *
+     * @param parameters
+     *        the request parameters (filtering the requested datasets).
+     * @param datasetIds
+     *        the ids of the requested datasets.
+     * @return the requested datasets, the first one used to determine the value type.
+     * @throws ResourceNotFoundException
+     *         if one of the requested datasets does not exist.
+     */
+    protected List<DatasetOutput<AbstractValue< ? >>> resolveDatasets(IoParameters parameters,
+                                                                     Set<String> datasetIds) {
+        return RequestTimings.current()
+                             .time(StageTimer.EXISTS, () -> doResolveDatasets(parameters, datasetIds));
+    }
+
+    private List<DatasetOutput<AbstractValue< ? >>> doResolveDatasets(IoParameters parameters,
+                                                                     Set<String> datasetIds) {
+        if (datasetIds == null || datasetIds.isEmpty()) {
+            throw new ResourceNotFoundException("No dataset found for the given parameters.");
         }
+        // paging applies to collections, not to the datasets requested by id
+        IoParameters lookup = parameters.removeAllOf(Parameters.LIMIT)
+                                        .removeAllOf(Parameters.OFFSET)
+                                        .removeAllOf(Parameters.CURSOR);
+        List<DatasetOutput<AbstractValue< ? >>> datasets =
+                datasetService.getParameters(datasetIds.toArray(new String[0]), lookup)
+                              .getItems();
+        Set<String> unresolved = new LinkedHashSet<>(datasetIds);
+        datasets.forEach(dataset -> unresolved.remove(dataset.getId()));
+        if (!unresolved.isEmpty()) {
+            // unknown ids are ignored by the service
+            String id = unresolved.iterator()
+                                  .next();
+            throw new ResourceNotFoundException("Series with id '" + id + "' wasn't found.");
+        }
+        return datasets;
+    }
+
+    /**
+     * @param valueType
+     *        the value type of the requested datasets.
+     * @param datasets
+     *        the resolved metadata of the requested datasets (see {@link #resolveDatasets(IoParameters, Set)}).
+     * @return a factory reusing the given metadata instead of querying it again.
+     * @throws DatasetFactoryException
+     *         if no factory is available for the value type.
+     */
+    protected IoHandlerFactory<DatasetOutput<AbstractValue< ? >>, AbstractValue< ? >> createIoFactory(
+            String valueType,
+            List<DatasetOutput<AbstractValue< ? >>> datasets) throws DatasetFactoryException {
+        return createIoFactory(valueType).setMetadatas(datasets);
     }
 
     @SuppressWarnings("checkstyle:linelength")
@@ -390,9 +577,12 @@ public abstract class DataController extends BaseController {
         if (!ioFactoryCreator.isKnown(valueType)) {
             throw new ResourceNotFoundException("unknown dataset type: " + valueType);
         }
+        StageTimer timer = RequestTimings.current()
+                                         .tag(StageTimer.TAG_VALUE_TYPE, valueType);
         return ioFactoryCreator.create(valueType)
-                               .setDataService(dataService)
-                               .setDatasetService(datasetService);
+                               .setDataService(getDataService())
+                               .setDatasetService(datasetService)
+                               .setStageTimer(timer);
     }
 
     @Override
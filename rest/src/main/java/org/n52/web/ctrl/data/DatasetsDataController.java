@@ -29,7 +29,6 @@
 package org.n52.web.ctrl.data;
 
 import org.n52.io.handler.DefaultIoFactory;
-import org.n52.io.request.IoParameters;
 import org.n52.io.response.dataset.AbstractValue;
 import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DatasetOutput;
@@ -54,8 +53,7 @@ public class DatasetsDataController extends DataController {
     }
 
     @Override
-    protected String getValueType(IoParameters map, String requestUrl) {
-        DatasetOutput<AbstractValue<?>> item = getFirstDatasetOutput(map);
+    protected String getValueType(DatasetOutput<AbstractValue<?>> item, String requestUrl) {
         return isProfileType(item)
                 ? PROFILE
                 : item.getValueType();
@@ -31,7 +31,6 @@ package org.n52.web.ctrl.data;
 import java.text.MessageFormat;
 
 import org.n52.io.handler.DefaultIoFactory;
-import org.n52.io.request.IoParameters;
 import org.n52.io.response.dataset.AbstractValue;
 import org.n52.io.response.dataset.Data;
 import org.n52.io.response.dataset.DatasetOutput;
@@ -57,8 +56,7 @@ public class ProfilesDataController extends DataController {
     }
 
     @Override
-    protected String getValueType(IoParameters map, String requestUrl) {
-        DatasetOutput<AbstractValue< ? >> item = getFirstDatasetOutput(map);
+    protected String getValueType(DatasetOutput<AbstractValue< ? >> item, String requestUrl) {
         String observationType = item.getObservationType();
         if (!"profile".equalsIgnoreCase(observationType)) {
             String expectedType = UrlSettings.COLLECTION_PROFILES;
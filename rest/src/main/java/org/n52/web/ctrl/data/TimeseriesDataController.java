@@ -29,6 +29,7 @@
 package org.n52.web.ctrl.data;
 
 import java.text.MessageFormat;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -89,15 +90,13 @@ public class TimeseriesDataController extends DataController {
             throws Exception {
         IoParameters parameters = createParameters(simpleParameters, locale, response);
         LOGGER.debug("get data collection chart with query: {}", parameters);
-        checkForUnknownDatasetIds(parameters, parameters.getDatasets());
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, parameters.getDatasets());
 
         // final String datasetType = getValueType(parameters);
-        final String valueType = getValueType(parameters, request.getRequestURI());
+        final String valueType = getValueType(datasets.get(0), request.getRequestURI());
         String outputFormat = Constants.IMAGE_PNG;
         response.setContentType(outputFormat);
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(outputFormat)
-                                  .writeBinary(response.getOutputStream());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters), outputFormat, response);
     }
 
     @RequestMapping(value = "/{datasetId}/observations",
@@ -115,16 +114,14 @@ public class TimeseriesDataController extends DataController {
         IoParameters parameters = createParameters(datasetId, query, locale, response);
         LOGGER.debug("get data collection chart for '{}' with query: {}", datasetId, parameters);
         checkAgainstTimespanRestriction(parameters.getTimespan());
-        checkForUnknownDatasetId(parameters, datasetId);
+        List<DatasetOutput<AbstractValue< ? >>> datasets = resolveDatasets(parameters, datasetId);
 
         // String handleAsValueTypeFallback = parameters.getAsString(Parameters.HANDLE_AS_VALUE_TYPE);
         // String valueType = ValueType.extractType(datasetId, handleAsValueTypeFallback);
-        String valueType = getValueType(parameters, request.getRequestURI());
+        String valueType = getValueType(datasets.get(0), request.getRequestURI());
         String outputFormat = Constants.IMAGE_PNG;
         response.setContentType(outputFormat);
-        createIoFactory(valueType).setParameters(parameters)
-                                  .createHandler(outputFormat)
-                                  .writeBinary(response.getOutputStream());
+        writeOutput(createIoFactory(valueType, datasets).setParameters(parameters), outputFormat, response);
     }
 
     @RequestMapping(value = "/{datasetId}/images", method = RequestMethod.GET)
@@ -166,20 +163,19 @@ public class TimeseriesDataController extends DataController {
     @RequestMapping(value = "/{datasetId}/getData", produces = {
         Constants.APPLICATION_JSON
     }, method = RequestMethod.GET)
-    public ModelAndView getTimeseriesData(HttpServletRequest request,
-                                          HttpServletResponse response,
-                                          @PathVariable String datasetId,
-                                          @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
-                                              required = false) String locale,
-                                          @RequestParam(required = false) MultiValueMap<String, String> query)
+    public Object getTimeseriesData(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    @PathVariable String datasetId,
+                                    @RequestHeader(value = Parameters.HttpHeader.ACCEPT_LANGUAGE,
+                                        required = false) String locale,
+                                    @RequestParam(required = false) MultiValueMap<String, String> query)
             throws Exception {
         query.add(Parameters.UNIX_TIME, "true");
         return getSeriesData(request, response, datasetId, locale, query);
     }
 
     @Override
-    protected String getValueType(IoParameters map, String requestUrl) {
-        DatasetOutput<AbstractValue< ? >> item = getFirstDatasetOutput(map);
+    protected String getValueType(DatasetOutput<AbstractValue< ? >> item, String requestUrl) {
         String datasetType = item.getDatasetType();
         if (!"timeseries".equalsIgnoreCase(datasetType)) {
             String expectedType = UrlSettings.COLLECTION_TIMESERIES;
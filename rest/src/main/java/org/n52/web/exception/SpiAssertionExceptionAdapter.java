@@ -29,6 +29,7 @@
 package org.n52.web.exception;
 
 import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 
 import org.n52.io.request.IoParameters;
 import org.n52.io.response.OutputCollection;
@@ -107,6 +108,24 @@ public class SpiAssertionExceptionAdapter<T extends ParameterOutput> extends Par
         return null;
     }
 
+    @Override
+    public ReadableByteChannel getRawDataChannel(String id, IoParameters query) {
+        if (composedService.supportsRawData()) {
+            return composedService.getRawDataService()
+                                  .getRawDataChannel(id, query);
+        }
+        return null;
+    }
+
+    @Override
+    public ReadableByteChannel getRawDataChannel(IoParameters parameters) {
+        if (composedService.supportsRawData()) {
+            return composedService.getRawDataService()
+                                  .getRawDataChannel(parameters);
+        }
+        return null;
+    }
+
     @Override
     public RawDataService getRawDataService() {
         return composedService.getRawDataService();
@@ -117,6 +136,11 @@ public class SpiAssertionExceptionAdapter<T extends ParameterOutput> extends Par
         return composedService.supportsRawData();
     }
 
+    @Override
+    public boolean supportsCursor() {
+        return composedService.supportsCursor();
+    }
+
     private void assertValidSpiImplementation(OutputCollection<T> parameters) throws InternalServerException {
         if (parameters == null) {
             throw new InternalServerException("SPI implementation did return null value!");
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.extension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConfigFileWatcherTest {
+
+    private static final String THREAD_NAME = "config-file-watcher";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    public void when_destroyed_then_watchingThreadEnds() throws IOException {
+        ConfigFileWatcher watcher = new ConfigFileWatcher();
+        watcher.register(Files.createFile(folder.resolve("config.json")), () -> {});
+        assertThat(isWatching(), is(true));
+        watcher.destroy();
+        assertThat(isWatching(), is(false));
+    }
+
+    @Test
+    public void when_destroyed_then_rejectRegistration() {
+        ConfigFileWatcher watcher = new ConfigFileWatcher();
+        watcher.destroy();
+        assertThrows(IllegalStateException.class, () -> watcher.register(folder.resolve("config.json"), () -> {}));
+    }
+
+    private boolean isWatching() {
+        return Thread.getAllStackTraces()
+                     .keySet()
+                     .stream()
+                     .anyMatch(thread -> THREAD_NAME.equals(thread.getName()) && thread.isAlive());
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.extension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.ParameterOutput;
+import org.n52.io.response.StatusInterval;
+import org.n52.io.response.dataset.DatasetOutput;
+import org.n52.io.response.dataset.DatasetParameters;
+
+public class StatusIntervalsExtensionTest {
+
+    private static final String CONFIG = "{"
+            + "\"datasetIntervals\": {\"ds_1\": {\"statusIntervals\": {"
+            + "  \"low\": {\"lower\": 0.0, \"upper\": 10.0, \"color\": \"#00FF00\"},"
+            + "  \"high\": {\"lower\": 10.0, \"upper\": 20.0, \"color\": \"#FF0000\"}}}},"
+            + "\"phenomenonIntervals\": {\"phe_1\": {\"statusIntervals\": {"
+            + "  \"any\": {\"lower\": 0.0, \"upper\": 100.0, \"color\": \"#0000FF\"}}}}"
+            + "}";
+
+    @Test
+    public void when_compiled_then_intervalsAreNamed() throws IOException {
+        ExtensionLookup<Collection<StatusInterval>> lookup = compile();
+        Collection<StatusInterval> intervals = lookup.find(createDataset("ds_1", null));
+        assertThat(getNames(intervals), containsInAnyOrder("low", "high"));
+    }
+
+    @Test
+    public void when_datasetNotConfigured_then_lookupPhenomenon() throws IOException {
+        ExtensionLookup<Collection<StatusInterval>> lookup = compile();
+        assertThat(getNames(lookup.find(createDataset("ds_2", "phe_1"))), contains("any"));
+        assertThat(lookup.find(createDataset("ds_2", "phe_2")), is(nullValue()));
+        assertThat(lookup.find(createDataset("ds_2", null)), is(nullValue()));
+    }
+
+    @Test
+    public void when_batchResolvingFieldNames_then_matchSingleResolution() {
+        StatusIntervalsExtension<DatasetOutput< ? >> extension = new StatusIntervalsExtension<>();
+        List<DatasetOutput< ? >> outputs = Arrays.asList(createDataset("unknown", null));
+        List<Collection<String>> fieldNames = extension.getAllExtraMetadataFieldNames(outputs);
+        assertThat(fieldNames.get(0), is(empty()));
+        assertThat(extension.getExtraMetadataFieldNames(outputs.get(0)), is(empty()));
+    }
+
+    private ExtensionLookup<Collection<StatusInterval>> compile() throws IOException {
+        byte[] config = CONFIG.getBytes(StandardCharsets.UTF_8);
+        return StatusIntervalsExtension.compile(new ByteArrayInputStream(config));
+    }
+
+    private List<String> getNames(Collection<StatusInterval> intervals) {
+        return intervals.stream()
+                        .map(StatusInterval::getName)
+                        .collect(Collectors.toList());
+    }
+
+    private DatasetOutput< ? > createDataset(String id, String phenomenonId) {
+        DatasetOutput< ? > dataset = new DatasetOutput<>();
+        dataset.setId(id);
+        if (phenomenonId != null) {
+            ParameterOutput phenomenon = new ParameterOutput() {};
+            phenomenon.setId(phenomenonId);
+            DatasetParameters parameters = new DatasetParameters();
+            parameters.setPhenomenon(phenomenon);
+            dataset.setDatasetParameters(OptionalOutput.of(parameters));
+        }
+        return dataset;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.n52.web.exception.BadRequestException;
+
+public class AsyncRequestExecutorTest {
+
+    private final AsyncRequestExecutor executor = new AsyncRequestExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void when_disabled_then_executedInline() throws Exception {
+        Thread caller = Thread.currentThread();
+        assertThat((boolean) executor.execute(() -> Thread.currentThread() == caller), is(true));
+    }
+
+    @Test
+    public void when_noRequestBound_then_executedInline() {
+        executor.setEnabled(true);
+        Thread caller = Thread.currentThread();
+        assertThat((boolean) executor.supply(() -> Thread.currentThread() == caller), is(true));
+    }
+
+    @Test
+    public void when_executedInline_then_exceptionsPassedThrough() {
+        executor.setEnabled(true);
+        BadRequestException e = assertThrows(BadRequestException.class, () -> executor.supply(() -> {
+            throw new BadRequestException("invalid");
+        }));
+        assertThat(e.getMessage(), is("invalid"));
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ExpiringCacheTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void when_concurrentlyLoadingSameKey_then_loadOnce() throws Exception {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, TimeUnit.MINUTES);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("key", k -> {
+                        sleep(100);
+                        return loads.incrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(), is(1));
+            }
+            assertThat(loads.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void when_loaderFails_then_exceptionNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, TimeUnit.MINUTES);
+        assertThrows(IllegalStateException.class, () -> cache.get("key", k -> {
+            throw new IllegalStateException("failed");
+        }));
+        assertThat(cache.get("key", k -> 42), is(42));
+    }
+
+    @Test
+    public void when_loaderReturnsNull_then_nullNotCached() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(1, TimeUnit.MINUTES);
+        assertThat(cache.get("key", k -> null), is(nullValue()));
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("key", k -> 42), is(42));
+    }
+
+    @Test
+    public void when_entryExpired_then_reload() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(50, TimeUnit.MILLISECONDS);
+        assertThat(cache.get("key", k -> 1), is(1));
+        assertThat(cache.get("key", k -> 2), is(1));
+        sleep(100);
+        assertThat(cache.get("key", k -> 3), is(3));
+    }
+
+    @Test
+    public void when_ttlIsZero_then_alwaysLoad() {
+        ExpiringCache<String, Integer> cache = new ExpiringCache<>(0, TimeUnit.SECONDS);
+        assertThat(cache.get("key", k -> 1), is(1));
+        assertThat(cache.get("key", k -> 2), is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Optional;
+
+import org.hamcrest.core.Is;
+import org.junit.jupiter.api.Test;
+import org.n52.io.request.KeysetCursor;
+
+public class KeysetPaginationTest {
+
+    @Test
+    public void withoutNextCursorThenNoNextPage() {
+        KeysetPagination pagination = new KeysetPagination(new KeysetCursor("a", "1"), 20);
+        assertFalse(pagination.next(-1).isPresent());
+    }
+
+    @Test
+    public void withNextCursorThenNextPageDetermined() {
+        KeysetCursor next = new KeysetCursor("b", "2");
+        KeysetPagination pagination = new KeysetPagination(null, 20, next);
+        Optional<Pagination> nextPage = pagination.next(-1);
+        assertThat(nextPage.get().toString(), Is.is("cursor=" + next.encode() + "&limit=20"));
+    }
+
+    @Test
+    public void firstPageHasEmptyCursor() {
+        KeysetPagination pagination = new KeysetPagination(new KeysetCursor("a", "1"), 20);
+        assertThat(pagination.first(-1).get().toString(), Is.is("cursor=&limit=20"));
+        assertFalse(pagination.previous(-1).isPresent());
+        assertFalse(pagination.last(-1).isPresent());
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.n52.web.exception.ResourceNotFoundException;
+
+public class RawDataWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void when_streamChannelLargerThanBuffer_then_allBytesCopied() throws IOException {
+        byte[] content = randomBytes(200 * 1024 + 17);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(content))) {
+            RawDataWriter.copy(channel, output);
+        }
+        assertThat(output.toByteArray(), is(content));
+    }
+
+    @Test
+    public void when_fileChannel_then_allBytesTransferred() throws IOException {
+        byte[] content = randomBytes(100 * 1024 + 3);
+        Path file = Files.write(tempDir.resolve("raw.xml"), content);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (FileChannel channel = FileChannel.open(file)) {
+            RawDataWriter.copy(channel, output);
+        }
+        assertThat(output.toByteArray(), is(content));
+    }
+
+    @Test
+    public void when_emptyChannel_then_nothingWritten() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(new byte[0]))) {
+            RawDataWriter.copy(channel, output);
+        }
+        assertThat(output.size(), is(0));
+    }
+
+    @Test
+    public void when_writingAsync_then_channelReadOffContainerThread() throws Exception {
+        byte[] content = randomBytes(200 * 1024 + 5);
+        Set<String> readingThreads = ConcurrentHashMap.newKeySet();
+        ReadableByteChannel source = Channels.newChannel(new ByteArrayInputStream(content));
+        ReadableByteChannel channel = new ReadableByteChannel() {
+
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                readingThreads.add(Thread.currentThread()
+                                         .getName());
+                return source.read(dst);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return source.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
+            }
+        };
+        CountDownLatch completed = new CountDownLatch(1);
+        AsyncContext context = (AsyncContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                                                                     new Class< ? >[] {AsyncContext.class},
+                                                                     (proxy, method, args) -> {
+                                                                         if ("complete".equals(method.getName())) {
+                                                                             completed.countDown();
+                                                                         }
+                                                                         return null;
+                                                                     });
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ReadyOutputStream servletOutput = new ReadyOutputStream(output);
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "raw-data-read-test"));
+        try {
+            new RawDataWriter.ChannelWriteListener(channel, context, servletOutput, executor).onWritePossible();
+
+            assertThat(completed.await(10, TimeUnit.SECONDS), is(true));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(output.toByteArray(), is(content));
+        assertThat(channel.isOpen(), is(false));
+        assertThat(readingThreads.stream()
+                                 .allMatch(name -> name.startsWith("raw-data-read-")),
+                   is(true));
+        // the 8 KB chunks of the stream channel are collected into buffers of 64 KB
+        assertThat(servletOutput.getWrites(), is(4));
+    }
+
+    @Test
+    public void when_writingNullChannel_then_notFound() {
+        assertThrows(ResourceNotFoundException.class, () -> new RawDataWriter().write(null, null));
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static final class ReadyOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream output;
+
+        private int writes;
+
+        ReadyOutputStream(ByteArrayOutputStream output) {
+            this.output = output;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            // always ready
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            output.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writes++;
+            output.write(b, off, len);
+        }
+
+        synchronized int getWrites() {
+            return writes;
+        }
+    }
+
+}
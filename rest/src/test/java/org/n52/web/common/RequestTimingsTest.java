@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+
+import org.junit.jupiter.api.Test;
+import org.n52.io.StageTimer;
+
+public class RequestTimingsTest {
+
+    @Test
+    public void when_noStageFinished_then_emptyServerTiming() {
+        assertThat(RequestTimings.toServerTiming(new StageTimer()), is(""));
+    }
+
+    @Test
+    public void when_stagesFinished_then_serverTimingListsStagesInOrder() {
+        StageTimer timer = new StageTimer();
+        timer.start(StageTimer.PARSE).close();
+        timer.start(StageTimer.FETCH).close();
+        assertThat(RequestTimings.toServerTiming(timer),
+                   matchesPattern("parse;dur=\\d+\\.\\d{3}, fetch;dur=\\d+\\.\\d{3}"));
+    }
+
+    @Test
+    public void when_noRequestBound_then_detachedTimer() {
+        StageTimer timer = RequestTimings.current();
+        timer.start(StageTimer.PARSE).close();
+        assertThat(RequestTimings.current().getDurations().isEmpty(), is(true));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.common;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.n52.io.StageTimer;
+
+public class SlowRequestSamplerTest {
+
+    private SlowRequestSampler sampler;
+
+    @BeforeEach
+    public void setUp() {
+        sampler = new SlowRequestSampler();
+        sampler.setEnabled(true);
+        sampler.setCapacity(2);
+        sampler.setThreshold(100);
+    }
+
+    @Test
+    public void when_disabled_then_noRequestSampled() {
+        sampler.setEnabled(false);
+        assertThat(sampler.isSampled(TimeUnit.SECONDS.toNanos(10)), is(false));
+    }
+
+    @Test
+    public void when_fasterThanThreshold_then_notSampled() {
+        assertThat(sampler.isSampled(TimeUnit.MILLISECONDS.toNanos(99)), is(false));
+        assertThat(sampler.isSampled(TimeUnit.MILLISECONDS.toNanos(100)), is(true));
+    }
+
+    @Test
+    public void when_full_then_keepSlowestFirst() {
+        sampler.offer(createSample("a", 200));
+        sampler.offer(createSample("b", 400));
+        sampler.offer(createSample("c", 300));
+        assertThat(sampler.offer(createSample("d", 150)), is(false));
+        assertThat(sampler.getSamples()
+                          .stream()
+                          .map(SlowRequestSample::getEndpoint)
+                          .collect(Collectors.toList()),
+                   contains("b", "c"));
+    }
+
+    @Test
+    public void when_sampleExpired_then_replacedFirst() {
+        long outdated = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        sampler.offer(createSample("a", 500));
+        sampler.offer(createSample("old", 900, outdated));
+        assertThat(sampler.offer(createSample("b", 200)), is(true));
+        assertThat(sampler.getSamples()
+                          .stream()
+                          .map(SlowRequestSample::getEndpoint)
+                          .collect(Collectors.toList()),
+                   contains("a", "b"));
+    }
+
+    private static SlowRequestSample createSample(String endpoint, long millis) {
+        return createSample(endpoint, millis, System.currentTimeMillis());
+    }
+
+    private static SlowRequestSample createSample(String endpoint, long millis, long timestamp) {
+        return SlowRequestSample.builder(new StageTimer())
+                                .withTimestamp(timestamp)
+                                .withEndpoint(endpoint)
+                                .withDuration(TimeUnit.MILLISECONDS.toNanos(millis))
+                                .build();
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.n52.io.Constants;
+import org.n52.web.common.AsyncRequestExecutor;
+import org.n52.web.common.RequestTimingInterceptor;
+import org.n52.web.common.SlowRequestSample;
+import org.n52.web.common.SlowRequestSampler;
+import org.n52.web.ctrl.data.DatasetsDataController;
+import org.n52.web.load.InMemoryServices;
+import org.n52.web.load.SyntheticDatasets;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Runs requests with <code>request.async.enabled=true</code>.
+ */
+public class AsyncRequestTest {
+
+    private static final String TIMESPAN = "PT1H/2020-06-01T00:00:00Z";
+
+    private static final String ASYNC_THREAD_PREFIX = "helgoland-async-";
+
+    private final AsyncRequestExecutor executor = new AsyncRequestExecutor();
+
+    private final SlowRequestSampler sampler = new SlowRequestSampler();
+
+    private InMemoryServices services;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void setUp() {
+        executor.setEnabled(true);
+        services = new InMemoryServices(new SyntheticDatasets(10, 2, 60_000L));
+        PhenomenaParameterController phenomenaController = InMemoryMvc.createPhenomenaController(services);
+        phenomenaController.setAsyncRequestExecutor(executor);
+        DatasetsDataController dataController = InMemoryMvc.createDatasetsDataController(services);
+        dataController.setAsyncRequestExecutor(executor);
+        RequestTimingInterceptor timingInterceptor = new RequestTimingInterceptor();
+        timingInterceptor.setSlowRequestSampler(sampler);
+        mvc = InMemoryMvc.createWithInterceptors(new HandlerInterceptor[] {
+            timingInterceptor
+        }, phenomenaController, dataController);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void when_asyncEnabled_then_dataFetchedOnAsyncThread() throws Exception {
+        MvcResult result = mvc.perform(get("/datasets/ds_1/observations").param("timespan", TIMESPAN)
+                                                                        .accept(Constants.APPLICATION_JSON))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isOk());
+        Set<String> threads = services.getDataService().getFetchingThreads();
+        assertThat(threads.isEmpty(), is(false));
+        assertThat(threads, everyItem(startsWith(ASYNC_THREAD_PREFIX)));
+    }
+
+    @Test
+    public void when_asyncEnabled_then_collectionRendered() throws Exception {
+        MvcResult result = mvc.perform(get("/phenomena").accept(Constants.APPLICATION_JSON))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isOk())
+           .andExpect(content().string(containsString("phe_1")));
+    }
+
+    @Test
+    public void when_sampledAsyncRequest_then_allocationsCounted() throws Exception {
+        sampler.setEnabled(true);
+        sampler.setThreshold(0);
+        MvcResult result = mvc.perform(get("/datasets/ds_1/observations").param("timespan", TIMESPAN)
+                                                                        .accept(Constants.APPLICATION_JSON))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isOk());
+        List<SlowRequestSample> samples = sampler.getSamples();
+        assertThat(samples.size(), is(1));
+        assertThat(samples.get(0).getAllocatedBytes(), greaterThan(0L));
+    }
+
+    @Test
+    public void when_asyncEnabledAndDatasetMissing_then_notFound() throws Exception {
+        MvcResult result = mvc.perform(get("/datasets/ds_42/observations").param("timespan", TIMESPAN)
+                                                                         .accept(Constants.APPLICATION_JSON))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isNotFound())
+           .andExpect(content().string(containsString("ds_42")));
+    }
+
+    @Test
+    public void when_processingTimesOut_then_serviceUnavailable() throws Exception {
+        services.getDataService().setLatency(10_000L);
+        MvcResult result = mvc.perform(get("/datasets/ds_1/observations").param("timespan", TIMESPAN)
+                                                                        .accept(Constants.APPLICATION_JSON))
+                              .andExpect(request().asyncStarted())
+                              .andReturn();
+        // the container reports the timeout
+        MockAsyncContext context = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : context.getListeners()) {
+            listener.onTimeout(new AsyncEvent(context));
+        }
+        mvc.perform(asyncDispatch(result))
+           .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    public void when_streamingCsv_then_executedInline() throws Exception {
+        mvc.perform(get("/datasets/ds_1/observations").param("timespan", TIMESPAN)
+                                                     .accept(Constants.TEXT_CSV))
+           .andExpect(request().asyncNotStarted())
+           .andExpect(status().isOk());
+        Set<String> threads = services.getDataService().getFetchingThreads();
+        assertThat(threads.isEmpty(), is(false));
+        assertThat(threads, everyItem(not(startsWith(ASYNC_THREAD_PREFIX))));
+    }
+
+}
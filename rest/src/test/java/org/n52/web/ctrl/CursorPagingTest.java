@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.n52.web.load.InMemoryServices;
+import org.n52.web.load.SyntheticDatasets;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Pages through a collection via cursors against an in-memory service which does not support cursors but
+ * offset paging only.
+ */
+public class CursorPagingTest {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<[^?>]*\\?([^>]*)> rel=\"next\"");
+
+    private static final int PHENOMENA = 12;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void when_pagingWithCursorOnNonCursorService_then_walkAllPages() throws Exception {
+        InMemoryServices services = new InMemoryServices(new SyntheticDatasets(10, PHENOMENA, 60_000L));
+        MockMvc mvc = InMemoryMvc.create(InMemoryMvc.createPhenomenaController(services));
+        List<Integer> pageSizes = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        Optional<String> query = Optional.of("cursor=&limit=5");
+        while (query.isPresent()) {
+            MockHttpServletResponse response = mvc.perform(get(URI.create("/phenomena?" + query.get())))
+                                                  .andExpect(status().isOk())
+                                                  .andReturn()
+                                                  .getResponse();
+            List<String> page = readIds(response);
+            pageSizes.add(page.size());
+            ids.addAll(page);
+            query = getNextQuery(response);
+        }
+
+        assertThat(pageSizes, contains(5, 5, 2));
+        assertThat(ids, containsInAnyOrder(IntStream.range(0, PHENOMENA)
+                                                    .mapToObj(SyntheticDatasets::phenomenonId)
+                                                    .toArray(String[]::new)));
+    }
+
+    private List<String> readIds(MockHttpServletResponse response) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode item : mapper.readTree(response.getContentAsByteArray())) {
+            ids.add(item.get("id").asText());
+        }
+        return ids;
+    }
+
+    private Optional<String> getNextQuery(MockHttpServletResponse response) {
+        for (String link : response.getHeaders("Link")) {
+            Matcher matcher = NEXT_LINK.matcher(link);
+            if (matcher.find()) {
+                return Optional.of(matcher.group(1));
+            }
+        }
+        return Optional.empty();
+    }
+
+}
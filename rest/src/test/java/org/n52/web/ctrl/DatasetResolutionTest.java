@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.n52.io.Constants;
+import org.n52.web.load.InMemoryServices;
+import org.n52.web.load.SyntheticDatasets;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Checks how data controllers resolve the requested datasets.
+ */
+public class DatasetResolutionTest {
+
+    private static final String TIMESPAN = "PT1H/2020-06-01T00:00:00Z";
+
+    private InMemoryServices services;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void setUp() {
+        services = new InMemoryServices(new SyntheticDatasets(10, 2, 60_000L));
+        mvc = InMemoryMvc.create(InMemoryMvc.createDatasetsDataController(services));
+    }
+
+    @Test
+    public void when_requestingMissingDataset_then_notFound() throws Exception {
+        mvc.perform(get("/datasets/ds_42/observations").param("timespan", TIMESPAN)
+                                                      .accept(Constants.APPLICATION_JSON))
+           .andExpect(status().isNotFound())
+           .andExpect(content().string(containsString("ds_42")));
+    }
+
+    @Test
+    public void when_requestingPartiallyMissingDatasets_then_notFoundForMissingId() throws Exception {
+        mvc.perform(post("/datasets/observations").contentType(Constants.APPLICATION_JSON)
+                                                  .accept(Constants.APPLICATION_JSON)
+                                                  .content(createBody("ds_1", "ds_42")))
+           .andExpect(status().isNotFound())
+           .andExpect(content().string(containsString("ds_42")));
+    }
+
+    @Test
+    public void when_requestingExistingDatasets_then_resolvedWithinOneLookup() throws Exception {
+        mvc.perform(post("/datasets/observations").contentType(Constants.APPLICATION_JSON)
+                                                  .accept(Constants.APPLICATION_JSON)
+                                                  .content(createBody("ds_1", "ds_2")))
+           .andExpect(status().isOk())
+           .andExpect(content().string(containsString("ds_2")));
+        assertThat(services.getDatasetService().getLookupCount(), is(1));
+    }
+
+    @Test
+    public void when_requestingCsv_then_metadataNotQueriedAgain() throws Exception {
+        mvc.perform(get("/datasets/ds_1/observations").param("timespan", TIMESPAN)
+                                                     .accept(Constants.TEXT_CSV))
+           .andExpect(status().isOk());
+        assertThat(services.getDatasetService().getLookupCount(), is(1));
+    }
+
+    private static String createBody(String... datasetIds) {
+        return "{\"datasets\":[\"" + String.join("\",\"", datasetIds) + "\"],\"timespan\":\"" + TIMESPAN + "\"}";
+    }
+
+}
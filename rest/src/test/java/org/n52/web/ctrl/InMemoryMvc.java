@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import org.n52.io.handler.DefaultIoFactory;
+import org.n52.io.response.dataset.AbstractValue;
+import org.n52.io.response.dataset.DatasetOutput;
+import org.n52.series.spi.srv.ParameterService;
+import org.n52.web.common.MeteredJsonView;
+import org.n52.web.ctrl.data.DatasetsDataController;
+import org.n52.web.load.InMemoryServices;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Sets up controllers backed by {@link InMemoryServices} for {@link MockMvc} tests, rendering JSON like
+ * configured in <code>spring-view-config.xml</code>.
+ */
+final class InMemoryMvc {
+
+    private InMemoryMvc() {
+    }
+
+    static MockMvc create(Object... controllers) {
+        return createWithInterceptors(new HandlerInterceptor[0], controllers);
+    }
+
+    static MockMvc createWithInterceptors(HandlerInterceptor[] interceptors, Object... controllers) {
+        MeteredJsonView jsonView = new MeteredJsonView();
+        jsonView.setExtractValueFromSingleKeyModel(true);
+        jsonView.setObjectMapper(new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL));
+        return MockMvcBuilders.standaloneSetup(controllers)
+                              .addInterceptors(interceptors)
+                              .setSingleView(jsonView)
+                              .build();
+    }
+
+    static PhenomenaParameterController createPhenomenaController(InMemoryServices services) {
+        return new PhenomenaParameterController(services.getCountingService(), services.getPhenomenonService());
+    }
+
+    @SuppressWarnings({
+        "unchecked",
+        "rawtypes"
+    })
+    static DatasetsDataController createDatasetsDataController(InMemoryServices services) {
+        ParameterService<DatasetOutput<AbstractValue< ? >>> datasetService =
+                (ParameterService) services.getDatasetService();
+        return new DatasetsDataController(DefaultIoFactory.create(), datasetService, services.getDataService());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.ctrl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.n52.web.common.SlowRequestSampler;
+import org.n52.web.exception.ResourceNotFoundException;
+
+public class SlowRequestsControllerTest {
+
+    @Test
+    public void when_samplerDisabled_then_notFound() {
+        SlowRequestsController controller = new SlowRequestsController(new SlowRequestSampler());
+        controller.setEndpointEnabled(true);
+        assertThrows(ResourceNotFoundException.class, () -> controller.getSlowRequests());
+        assertThrows(ResourceNotFoundException.class, () -> controller.clearSlowRequests(null));
+    }
+
+    @Test
+    public void when_endpointDisabled_then_notFound() {
+        SlowRequestSampler sampler = new SlowRequestSampler();
+        sampler.setEnabled(true);
+        SlowRequestsController controller = new SlowRequestsController(sampler);
+        assertThrows(ResourceNotFoundException.class, () -> controller.getSlowRequests());
+        assertThrows(ResourceNotFoundException.class, () -> controller.clearSlowRequests(null));
+    }
+
+    @Test
+    public void when_samplerAndEndpointEnabled_then_listSamples() {
+        SlowRequestSampler sampler = new SlowRequestSampler();
+        sampler.setEnabled(true);
+        SlowRequestsController controller = new SlowRequestsController(sampler);
+        controller.setEndpointEnabled(true);
+        assertThat(controller.getSlowRequests(), notNullValue());
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import org.n52.io.handler.DefaultIoFactory;
+import org.n52.io.response.dataset.AbstractValue;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DatasetOutput;
+import org.n52.series.spi.srv.DataService;
+import org.n52.series.spi.srv.ParameterService;
+import org.n52.web.ctrl.DatasetController;
+import org.n52.web.ctrl.FeaturesParameterController;
+import org.n52.web.ctrl.PhenomenaParameterController;
+import org.n52.web.ctrl.PlatformsParameterController;
+import org.n52.web.ctrl.ResourcesController;
+import org.n52.web.ctrl.data.DatasetsDataController;
+import org.n52.web.ctrl.data.TimeseriesDataController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportResource;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+
+/**
+ * Wires the controllers exercised by the load tests with the {@link InMemoryServices} registered in the
+ * application context.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportResource("classpath:spring-view-config.xml")
+class InMemoryApiConfiguration {
+
+    @Bean
+    static PropertySourcesPlaceholderConfigurer placeholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    ResourcesController resourcesController(InMemoryServices services) {
+        return new ResourcesController(services.getCountingService());
+    }
+
+    @Bean
+    PhenomenaParameterController phenomenaController(InMemoryServices services) {
+        return new PhenomenaParameterController(services.getCountingService(), services.getPhenomenonService());
+    }
+
+    @Bean
+    FeaturesParameterController featuresController(InMemoryServices services) {
+        return new FeaturesParameterController(services.getCountingService(), services.getFeatureService());
+    }
+
+    @Bean
+    PlatformsParameterController platformsController(InMemoryServices services) {
+        return new PlatformsParameterController(services.getCountingService(), services.getPlatformService());
+    }
+
+    @Bean
+    @SuppressWarnings({
+        "unchecked",
+        "rawtypes"
+    })
+    DatasetController datasetController(InMemoryServices services) {
+        ParameterService<DatasetOutput< ? >> datasetService = (ParameterService) services.getDatasetService();
+        return new DatasetController(services.getCountingService(), datasetService);
+    }
+
+    @Bean
+    DatasetsDataController datasetsDataController(InMemoryServices services) {
+        return new DatasetsDataController(DefaultIoFactory.create(),
+                                          getDatasetService(services),
+                                          getDataService(services));
+    }
+
+    @Bean
+    TimeseriesDataController timeseriesDataController(InMemoryServices services) {
+        return new TimeseriesDataController(DefaultIoFactory.create(),
+                                            getDatasetService(services),
+                                            getDataService(services));
+    }
+
+    @SuppressWarnings({
+        "unchecked",
+        "rawtypes"
+    })
+    private static ParameterService<DatasetOutput<AbstractValue< ? >>> getDatasetService(InMemoryServices services) {
+        return (ParameterService) services.getDatasetService();
+    }
+
+    private static DataService<Data<AbstractValue< ? >>> getDataService(InMemoryServices services) {
+        return services.getDataService();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Runs the API on an embedded Tomcat listening on an ephemeral local port. Controllers are backed by
+ * {@link InMemoryServices}, so no database or upstream service is needed.
+ */
+final class InMemoryApiServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryApiServer.class);
+
+    private static final String SERVLET_NAME = "api";
+
+    private final Tomcat tomcat;
+
+    private final Path baseDir;
+
+    private final String baseUrl;
+
+    private InMemoryApiServer(Tomcat tomcat, Path baseDir, String baseUrl) {
+        this.tomcat = tomcat;
+        this.baseDir = baseDir;
+        this.baseUrl = baseUrl;
+    }
+
+    static InMemoryApiServer start(InMemoryServices services) throws IOException, LifecycleException {
+        AnnotationConfigWebApplicationContext appContext = new AnnotationConfigWebApplicationContext();
+        appContext.addBeanFactoryPostProcessor(bf -> bf.registerSingleton("inMemoryServices", services));
+        appContext.register(InMemoryApiConfiguration.class);
+
+        Path baseDir = Files.createTempDirectory("helgoland-load");
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        tomcat.setPort(0);
+
+        Context context = tomcat.addContext("", baseDir.toString());
+        Wrapper servlet = Tomcat.addServlet(context, SERVLET_NAME, new DispatcherServlet(appContext));
+        servlet.setLoadOnStartup(1);
+        servlet.setAsyncSupported(true);
+        context.addServletMappingDecoded("/api/*", SERVLET_NAME);
+
+        tomcat.getConnector();
+        tomcat.start();
+        int port = tomcat.getConnector().getLocalPort();
+        String baseUrl = "http://localhost:" + port + "/api";
+        LOGGER.debug("in-memory API listening on {}", baseUrl);
+        return new InMemoryApiServer(tomcat, baseDir, baseUrl);
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws LifecycleException, IOException {
+        tomcat.stop();
+        tomcat.destroy();
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            // children before their parent directories
+            for (Path path : paths.sorted(Comparator.reverseOrder())
+                                  .collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import org.n52.io.request.IoParameters;
+import org.n52.series.spi.srv.CountingMetadataService;
+
+/**
+ * Counts the outputs of the in-memory parameter services.
+ */
+public class InMemoryCountingMetadataService implements CountingMetadataService {
+
+    private final InMemoryServices services;
+
+    InMemoryCountingMetadataService(InMemoryServices services) {
+        this.services = services;
+    }
+
+    @Override
+    public Long getServiceCount(IoParameters parameters) {
+        return services.getServiceService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getOfferingCount(IoParameters parameters) {
+        return services.getOfferingService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getCategoryCount(IoParameters parameters) {
+        return services.getCategoryService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getFeatureCount(IoParameters parameters) {
+        return services.getFeatureService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getProcedureCount(IoParameters parameters) {
+        return services.getProcedureService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getPhenomenaCount(IoParameters parameters) {
+        return services.getPhenomenonService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getPlatformCount(IoParameters paramters) {
+        return services.getPlatformService()
+                       .count(paramters);
+    }
+
+    @Override
+    public Long getDatasetCount(IoParameters parameters) {
+        return services.getDatasetService()
+                       .count(parameters);
+    }
+
+    @Override
+    public Long getStationCount() {
+        return getPlatformCount(IoParameters.createDefaults());
+    }
+
+    @Override
+    public Long getTimeseriesCount() {
+        return getDatasetCount(IoParameters.createDefaults());
+    }
+
+    @Override
+    public Long getSamplingCounter(IoParameters parameters) {
+        return 0L;
+    }
+
+    @Override
+    public Long getMeasuringProgramCounter(IoParameters parameters) {
+        return 0L;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.joda.time.Interval;
+import org.n52.io.TvpDataCollection;
+import org.n52.io.request.IoParameters;
+import org.n52.io.response.dataset.AbstractValue;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.series.spi.srv.DataService;
+import org.n52.series.spi.srv.RawDataService;
+
+/**
+ * A {@link DataService} creating the observations of {@link SyntheticDatasets} for the requested timespan.
+ */
+public class InMemoryDataService implements DataService<Data<AbstractValue< ? >>> {
+
+    private final SyntheticDatasets datasets;
+
+    private final Set<String> fetchingThreads = ConcurrentHashMap.newKeySet();
+
+    private volatile long latency;
+
+    InMemoryDataService(SyntheticDatasets datasets) {
+        this.datasets = datasets;
+    }
+
+    /**
+     * @param latency
+     *        the time (in milliseconds) to wait before returning data, simulating a slow database
+     */
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * @return the names of the threads data has been fetched on
+     */
+    public Set<String> getFetchingThreads() {
+        return fetchingThreads;
+    }
+
+    @Override
+    @SuppressWarnings({
+        "unchecked",
+        "rawtypes"
+    })
+    public DataCollection<Data<AbstractValue< ? >>> getData(IoParameters parameters) {
+        fetchingThreads.add(Thread.currentThread().getName());
+        awaitLatency();
+        Interval timespan = parameters.getTimespan()
+                                      .toInterval();
+        TvpDataCollection<Data<AbstractValue< ? >>> collection = new TvpDataCollection<>();
+        for (String datasetId : parameters.getDatasets()) {
+            int index = SyntheticDatasets.indexOf(datasetId, "ds_", datasets.getDatasetCount());
+            if (index >= 0) {
+                collection.addNewSeries(datasetId, (Data) datasets.createData(index, timespan));
+            }
+        }
+        return collection;
+    }
+
+    private void awaitLatency() {
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while fetching data", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsRawData() {
+        return false;
+    }
+
+    @Override
+    public RawDataService getRawDataService() {
+        return null;
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+
+import org.n52.io.request.IoParameters;
+import org.n52.io.response.OutputCollection;
+import org.n52.io.response.ParameterOutput;
+import org.n52.series.spi.srv.ParameterService;
+
+/**
+ * A {@link ParameterService} serving synthetic outputs which are identified by a prefix and an index, e.g.
+ * <code>phe_3</code>. Outputs are created on each call. Collections support an optional filter and offset
+ * based paging (offset being the page number as expected by the web layer).
+ *
+ * @param <T>
+ *        the output type
+ */
+public class InMemoryParameterService<T extends ParameterOutput> extends ParameterService<T> {
+
+    private final String idPrefix;
+
+    private final int size;
+
+    private final IntFunction<T> factory;
+
+    private final Function<IoParameters, IntPredicate> filterFactory;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    InMemoryParameterService(String idPrefix, int size, IntFunction<T> factory) {
+        this(idPrefix, size, factory, query -> index -> true);
+    }
+
+    /**
+     * @param idPrefix
+     *        the prefix of all ids
+     * @param size
+     *        the number of outputs
+     * @param factory
+     *        creates the output of a given index
+     * @param filterFactory
+     *        creates a filter for a query which decides if the output of a given index matches
+     */
+    InMemoryParameterService(String idPrefix,
+                             int size,
+                             IntFunction<T> factory,
+                             Function<IoParameters, IntPredicate> filterFactory) {
+        this.idPrefix = idPrefix;
+        this.size = size;
+        this.factory = factory;
+        this.filterFactory = filterFactory;
+    }
+
+    @Override
+    public OutputCollection<T> getExpandedParameters(IoParameters query) {
+        return collect(query);
+    }
+
+    @Override
+    public OutputCollection<T> getCondensedParameters(IoParameters query) {
+        return collect(query);
+    }
+
+    @Override
+    public OutputCollection<T> getParameters(String[] items, IoParameters query) {
+        lookups.incrementAndGet();
+        List<T> outputs = new ArrayList<>(items.length);
+        for (String item : items) {
+            int index = indexOf(item);
+            if (index >= 0) {
+                outputs.add(factory.apply(index));
+            }
+        }
+        return new OutputCollection<>(outputs);
+    }
+
+    @Override
+    public T getParameter(String item, IoParameters query) {
+        int index = indexOf(item);
+        return index >= 0
+                ? factory.apply(index)
+                : null;
+    }
+
+    @Override
+    public boolean exists(String id, IoParameters parameters) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * @param query
+     *        the query
+     * @return the number of outputs matching the query's filters (ignoring paging)
+     */
+    long count(IoParameters query) {
+        IntPredicate filter = filterFactory.apply(query);
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return how often outputs have been looked up by id
+     */
+    public int getLookupCount() {
+        return lookups.get();
+    }
+
+    private OutputCollection<T> collect(IoParameters query) {
+        int limit = query.getLimit();
+        int offset = query.getOffset();
+        long start = limit > 0 && offset > 0
+                ? (long) offset * limit
+                : 0;
+        long end = limit > 0
+                ? start + limit
+                : Long.MAX_VALUE;
+        IntPredicate filter = filterFactory.apply(query);
+        List<T> outputs = new ArrayList<>();
+        long matches = 0;
+        for (int i = 0; i < size && matches < end; i++) {
+            if (filter.test(i)) {
+                if (matches >= start) {
+                    outputs.add(factory.apply(i));
+                }
+                matches++;
+            }
+        }
+        return new OutputCollection<>(outputs);
+    }
+
+    private int indexOf(String id) {
+        return SyntheticDatasets.indexOf(id, idPrefix, size);
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import org.n52.io.request.IoParameters;
+import org.n52.io.response.CategoryOutput;
+import org.n52.io.response.FeatureOutput;
+import org.n52.io.response.OfferingOutput;
+import org.n52.io.response.PhenomenonOutput;
+import org.n52.io.response.PlatformOutput;
+import org.n52.io.response.ProcedureOutput;
+import org.n52.io.response.ServiceOutput;
+import org.n52.io.response.dataset.quantity.QuantityDatasetOutput;
+
+/**
+ * Sets up the in-memory SPI services for some {@link SyntheticDatasets}. Datasets can be filtered by
+ * <code>phenomena</code>, <code>platforms</code>, <code>features</code> and <code>datasetTypes</code>.
+ */
+public final class InMemoryServices {
+
+    private final SyntheticDatasets datasets;
+
+    private final InMemoryParameterService<ServiceOutput> serviceService;
+
+    private final InMemoryParameterService<PlatformOutput> platformService;
+
+    private final InMemoryParameterService<FeatureOutput> featureService;
+
+    private final InMemoryParameterService<PhenomenonOutput> phenomenonService;
+
+    private final InMemoryParameterService<ProcedureOutput> procedureService;
+
+    private final InMemoryParameterService<OfferingOutput> offeringService;
+
+    private final InMemoryParameterService<CategoryOutput> categoryService;
+
+    private final InMemoryParameterService<QuantityDatasetOutput> datasetService;
+
+    private final InMemoryDataService dataService;
+
+    private final InMemoryCountingMetadataService countingService;
+
+    public InMemoryServices(SyntheticDatasets datasets) {
+        this.datasets = datasets;
+        int phenomena = datasets.getPhenomenonCount();
+        int platforms = datasets.getPlatformCount();
+        this.serviceService = new InMemoryParameterService<>("srv_", 1, datasets::createService);
+        this.platformService = new InMemoryParameterService<>("pl_", platforms, datasets::createPlatform);
+        this.featureService = new InMemoryParameterService<>("pl_", platforms, datasets::createFeature);
+        this.phenomenonService = new InMemoryParameterService<>("phe_", phenomena, datasets::createPhenomenon);
+        this.procedureService = new InMemoryParameterService<>("proc_", phenomena, datasets::createProcedure);
+        this.offeringService = new InMemoryParameterService<>("off_", phenomena, datasets::createOffering);
+        this.categoryService = new InMemoryParameterService<>("cat_", phenomena, datasets::createCategory);
+        this.datasetService = new InMemoryParameterService<>("ds_",
+                                                             datasets.getDatasetCount(),
+                                                             datasets::createDataset,
+                                                             this::createDatasetFilter);
+        this.dataService = new InMemoryDataService(datasets);
+        this.countingService = new InMemoryCountingMetadataService(this);
+    }
+
+    private IntPredicate createDatasetFilter(IoParameters query) {
+        Set<String> datasetTypes = query.getDatasetTypes();
+        if (!datasetTypes.isEmpty() && !datasetTypes.contains(SyntheticDatasets.DATASET_TYPE)) {
+            return index -> false;
+        }
+        Set<String> phenomena = query.getPhenomena();
+        Set<String> platforms = new HashSet<>(query.getPlatforms());
+        platforms.addAll(query.getFeatures());
+        return index -> {
+            String phenomenon = SyntheticDatasets.phenomenonId(datasets.phenomenonOf(index));
+            String platform = SyntheticDatasets.platformId(datasets.platformOf(index));
+            return (phenomena.isEmpty() || phenomena.contains(phenomenon))
+                    && (platforms.isEmpty() || platforms.contains(platform));
+        };
+    }
+
+    SyntheticDatasets getDatasets() {
+        return datasets;
+    }
+
+    InMemoryParameterService<ServiceOutput> getServiceService() {
+        return serviceService;
+    }
+
+    InMemoryParameterService<PlatformOutput> getPlatformService() {
+        return platformService;
+    }
+
+    InMemoryParameterService<FeatureOutput> getFeatureService() {
+        return featureService;
+    }
+
+    public InMemoryParameterService<PhenomenonOutput> getPhenomenonService() {
+        return phenomenonService;
+    }
+
+    InMemoryParameterService<ProcedureOutput> getProcedureService() {
+        return procedureService;
+    }
+
+    InMemoryParameterService<OfferingOutput> getOfferingService() {
+        return offeringService;
+    }
+
+    InMemoryParameterService<CategoryOutput> getCategoryService() {
+        return categoryService;
+    }
+
+    public InMemoryParameterService<QuantityDatasetOutput> getDatasetService() {
+        return datasetService;
+    }
+
+    public InMemoryDataService getDataService() {
+        return dataService;
+    }
+
+    public InMemoryCountingMetadataService getCountingService() {
+        return countingService;
+    }
+
+}
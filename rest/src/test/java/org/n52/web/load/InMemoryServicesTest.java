@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.joda.time.Interval;
+import org.junit.jupiter.api.Test;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.quantity.QuantityDatasetOutput;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+public class InMemoryServicesTest {
+
+    private final SyntheticDatasets datasets = new SyntheticDatasets(100, 7, 60_000L);
+
+    private final InMemoryServices services = new InMemoryServices(datasets);
+
+    @Test
+    public void when_creatingDataTwice_then_valuesAreEqual() {
+        Interval timespan = Interval.parse("2020-06-01T00:00:00Z/PT1H");
+        Data<QuantityValue> first = datasets.createData(42, timespan);
+        Data<QuantityValue> second = datasets.createData(42, timespan);
+        assertThat(first.size(), is(61L));
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(first.getValues().get(i).getValue(), is(second.getValues().get(i).getValue()));
+        }
+    }
+
+    @Test
+    public void when_filteringByPhenomenon_then_countMatchesItems() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.PHENOMENA, SyntheticDatasets.phenomenonId(3));
+        List<QuantityDatasetOutput> items = services.getDatasetService()
+                                                    .getCondensedParameters(query)
+                                                    .getItems();
+        assertThat(items.size(), is(14));
+        assertThat(services.getDatasetService().count(query), is(14L));
+    }
+
+    @Test
+    public void when_paging_then_offsetIsPageIndex() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.OFFSET, "2")
+                                         .extendWith(Parameters.LIMIT, "30");
+        List<QuantityDatasetOutput> items = services.getDatasetService()
+                                                    .getCondensedParameters(query)
+                                                    .getItems();
+        assertThat(items.size(), is(30));
+        assertThat(items.get(0).getId(), is(SyntheticDatasets.datasetId(60)));
+        assertThat(services.getDatasetService().count(query), is(100L));
+    }
+
+    @Test
+    public void when_requestingUnknownDatasetType_then_noDatasets() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.FILTER_DATASET_TYPES, "profile");
+        assertThat(services.getDatasetService().count(query), is(0L));
+        assertThat(services.getDatasetService()
+                           .getCondensedParameters(query)
+                           .getItems(),
+                   is(empty()));
+    }
+
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.n52.io.Constants;
+import org.n52.io.request.Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a weighted mix of metadata and data requests against a running API. Each worker thread picks its
+ * requests from an own seeded {@link Random}, so a run with the same seed, thread count and synthetic data
+ * issues the same request sequence.
+ */
+final class LoadHarness {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadHarness.class);
+
+    private static final String TIMESPAN = "PT24H/2020-06-01T00:00:00Z";
+
+    private static final int CONNECT_TIMEOUT = 5_000;
+
+    private static final int READ_TIMEOUT = 60_000;
+
+    private final String baseUrl;
+
+    private final List<Scenario> scenarios;
+
+    private final int totalWeight;
+
+    LoadHarness(String baseUrl, SyntheticDatasets datasets) {
+        this.baseUrl = baseUrl;
+        this.scenarios = createScenarios(datasets);
+        this.totalWeight = scenarios.stream()
+                                    .mapToInt(Scenario::getWeight)
+                                    .sum();
+    }
+
+    private static List<Scenario> createScenarios(SyntheticDatasets datasets) {
+        String timespan = Parameters.TIMESPAN + "=" + encode(TIMESPAN);
+        Function<Random, String> anyDataset = r -> SyntheticDatasets.datasetId(r.nextInt(datasets.getDatasetCount()));
+        Function<Random, String> anyPhenomenon = r -> SyntheticDatasets.phenomenonId(
+                r.nextInt(datasets.getPhenomenonCount()));
+        int featurePages = Math.max(1, datasets.getPlatformCount() / 50);
+
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("resources", 2, Constants.APPLICATION_JSON, r -> "/?expanded=true"));
+        scenarios.add(new Scenario("phenomena", 3, Constants.APPLICATION_JSON, r -> "/phenomena"));
+        scenarios.add(new Scenario("features", 3, Constants.APPLICATION_JSON,
+            r -> "/features?limit=50&offset=" + r.nextInt(featurePages)));
+        scenarios.add(new Scenario("datasets", 4, Constants.APPLICATION_JSON,
+            r -> "/datasets?expanded=true&phenomena=" + anyPhenomenon.apply(r)));
+        scenarios.add(new Scenario("dataset", 4, Constants.APPLICATION_JSON,
+            r -> "/datasets/" + anyDataset.apply(r)));
+        scenarios.add(new Scenario("observations-json", 8, Constants.APPLICATION_JSON,
+            r -> "/datasets/" + anyDataset.apply(r) + "/observations?" + timespan));
+        scenarios.add(new Scenario("observations-csv", 2, Constants.TEXT_CSV,
+            r -> "/datasets/" + anyDataset.apply(r) + "/observations?" + timespan));
+        scenarios.add(new Scenario("observations-png", 2, Constants.IMAGE_PNG,
+            r -> "/timeseries/" + anyDataset.apply(r) + "/observations?" + timespan));
+        scenarios.add(new Scenario("observations-pdf", 1, Constants.APPLICATION_PDF,
+            r -> "/datasets/" + anyDataset.apply(r) + "/observations?" + timespan));
+        return Collections.unmodifiableList(scenarios);
+    }
+
+    /**
+     * Runs the request mix and blocks until all workers have finished.
+     *
+     * @param threads
+     *        the number of concurrent clients
+     * @param duration
+     *        how long each client keeps sending requests
+     * @param seed
+     *        the base seed of the clients' request choices
+     * @return the latencies per scenario
+     * @throws InterruptedException
+     *         if interrupted while waiting for the clients
+     */
+    Report run(int threads, Duration duration, long seed) throws InterruptedException {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        scenarios.forEach(s -> recorders.put(s.getName(), new LatencyRecorder()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try {
+            List<Future< ? >> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Random random = new Random(seed + i);
+                workers.add(executor.submit(() -> drive(random, deadline, recorders)));
+            }
+            for (Future< ? > worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("load worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(READ_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        return new Report(recorders, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void drive(Random random, long deadline, Map<String, LatencyRecorder> recorders) {
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            Scenario scenario = pick(random);
+            String path = scenario.createPath(random);
+            long start = System.nanoTime();
+            long bytes = 0L;
+            boolean error;
+            try {
+                bytes = request(path, scenario.getAccept());
+                error = bytes < 0;
+            } catch (IOException e) {
+                LOGGER.debug("request to '{}' failed", path, e);
+                error = true;
+            }
+            recorders.get(scenario.getName())
+                     .record(System.nanoTime() - start, Math.max(0L, bytes), error);
+        }
+    }
+
+    private Scenario pick(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            value -= scenario.getWeight();
+            if (value < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("weights exhausted");
+    }
+
+    /**
+     * @return the number of bytes read, or <code>-1</code> if the response status was not successful
+     */
+    private long request(String path, String accept) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestProperty("Accept", accept);
+        int status = connection.getResponseCode();
+        InputStream body = status < 400
+                ? connection.getInputStream()
+                : connection.getErrorStream();
+        long bytes = drain(body);
+        if (status >= 400) {
+            LOGGER.debug("request to '{}' returned status {}", path, status);
+            return -1L;
+        }
+        return bytes;
+    }
+
+    private static long drain(InputStream stream) throws IOException {
+        if (stream == null) {
+            return 0L;
+        }
+        long total = 0L;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = stream) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Scenario {
+
+        private final String name;
+
+        private final int weight;
+
+        private final String accept;
+
+        private final Function<Random, String> pathFactory;
+
+        Scenario(String name, int weight, String accept, Function<Random, String> pathFactory) {
+            this.name = name;
+            this.weight = weight;
+            this.accept = accept;
+            this.pathFactory = pathFactory;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getWeight() {
+            return weight;
+        }
+
+        String getAccept() {
+            return accept;
+        }
+
+        String createPath(Random random) {
+            return pathFactory.apply(random);
+        }
+    }
+
+    static final class Report {
+
+        private static final String ROW_FORMAT = "%-18s %8d %6d %9.1f %9.1f %9.1f %9.1f %8.1f %10d%n";
+
+        private final Map<String, LatencyRecorder> recorders;
+
+        private final Duration elapsed;
+
+        Report(Map<String, LatencyRecorder> recorders, Duration elapsed) {
+            this.recorders = recorders;
+            this.elapsed = elapsed;
+        }
+
+        Map<String, LatencyRecorder> getRecorders() {
+            return Collections.unmodifiableMap(recorders);
+        }
+
+        int getTotalCount() {
+            return recorders.values()
+                            .stream()
+                            .mapToInt(LatencyRecorder::getCount)
+                            .sum();
+        }
+
+        int getTotalErrors() {
+            return recorders.values()
+                            .stream()
+                            .mapToInt(LatencyRecorder::getErrors)
+                            .sum();
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(1, elapsed.toMillis()) / 1000d;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format(Locale.ROOT, "%-18s %8s %6s %9s %9s %9s %9s %8s %10s%n",
+                                    "endpoint", "count", "errors", "p50[ms]", "p90[ms]", "p99[ms]", "max[ms]",
+                                    "req/s", "kB"));
+            recorders.forEach((name, r) -> sb.append(String.format(Locale.ROOT, ROW_FORMAT,
+                                                                   name,
+                                                                   r.getCount(),
+                                                                   r.getErrors(),
+                                                                   r.getPercentile(50),
+                                                                   r.getPercentile(90),
+                                                                   r.getPercentile(99),
+                                                                   r.getMax(),
+                                                                   r.getCount() / seconds,
+                                                                   r.getBytes() / 1024)));
+            sb.append(String.format(Locale.ROOT, "%d requests, %d errors in %.1fs (%.1f req/s)",
+                                    getTotalCount(), getTotalErrors(), seconds, getTotalCount() / seconds));
+            return sb.toString();
+        }
+    }
+
+}
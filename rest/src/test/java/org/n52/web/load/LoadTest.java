@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the {@link LoadHarness} against an in-memory API. Disabled by default, run it with
+ *
+ * <pre>
+ * mvn test -pl rest -Dtest=LoadTest -Dloadtest=true [-Dloadtest.threads=8] [-Dloadtest.duration=PT30S]
+ *     [-Dloadtest.datasets=1000] [-Dloadtest.phenomena=20] [-Dloadtest.interval=60000] [-Dloadtest.seed=42]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+
+    @Test
+    public void when_runningRequestMix_then_noRequestFails() throws Exception {
+        int threads = Integer.getInteger("loadtest.threads", 8);
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+        int datasetCount = Integer.getInteger("loadtest.datasets", 1000);
+        int phenomenonCount = Integer.getInteger("loadtest.phenomena", 20);
+        long interval = Long.getLong("loadtest.interval", 60_000L);
+        long seed = Long.getLong("loadtest.seed", 42L);
+
+        SyntheticDatasets datasets = new SyntheticDatasets(datasetCount, phenomenonCount, interval);
+        try (InMemoryApiServer server = InMemoryApiServer.start(new InMemoryServices(datasets))) {
+            LoadHarness harness = new LoadHarness(server.getBaseUrl(), datasets);
+            // warm up JIT, caches and connection handling before measuring
+            harness.run(threads, Duration.ofSeconds(5), seed - 1);
+            LoadHarness.Report report = harness.run(threads, duration, seed);
+            LOGGER.info("load test with {} threads on {} datasets:{}{}",
+                        threads,
+                        datasetCount,
+                        System.lineSeparator(),
+                        report);
+            assertThat(report.getTotalCount(), is(greaterThan(0)));
+            assertThat(report.getTotalErrors(), is(0));
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.web.load;
+
+import java.math.BigDecimal;
+
+import org.joda.time.Interval;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.n52.io.crs.CRSUtils;
+import org.n52.io.response.CategoryOutput;
+import org.n52.io.response.FeatureOutput;
+import org.n52.io.response.OfferingOutput;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.ParameterOutput;
+import org.n52.io.response.PhenomenonOutput;
+import org.n52.io.response.PlatformOutput;
+import org.n52.io.response.ProcedureOutput;
+import org.n52.io.response.ServiceOutput;
+import org.n52.io.response.TimeOutput;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DatasetParameters;
+import org.n52.io.response.dataset.quantity.QuantityDatasetOutput;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+/**
+ * Describes a deterministic synthetic data set of quantity timeseries. Each dataset measures one phenomenon
+ * at one platform (which is also its feature). Procedures, offerings and categories correspond to the
+ * phenomena. Outputs are created freshly on each call (like a database backed service would do), so they can
+ * be modified by the web layer without any side effects.
+ * <p>
+ * Observations are computed from the dataset index and their timestamp only. Timestamps are aligned to the
+ * configured interval, so any timespan returns the same values for the same dataset.
+ * </p>
+ */
+public final class SyntheticDatasets {
+
+    static final String SERVICE_ID = "srv_0";
+
+    static final String DATASET_TYPE = "timeseries";
+
+    static final String VALUE_TYPE = "quantity";
+
+    private static final int DATASETS_PER_PLATFORM = 5;
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(),
+                                                                                CRSUtils.EPSG_WGS84);
+
+    private final int datasetCount;
+
+    private final int phenomenonCount;
+
+    private final long intervalInMillis;
+
+    /**
+     * @param datasetCount
+     *        the number of datasets
+     * @param phenomenonCount
+     *        the number of phenomena
+     * @param intervalInMillis
+     *        the time between two observations of a dataset
+     */
+    public SyntheticDatasets(int datasetCount, int phenomenonCount, long intervalInMillis) {
+        if (datasetCount < 1 || phenomenonCount < 1 || intervalInMillis < 1) {
+            throw new IllegalArgumentException("Counts and interval have to be positive.");
+        }
+        this.datasetCount = datasetCount;
+        this.phenomenonCount = phenomenonCount;
+        this.intervalInMillis = intervalInMillis;
+    }
+
+    int getDatasetCount() {
+        return datasetCount;
+    }
+
+    int getPhenomenonCount() {
+        return phenomenonCount;
+    }
+
+    int getPlatformCount() {
+        return (datasetCount + DATASETS_PER_PLATFORM - 1) / DATASETS_PER_PLATFORM;
+    }
+
+    static String datasetId(int index) {
+        return "ds_" + index;
+    }
+
+    static String platformId(int index) {
+        return "pl_" + index;
+    }
+
+    public static String phenomenonId(int index) {
+        return "phe_" + index;
+    }
+
+    /**
+     * @param id
+     *        an id as created by this class, e.g. <code>ds_42</code>
+     * @param prefix
+     *        the expected prefix, e.g. <code>ds_</code>
+     * @param size
+     *        the number of existing outputs
+     * @return the index, or <code>-1</code> if no such output exists
+     */
+    static int indexOf(String id, String prefix, int size) {
+        if (id == null || !id.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(id.substring(prefix.length()));
+            return index >= 0 && index < size
+                    ? index
+                    : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    int phenomenonOf(int datasetIndex) {
+        return datasetIndex % phenomenonCount;
+    }
+
+    int platformOf(int datasetIndex) {
+        return datasetIndex / DATASETS_PER_PLATFORM;
+    }
+
+    ServiceOutput createService(int index) {
+        ServiceOutput service = createParameter(new ServiceOutput(), "srv_", index, "Synthetic Service");
+        service.setVersion(OptionalOutput.of("1.0"));
+        return service;
+    }
+
+    PlatformOutput createPlatform(int index) {
+        return createParameter(new PlatformOutput(), "pl_", index, "Platform " + index);
+    }
+
+    FeatureOutput createFeature(int index) {
+        FeatureOutput feature = createParameter(new FeatureOutput(), "pl_", index, "Platform " + index);
+        // spread platforms on a grid over Germany
+        double x = 6 + (index % 90) * 0.1;
+        double y = 47.5 + (index / 90 % 75) * 0.1;
+        feature.setGeometry(OptionalOutput.of(GEOMETRY_FACTORY.createPoint(new Coordinate(x, y))));
+        return feature;
+    }
+
+    PhenomenonOutput createPhenomenon(int index) {
+        return createParameter(new PhenomenonOutput(), "phe_", index, "Phenomenon " + index);
+    }
+
+    ProcedureOutput createProcedure(int index) {
+        return createParameter(new ProcedureOutput(), "proc_", index, "Sensor " + index);
+    }
+
+    OfferingOutput createOffering(int index) {
+        return createParameter(new OfferingOutput(), "off_", index, "Offering " + index);
+    }
+
+    CategoryOutput createCategory(int index) {
+        return createParameter(new CategoryOutput(), "cat_", index, "Category " + index);
+    }
+
+    QuantityDatasetOutput createDataset(int index) {
+        int phenomenon = phenomenonOf(index);
+        int platform = platformOf(index);
+
+        DatasetParameters parameters = new DatasetParameters();
+        parameters.setService(createService(0));
+        parameters.setPlatform(createPlatform(platform));
+        parameters.setPhenomenon(createPhenomenon(phenomenon));
+        parameters.setProcedure(createProcedure(phenomenon));
+        parameters.setOffering(createOffering(phenomenon));
+        parameters.setCategory(createCategory(phenomenon));
+
+        QuantityDatasetOutput dataset = createParameter(new QuantityDatasetOutput(),
+                                                        "ds_",
+                                                        index,
+                                                        "Phenomenon " + phenomenon + " at Platform " + platform);
+        dataset.setDatasetType(OptionalOutput.of(DATASET_TYPE));
+        dataset.setValueType(OptionalOutput.of(VALUE_TYPE));
+        dataset.setObservationType(OptionalOutput.of("simple"));
+        dataset.setFeature(OptionalOutput.of(createFeature(platform)));
+        dataset.setDatasetParameters(OptionalOutput.of(parameters));
+        dataset.setUom(OptionalOutput.of("unit_" + phenomenon));
+        return dataset;
+    }
+
+    /**
+     * @param datasetIndex
+     *        the dataset index
+     * @param timespan
+     *        the timespan to create observations for
+     * @return the observations of the dataset within the given timespan
+     */
+    Data<QuantityValue> createData(int datasetIndex, Interval timespan) {
+        Data<QuantityValue> data = new Data<>();
+        long start = timespan.getStartMillis();
+        long first = Math.floorDiv(start + intervalInMillis - 1, intervalInMillis) * intervalInMillis;
+        for (long time = first; time <= timespan.getEndMillis(); time += intervalInMillis) {
+            data.addNewValue(createValue(datasetIndex, time));
+        }
+        return data;
+    }
+
+    private QuantityValue createValue(int datasetIndex, long time) {
+        long step = time / intervalInMillis;
+        // daily cycle with a dataset specific offset and some pseudo random noise
+        double cycle = Math.sin(2 * Math.PI * (time % 86_400_000L) / 86_400_000d + datasetIndex);
+        double noise = Math.floorMod(mix(datasetIndex, step), 1000) / 1000d;
+        QuantityValue value = new QuantityValue();
+        value.setTimestamp(new TimeOutput(time, false));
+        value.setValue(BigDecimal.valueOf(Math.round((10 * cycle + noise) * 100) / 100d));
+        return value;
+    }
+
+    private static long mix(int datasetIndex, long step) {
+        long hash = step * 0x9E3779B97F4A7C15L + datasetIndex;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static <T extends ParameterOutput> T createParameter(T output, String prefix, int index, String label) {
+        output.setId(prefix + index);
+        output.setLabel(OptionalOutput.of(label));
+        return output;
+    }
+
+}
@@ -28,12 +28,29 @@
  */
 package org.n52.io.crs;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.geotools.geometry.jts.JTS;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.CRS.AxisOrder;
 import org.geotools.referencing.ReferencingFactoryFinder;
 import org.geotools.util.factory.Hints;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
@@ -62,6 +79,24 @@ public final class CRSUtils {
 
     private static final String EPSG_PREFIX = "EPSG:";
 
+    /**
+     * Maximum number of reference systems and transforms cached per instance. The least recently used entries
+     * are evicted first.
+     */
+    private static final int MAX_CACHE_SIZE = 256;
+
+    /**
+     * Minimum number of coordinates per chunk when batch transforms are split across cores.
+     */
+    private static final int PARALLEL_TRANSFORM_CHUNK_SIZE = 1 << 14;
+
+    /**
+     * Maximum number of threads transforming chunks of a batch besides the calling thread, shared by all
+     * instances.
+     */
+    private static final int TRANSFORM_THREADS = Math.min(4, Runtime.getRuntime()
+                                                                   .availableProcessors());
+
     /**
      * Internally used spatial reference frame.
      */
@@ -69,6 +104,12 @@ public final class CRSUtils {
 
     protected CRSAuthorityFactory crsFactory;
 
+    private final Map<String, CoordinateReferenceSystem> crsCache =
+            Collections.synchronizedMap(new LruCache<>(MAX_CACHE_SIZE));
+
+    private final Map<TransformKey, MathTransform> transformCache =
+            Collections.synchronizedMap(new LruCache<>(MAX_CACHE_SIZE));
+
     /**
      * use static constructors to create an instance.
      *
@@ -78,11 +119,17 @@ public final class CRSUtils {
      *         if creating {@link #internCrs} fails.
      */
     private CRSUtils(CRSAuthorityFactory crsFactory) {
-        try {
-            internCrs = CRS.decode(DEFAULT_CRS);
-            this.crsFactory = crsFactory;
-        } catch (FactoryException e) {
-            throw new IllegalStateException("Could not create intern CRS!", e);
+        initInternCrs();
+        this.crsFactory = crsFactory;
+    }
+
+    private static synchronized void initInternCrs() {
+        if (internCrs == null) {
+            try {
+                internCrs = CRS.decode(DEFAULT_CRS);
+            } catch (FactoryException e) {
+                throw new IllegalStateException("Could not create intern CRS!", e);
+            }
         }
     }
 
@@ -239,6 +286,159 @@ public final class CRSUtils {
         return transform(geometry, internCrs, getCrsFor(destFrame));
     }
 
+    /**
+     * Transforms the given geometries from their inner reference (which is WGS84 (CRS:84)) to a given
+     * reference. In contrast to transforming each geometry separately, all coordinates are transformed within
+     * one {@link MathTransform} call. Large collections are split into a few chunks transformed in parallel on a
+     * small bounded pool. The given geometries stay
+     * unchanged.
+     *
+     * @param geometries
+     *        the geometries to transform (may contain <code>null</code> values).
+     * @param destFrame
+     *        the CRS authority code the given geometries shall be transformed to.
+     * @return the transformed geometries in the same order (<code>null</code> values are kept).
+     * @throws FactoryException
+     *         if the creation of {@link CoordinateReferenceSystem} fails or no appropriate
+     *         {@link MathTransform} could be created.
+     * @throws TransformException
+     *         if transformation fails for any other reason.
+     * @see #transformInnerToOuter(List, String, boolean)
+     */
+    public List<Geometry> transformInnerToOuter(List<Geometry> geometries, String destFrame)
+            throws FactoryException,
+            TransformException {
+        return transformInnerToOuter(geometries, destFrame, false);
+    }
+
+    /**
+     * Transforms the given geometries from their inner reference (which is WGS84 (CRS:84)) to a given
+     * reference within one batch. Z ordinates are transformed as well if the transform is three-dimensional,
+     * otherwise they are kept as is.
+     *
+     * @param geometries
+     *        the geometries to transform (may contain <code>null</code> values).
+     * @param destFrame
+     *        the CRS authority code the given geometries shall be transformed to.
+     * @param inPlace
+     *        if the coordinates of the given geometries shall be overridden instead of transforming copies. Only
+     *        set if no one else holds references to the given geometries.
+     * @return the transformed geometries in the same order (<code>null</code> values are kept).
+     * @throws FactoryException
+     *         if the creation of {@link CoordinateReferenceSystem} fails or no appropriate
+     *         {@link MathTransform} could be created.
+     * @throws TransformException
+     *         if transformation fails for any other reason.
+     */
+    public List<Geometry> transformInnerToOuter(List<Geometry> geometries, String destFrame, boolean inPlace)
+            throws FactoryException,
+            TransformException {
+        CoordinateReferenceSystem dest = getCrsFor(destFrame);
+        MathTransform transform = getTransform(internCrs, dest);
+        List<Geometry> transformed = new ArrayList<>(geometries.size());
+        int coordinateCount = 0;
+        for (Geometry geometry : geometries) {
+            Geometry target = geometry != null && !inPlace
+                    ? geometry.copy()
+                    : geometry;
+            if (target != null) {
+                coordinateCount += target.getNumPoints();
+            }
+            transformed.add(target);
+        }
+
+        int sourceDimensions = transform.getSourceDimensions();
+        int targetDimensions = transform.getTargetDimensions();
+        double[] source = new double[sourceDimensions * coordinateCount];
+        CoordinateCopier reader = new CoordinateCopier(source, sourceDimensions, false);
+        transformed.stream()
+                   .filter(g -> g != null)
+                   .forEach(g -> g.apply(reader));
+        double[] target = sourceDimensions == targetDimensions
+                ? source
+                : new double[targetDimensions * coordinateCount];
+        transformPacked(transform, source, target, coordinateCount);
+        CoordinateCopier writer = new CoordinateCopier(target, targetDimensions, true);
+        for (Geometry geometry : transformed) {
+            if (geometry != null) {
+                geometry.apply(writer);
+                checkSrid(geometry, internCrs, dest);
+            }
+        }
+        return transformed;
+    }
+
+    private void transformPacked(MathTransform transform, double[] source, double[] target, int count)
+            throws TransformException {
+        int chunks = Math.min(count / PARALLEL_TRANSFORM_CHUNK_SIZE, TRANSFORM_THREADS + 1);
+        if (chunks < 2) {
+            transform.transform(source, 0, target, 0, count);
+            return;
+        }
+        int chunkSize = (count + chunks - 1) / chunks;
+        AtomicReference<TransformException> failure = new AtomicReference<>();
+        List<Future< ? >> pending = new ArrayList<>(chunks - 1);
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            int first = chunk * chunkSize;
+            int length = Math.min(chunkSize, count - first);
+            pending.add(TransformPool.EXECUTOR.submit(() -> transformChunk(transform,
+                                                                           source,
+                                                                           target,
+                                                                           first,
+                                                                           length,
+                                                                           failure)));
+        }
+        // the calling thread takes the first chunk
+        transformChunk(transform, source, target, 0, chunkSize, failure);
+        awaitAll(pending);
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private static void transformChunk(MathTransform transform,
+                                       double[] source,
+                                       double[] target,
+                                       int first,
+                                       int length,
+                                       AtomicReference<TransformException> failure) {
+        if (failure.get() != null) {
+            // batch failed already
+            return;
+        }
+        try {
+            transform.transform(source,
+                                transform.getSourceDimensions() * first,
+                                target,
+                                transform.getTargetDimensions() * first,
+                                length);
+        } catch (TransformException e) {
+            // keep the first failure
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private static void awaitAll(List<Future< ? >> pending) throws TransformException {
+        for (Future< ? > future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+                pending.forEach(f -> f.cancel(false));
+                throw new TransformException("Interrupted while transforming coordinates.");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Could not transform coordinates.", cause);
+            }
+        }
+    }
+
     /**
      * Transforms a given geometry from a given reference to a destinated reference.
      *
@@ -266,7 +466,30 @@ public final class CRSUtils {
                                CoordinateReferenceSystem dest)
             throws FactoryException,
             TransformException {
-        return checkSrid(JTS.transform(geometry, CRS.findMathTransform(srs, dest)), srs, dest);
+        return checkSrid(JTS.transform(geometry, getTransform(srs, dest)), srs, dest);
+    }
+
+    /**
+     * Gets the transform between the given reference systems. Transforms are cached as finding them is
+     * expensive.
+     *
+     * @param srs
+     *        the source reference system.
+     * @param dest
+     *        the destination reference system.
+     * @return the transform from source to destination
+     * @throws FactoryException
+     *         if no appropriate {@link MathTransform} could be created.
+     */
+    public MathTransform getTransform(CoordinateReferenceSystem srs, CoordinateReferenceSystem dest)
+            throws FactoryException {
+        TransformKey key = new TransformKey(srs, dest);
+        MathTransform transform = transformCache.get(key);
+        if (transform == null) {
+            transform = CRS.findMathTransform(srs, dest);
+            transformCache.put(key, transform);
+        }
+        return transform;
     }
 
     private Geometry checkSrid(Geometry geometry, CoordinateReferenceSystem srs, CoordinateReferenceSystem dest)
@@ -310,11 +533,16 @@ public final class CRSUtils {
      * @throws FactoryException
      *         if creating CRS failed.
      */
-    private CoordinateReferenceSystem getCrsFor(String authorityCode) throws FactoryException {
+    public CoordinateReferenceSystem getCrsFor(String authorityCode) throws FactoryException {
         if ((authorityCode == null) || DEFAULT_CRS.equalsIgnoreCase(authorityCode)) {
             return internCrs;
         }
-        return crsFactory.createCoordinateReferenceSystem(authorityCode);
+        CoordinateReferenceSystem crs = crsCache.get(authorityCode);
+        if (crs == null) {
+            crs = crsFactory.createCoordinateReferenceSystem(authorityCode);
+            crsCache.put(authorityCode, crs);
+        }
+        return crs;
     }
 
     /**
@@ -338,14 +566,18 @@ public final class CRSUtils {
     }
 
     /**
-     * Creates an {@link CRSUtils} which offers assistance when doing spatial opererations. Strict means that
-     * all CRS defined with lat/lon axis ordering will be handled as defined.
+     * Gets the shared {@link CRSUtils} which offers assistance when doing spatial opererations. Strict means
+     * that all CRS defined with lat/lon axis ordering will be handled as defined.
      *
-     * @return creates a reference helper which (strictly) handles referencing operations.
+     * @return a (shared) reference helper which (strictly) handles referencing operations.
      * @throws IllegalStateException
      *         if decoding default CRS fails.
      */
     public static CRSUtils createEpsgStrictAxisOrder() {
+        return StrictAxisOrderHolder.INSTANCE;
+    }
+
+    private static CRSUtils createStrictAxisOrderInstance() {
         /*
          * Setting FORCE_LONGITUDE_FIRST_AXIS_ORDER to FALSE seems to be unnecessary as this is geotools
          * default value for this. It becomes necessary, when property org.geotools.referencing.forceXY was
@@ -360,14 +592,18 @@ public final class CRSUtils {
     }
 
     /**
-     * Creates a {@link CRSUtils} which offers assistance when doing spatial opererations. Forcing XY means
-     * that CRS axis ordering is considered lon/lat ordering, even if defined lat/lon.
+     * Gets the shared {@link CRSUtils} which offers assistance when doing spatial opererations. Forcing XY
+     * means that CRS axis ordering is considered lon/lat ordering, even if defined lat/lon.
      *
-     * @return creates a reference helper which (strictly) handles referencing operations.
+     * @return a (shared) reference helper which handles referencing operations with forced XY ordering.
      * @throws IllegalStateException
      *         if decoding default CRS fails.
      */
     public static CRSUtils createEpsgForcedXYAxisOrder() {
+        return ForcedXYAxisOrderHolder.INSTANCE;
+    }
+
+    private static CRSUtils createForcedXYAxisOrderInstance() {
         Hints hints = new Hints(Hints.FORCE_LONGITUDE_FIRST_AXIS_ORDER, true);
         return createEpsgReferenceHelper(hints);
     }
@@ -384,4 +620,159 @@ public final class CRSUtils {
         return new CRSUtils(ReferencingFactoryFinder.getCRSAuthorityFactory("EPSG", hints));
     }
 
+    /**
+     * Copies x/y (and z, for three dimensions) ordinates of all visited coordinate sequences from or to a packed
+     * array. A missing z is read as <code>0</code> and not written back to sequences without z.
+     */
+    private static final class CoordinateCopier implements CoordinateSequenceFilter {
+
+        private final double[] coordinates;
+
+        private final int dimensions;
+
+        private final boolean write;
+
+        private int index;
+
+        CoordinateCopier(double[] coordinates, int dimensions, boolean write) {
+            this.coordinates = coordinates;
+            this.dimensions = dimensions;
+            this.write = write;
+        }
+
+        @Override
+        public void filter(CoordinateSequence sequence, int i) {
+            if (write) {
+                sequence.setOrdinate(i, CoordinateSequence.X, coordinates[index]);
+                sequence.setOrdinate(i, CoordinateSequence.Y, coordinates[index + 1]);
+                if (dimensions > 2 && hasZ(sequence) && !Double.isNaN(sequence.getZ(i))) {
+                    sequence.setOrdinate(i, CoordinateSequence.Z, coordinates[index + 2]);
+                }
+            } else {
+                coordinates[index] = sequence.getX(i);
+                coordinates[index + 1] = sequence.getY(i);
+                if (dimensions > 2) {
+                    double z = hasZ(sequence)
+                            ? sequence.getZ(i)
+                            : Double.NaN;
+                    coordinates[index + 2] = Double.isNaN(z)
+                            ? 0d
+                            : z;
+                }
+            }
+            index += dimensions;
+        }
+
+        private static boolean hasZ(CoordinateSequence sequence) {
+            return sequence.getDimension() - sequence.getMeasures() > 2;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return write;
+        }
+    }
+
+    private static final class StrictAxisOrderHolder {
+        private static final CRSUtils INSTANCE = createStrictAxisOrderInstance();
+    }
+
+    private static final class ForcedXYAxisOrderHolder {
+        private static final CRSUtils INSTANCE = createForcedXYAxisOrderInstance();
+    }
+
+    /**
+     * Bounded pool of daemon threads transforming chunks of large batches. Idle threads time out. If the pool
+     * is saturated, chunks are transformed by the submitting thread.
+     */
+    private static final class TransformPool {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(TRANSFORM_THREADS,
+                                                                 TRANSFORM_THREADS,
+                                                                 60L,
+                                                                 TimeUnit.SECONDS,
+                                                                 new LinkedBlockingQueue<>(4 * TRANSFORM_THREADS),
+                                                                 TransformPool::newThread,
+                                                                 new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        private static Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "crs-transform-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Identifies a transform by source and destination. Reference systems are equal if they have the same
+     * identifier and are equal ignoring metadata, so that freshly decoded instances hit the cache, too.
+     */
+    private static final class TransformKey {
+
+        private final CoordinateReferenceSystem srs;
+
+        private final CoordinateReferenceSystem dest;
+
+        private final int hash;
+
+        TransformKey(CoordinateReferenceSystem srs, CoordinateReferenceSystem dest) {
+            this.srs = srs;
+            this.dest = dest;
+            this.hash = 31 * Objects.hashCode(CRS.toSRS(srs)) + Objects.hashCode(CRS.toSRS(dest));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TransformKey)) {
+                return false;
+            }
+            TransformKey other = (TransformKey) obj;
+            return hash == other.hash
+                    && isEqual(srs, other.srs)
+                    && isEqual(dest, other.dest);
+        }
+
+        private static boolean isEqual(CoordinateReferenceSystem crs, CoordinateReferenceSystem other) {
+            return crs == other
+                    || Objects.equals(CRS.toSRS(crs), CRS.toSRS(other)) && CRS.equalsIgnoreMetadata(crs, other);
+        }
+    }
+
+    /**
+     * A map of limited size evicting the least recently accessed entry. Has to be synchronized externally.
+     */
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
 }
@@ -52,13 +52,27 @@ public class WGS84Util {
      * @return the shortest distance between point A and point B.
      */
     public static double shortestDistanceBetween(Point a, Point b) {
-        double aXinRad = Math.toRadians(a.getX());
-        double aYinRad = Math.toRadians(a.getY());
-        double bXinRad = Math.toRadians(b.getX());
-        double bYinRad = Math.toRadians(b.getY());
+        return shortestDistanceBetween(a.getX(), a.getY(), b.getX(), b.getY());
+    }
+
+    /**
+     * Calculates the shortest distance between two lon/lat positions on a great circle.
+     *
+     * @param aLon longitude of point A in degrees.
+     * @param aLat latitude of point A in degrees.
+     * @param bLon longitude of point B in degrees.
+     * @param bLat latitude of point B in degrees.
+     * @return the shortest distance between point A and point B in kilometer.
+     */
+    public static double shortestDistanceBetween(double aLon, double aLat, double bLon, double bLat) {
+        double aXinRad = Math.toRadians(aLon);
+        double aYinRad = Math.toRadians(aLat);
+        double bXinRad = Math.toRadians(bLon);
+        double bYinRad = Math.toRadians(bLat);
         double aProd = Math.sin(aYinRad) * Math.sin(bYinRad);
         double bProd = Math.cos(aYinRad) * Math.cos(bYinRad) * Math.cos(aXinRad - bXinRad);
-        return Math.acos(aProd + bProd) * EARTH_MEAN_RADIUS;
+        // rounding errors may leave the valid domain of acos for (nearly) identical points
+        return Math.acos(Math.min(1d, Math.max(-1d, aProd + bProd))) * EARTH_MEAN_RADIUS;
     }
 
     /**
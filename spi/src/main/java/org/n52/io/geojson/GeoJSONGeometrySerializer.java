@@ -47,10 +47,10 @@ public class GeoJSONGeometrySerializer extends JsonSerializer<Geometry> {
     public void serialize(Geometry geometry, JsonGenerator gen, SerializerProvider serializers)
             throws IOException, JsonProcessingException {
         try {
-            final GeoJSONEncoder enc = new GeoJSONEncoder();
-            gen.writeObject(enc.encodeGeometry(geometry));
+            GeoJSONWriter.from(serializers).writeGeometry(geometry, gen);
         } catch (GeoJSONException e) {
             LOGGER.error("could not properly encode geometry.", e);
+            gen.writeNull();
         }
 
     }
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.geojson;
+
+import java.io.IOException;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * Writes GeoJSON geometries directly to a {@link JsonGenerator}. Produces the same output as
+ * {@link GeoJSONEncoder} but reads coordinates from the {@link CoordinateSequence} of each geometry
+ * without building an intermediate node tree.
+ *
+ * Coordinates can optionally be rounded to a fixed number of decimal places. Serializers pick up the
+ * precision from the {@link #PRECISION_ATTRIBUTE} attribute of the current serialization context, e.g.
+ * set for all output of a mapper via {@link #setPrecision(ObjectMapper, int)}.
+ *
+ * @since 3.1.1
+ */
+public final class GeoJSONWriter {
+
+    /**
+     * Serialization attribute holding the number of decimal places coordinates shall be rounded to.
+     */
+    public static final String PRECISION_ATTRIBUTE = "geojson.precision";
+
+    private static final int UNLIMITED_PRECISION = -1;
+
+    private static final int MAX_PRECISION = 15;
+
+    private static final GeoJSONWriter UNLIMITED = new GeoJSONWriter(UNLIMITED_PRECISION);
+
+    private final int precision;
+
+    private final double scale;
+
+    private GeoJSONWriter(int precision) {
+        this.precision = precision;
+        this.scale = precision < 0
+                ? 1d
+                : Math.pow(10, precision);
+    }
+
+    /**
+     * @return a writer which leaves coordinates untouched
+     */
+    public static GeoJSONWriter unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * @param precision
+     *        the number of decimal places to round coordinates to, a negative value disables rounding
+     * @return a writer rounding coordinates to the given precision
+     */
+    public static GeoJSONWriter withPrecision(int precision) {
+        return precision < 0 || precision > MAX_PRECISION
+                ? UNLIMITED
+                : new GeoJSONWriter(precision);
+    }
+
+    /**
+     * @param serializers
+     *        the current serialization context
+     * @return a writer honoring the {@link #PRECISION_ATTRIBUTE} attribute, if present
+     */
+    public static GeoJSONWriter from(SerializerProvider serializers) {
+        Object precision = serializers != null
+                ? serializers.getAttribute(PRECISION_ATTRIBUTE)
+                : null;
+        if (precision instanceof Number) {
+            return withPrecision(((Number) precision).intValue());
+        } else if (precision instanceof String) {
+            try {
+                return withPrecision(Integer.parseInt((String) precision));
+            } catch (NumberFormatException e) {
+                return UNLIMITED;
+            }
+        }
+        return UNLIMITED;
+    }
+
+    /**
+     * Configures the given mapper to round coordinates of all GeoJSON geometries it writes.
+     *
+     * @param mapper
+     *        the mapper to configure
+     * @param precision
+     *        the number of decimal places to round coordinates to, a negative value disables rounding
+     * @return the configured mapper
+     */
+    public static ObjectMapper setPrecision(ObjectMapper mapper, int precision) {
+        SerializationConfig config = mapper.getSerializationConfig();
+        return mapper.setConfig(precision < 0
+                ? config.withoutAttribute(PRECISION_ATTRIBUTE)
+                : config.withAttribute(PRECISION_ATTRIBUTE, precision));
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Writes the given geometry, or {@code null} if the geometry is {@code null} or empty.
+     *
+     * @param geometry
+     *        the geometry to write
+     * @param gen
+     *        the generator to write to
+     * @throws IOException
+     *         if writing fails
+     * @throws GeoJSONException
+     *         if the geometry (or one of its members) has an unsupported type. Nothing has been written
+     *         then.
+     */
+    public void writeGeometry(Geometry geometry, JsonGenerator gen) throws IOException, GeoJSONException {
+        if (geometry == null || geometry.isEmpty()) {
+            gen.writeNull();
+        } else {
+            // check upfront so that we never leave a half-written object behind
+            assertSupported(geometry);
+            writeGeometry(geometry, GeoJSONEncoder.DEFAULT_SRID, gen);
+        }
+    }
+
+    private void assertSupported(Geometry geometry) throws GeoJSONException {
+        if (geometry.isEmpty()) {
+            return;
+        }
+        if (geometry instanceof GeometryCollection && !isMultiGeometry(geometry)) {
+            for (int i = 0; i < geometry.getNumGeometries(); ++i) {
+                assertSupported(geometry.getGeometryN(i));
+            }
+        } else if (!isSupported(geometry)) {
+            throw new GeoJSONException("unknown geometry type " + geometry.getGeometryType());
+        }
+    }
+
+    private boolean isMultiGeometry(Geometry geometry) {
+        return geometry instanceof MultiPoint
+                || geometry instanceof MultiLineString
+                || geometry instanceof MultiPolygon;
+    }
+
+    private boolean isSupported(Geometry geometry) {
+        return geometry instanceof Point
+                || geometry instanceof LineString
+                || geometry instanceof Polygon
+                || geometry instanceof GeometryCollection;
+    }
+
+    private void writeGeometry(Geometry geometry, int parentSrid, JsonGenerator gen) throws IOException {
+        if (geometry.isEmpty()) {
+            gen.writeNull();
+        } else if (geometry instanceof Point) {
+            writeStart(JSONConstants.POINT, gen);
+            writeCoordinate(((Point) geometry).getCoordinateSequence(), 0, gen);
+            writeEnd(geometry, parentSrid, gen);
+        } else if (geometry instanceof LineString) {
+            writeStart(JSONConstants.LINE_STRING, gen);
+            writeCoordinates(((LineString) geometry).getCoordinateSequence(), gen);
+            writeEnd(geometry, parentSrid, gen);
+        } else if (geometry instanceof Polygon) {
+            writeStart(JSONConstants.POLYGON, gen);
+            writeRings((Polygon) geometry, gen);
+            writeEnd(geometry, parentSrid, gen);
+        } else if (geometry instanceof MultiPoint) {
+            writeStart(JSONConstants.MULTI_POINT, gen);
+            gen.writeStartArray();
+            for (int i = 0; i < geometry.getNumGeometries(); ++i) {
+                writeCoordinate(((Point) geometry.getGeometryN(i)).getCoordinateSequence(), 0, gen);
+            }
+            gen.writeEndArray();
+            writeEnd(geometry, parentSrid, gen);
+        } else if (geometry instanceof MultiLineString) {
+            writeStart(JSONConstants.MULTI_LINE_STRING, gen);
+            gen.writeStartArray();
+            for (int i = 0; i < geometry.getNumGeometries(); ++i) {
+                writeCoordinates(((LineString) geometry.getGeometryN(i)).getCoordinateSequence(), gen);
+            }
+            gen.writeEndArray();
+            writeEnd(geometry, parentSrid, gen);
+        } else if (geometry instanceof MultiPolygon) {
+            writeStart(JSONConstants.MULTI_POLYGON, gen);
+            gen.writeStartArray();
+            for (int i = 0; i < geometry.getNumGeometries(); ++i) {
+                writeRings((Polygon) geometry.getGeometryN(i), gen);
+            }
+            gen.writeEndArray();
+            writeEnd(geometry, parentSrid, gen);
+        } else {
+            gen.writeStartObject();
+            gen.writeStringField(JSONConstants.TYPE, JSONConstants.GEOMETRY_COLLECTION);
+            int srid = writeCrs(geometry, parentSrid, gen);
+            gen.writeArrayFieldStart(JSONConstants.GEOMETRIES);
+            for (int i = 0; i < geometry.getNumGeometries(); ++i) {
+                writeGeometry(geometry.getGeometryN(i), srid, gen);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeStart(String type, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField(JSONConstants.TYPE, type);
+        gen.writeFieldName(JSONConstants.COORDINATES);
+    }
+
+    private void writeEnd(Geometry geometry, int parentSrid, JsonGenerator gen) throws IOException {
+        writeCrs(geometry, parentSrid, gen);
+        gen.writeEndObject();
+    }
+
+    private void writeRings(Polygon polygon, JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        writeCoordinates(polygon.getExteriorRing().getCoordinateSequence(), gen);
+        for (int i = 0; i < polygon.getNumInteriorRing(); ++i) {
+            writeCoordinates(polygon.getInteriorRingN(i).getCoordinateSequence(), gen);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeCoordinates(CoordinateSequence coordinates, JsonGenerator gen) throws IOException {
+        gen.writeStartArray();
+        for (int i = 0; i < coordinates.size(); ++i) {
+            writeCoordinate(coordinates, i, gen);
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeCoordinate(CoordinateSequence coordinates, int index, JsonGenerator gen)
+            throws IOException {
+        gen.writeStartArray();
+        gen.writeNumber(round(coordinates.getX(index)));
+        gen.writeNumber(round(coordinates.getY(index)));
+        if (coordinates.getDimension() > 2) {
+            double z = coordinates.getOrdinate(index, CoordinateSequence.Z);
+            if (!Double.isNaN(z)) {
+                gen.writeNumber(round(z));
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private double round(double value) {
+        return precision < 0 || Double.isNaN(value) || Double.isInfinite(value)
+                ? value
+                : Math.rint(value * scale) / scale;
+    }
+
+    private int writeCrs(Geometry geometry, int parentSrid, JsonGenerator gen) throws IOException {
+        int srid = geometry.getSRID();
+        if (srid == parentSrid
+                || srid == 0
+                || (parentSrid == GeoJSONEncoder.DEFAULT_SRID
+                && srid == GeoJSONEncoder.DEFAULT_SRID)) {
+            return parentSrid;
+        } else {
+            gen.writeObjectFieldStart(JSONConstants.CRS);
+            gen.writeStringField(JSONConstants.TYPE, JSONConstants.LINK);
+            gen.writeObjectFieldStart(JSONConstants.PROPERTIES);
+            gen.writeStringField(JSONConstants.HREF, GeoJSONEncoder.SRID_LINK_PREFIX + srid);
+            gen.writeEndObject();
+            gen.writeEndObject();
+            return srid;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.request;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Signals that the processing of a request has become obsolete, e.g. because the client disconnected or the
+ * request timed out. Long running work is expected to check the token cooperatively via
+ * {@link #throwIfCancelled()}, resources which cannot check themselves (e.g. a running database statement) can
+ * be released via {@link #onCancel(Runnable)}.
+ * <p>
+ * A token is carried along with the {@link IoParameters} of a request. Parameters not bound to a request carry
+ * {@link #NONE}, which never gets cancelled.
+ * </p>
+ *
+ * @since 3.1.1
+ */
+public final class CancellationToken {
+
+    /**
+     * A token which never gets cancelled.
+     */
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CancellationToken.class);
+
+    private final boolean cancellable;
+
+    private final List<Runnable> callbacks = new CopyOnWriteArrayList<>();
+
+    private volatile String reason;
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    public static CancellationToken create() {
+        return new CancellationToken(true);
+    }
+
+    /**
+     * Cancels the token and runs all registered callbacks. Subsequent calls have no effect.
+     *
+     * @param cause
+     *        describes why processing has been cancelled
+     */
+    public void cancel(String cause) {
+        if (!cancellable) {
+            return;
+        }
+        synchronized (this) {
+            if (reason != null) {
+                return;
+            }
+            reason = cause == null
+                    ? "cancelled"
+                    : cause;
+        }
+        LOGGER.debug("Request cancelled: {}", reason);
+        for (Runnable callback : callbacks) {
+            // removing first ensures each callback runs once, even if registered concurrently
+            if (callbacks.remove(callback)) {
+                runCallback(callback);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @throws RequestCancelledException
+     *         if the token has been cancelled
+     */
+    public void throwIfCancelled() {
+        String cause = reason;
+        if (cause != null) {
+            throw new RequestCancelledException(cause);
+        }
+    }
+
+    /**
+     * Registers a callback which is run once the token gets cancelled, or immediately if it has already been
+     * cancelled. Callbacks must be quick and must not throw.
+     *
+     * @param callback
+     *        the callback to run on cancellation
+     */
+    public void onCancel(Runnable callback) {
+        if (!cancellable || callback == null) {
+            return;
+        }
+        callbacks.add(callback);
+        if (isCancelled() && callbacks.remove(callback)) {
+            runCallback(callback);
+        }
+    }
+
+    private static void runCallback(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cancellation callback failed.", e);
+        }
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.request;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.n52.io.response.AbstractOutput;
+import org.n52.io.response.FeatureOutput;
+import org.n52.io.response.GeometryOutput;
+import org.n52.io.response.OutputWithParameters;
+import org.n52.io.response.ParameterOutput;
+import org.n52.io.response.ServiceOutput;
+import org.n52.io.response.dataset.DatasetOutput;
+import org.n52.io.response.dataset.StationOutput;
+import org.n52.io.response.dataset.TimeseriesMetadataOutput;
+import org.n52.io.response.sampling.MeasuringProgramOutput;
+import org.n52.io.response.sampling.SamplingOutput;
+
+/**
+ * The output members selected via the {@value Parameters#FILTER_FIELDS} parameter, compiled once per request.
+ * Field names are matched case insensitive. An empty projection includes all fields.
+ *
+ * The selection of the known output fields (the field constants of the output types) is precompiled into a bit
+ * mask, so that {@link #includes(String)} answers these fields by a lookup of the constant. Other field names
+ * (e.g. of extensions) are compared case insensitive.
+ */
+public final class FieldProjection {
+
+    private static final Map<String, Integer> KNOWN_FIELDS = indexKnownFields(
+            ParameterOutput.ID,
+            ParameterOutput.HREF,
+            ParameterOutput.DOMAIN_ID,
+            ParameterOutput.LABEL,
+            ParameterOutput.EXTRAS,
+            AbstractOutput.SERVICE,
+            OutputWithParameters.PARAMETERS,
+            ServiceOutput.SERVICE_URL,
+            ServiceOutput.VERSION,
+            ServiceOutput.TYPE,
+            ServiceOutput.FEATURES,
+            ServiceOutput.QUANTITIES,
+            ServiceOutput.SUPPORTS_FIRST_LATEST,
+            ServiceOutput.SUPPORTED_MIME_TYPES,
+            FeatureOutput.PROPERTIES,
+            FeatureOutput.GEOMETRY,
+            FeatureOutput.DATASETS,
+            GeometryOutput.GEOMETRY_TYPE,
+            GeometryOutput.PLATFORM,
+            DatasetOutput.DATASET_TYPE,
+            DatasetOutput.OBSERVATION_TYPE,
+            DatasetOutput.VALUE_TYPE,
+            DatasetOutput.MOBILE,
+            DatasetOutput.INSITU,
+            DatasetOutput.UOM,
+            DatasetOutput.ORIGIN_TIMEZONE,
+            DatasetOutput.SMAPLING_TIME_START,
+            DatasetOutput.SMAPLING_TIME_END,
+            DatasetOutput.FEATURE,
+            DatasetOutput.REFERENCE_VALUES,
+            DatasetOutput.FIRST_VALUE,
+            DatasetOutput.LAST_VALUE,
+            DatasetOutput.HAS_SAMPLINGS,
+            TimeseriesMetadataOutput.STATION,
+            TimeseriesMetadataOutput.RENDERING_HINTS,
+            TimeseriesMetadataOutput.STATUS_INTERVALS,
+            StationOutput.TIMESERIES,
+            StationOutput.RAW_FORMATS,
+            SamplingOutput.COMMENT,
+            SamplingOutput.MONITORING_PROGRAM,
+            SamplingOutput.SAMPLER,
+            SamplingOutput.SAMPLING_METHOD,
+            SamplingOutput.ENVIRONMENTAL_CONDITIONS,
+            SamplingOutput.SAMPLING_OBSERVATIONS,
+            MeasuringProgramOutput.ORDER_ID,
+            MeasuringProgramOutput.MEASURING_PROGRAM_TIME_START,
+            MeasuringProgramOutput.MEASURING_PROGRAM_TIME_END,
+            MeasuringProgramOutput.OBSERVED_AREA,
+            MeasuringProgramOutput.PRODUCER,
+            MeasuringProgramOutput.SAMPLINGS,
+            MeasuringProgramOutput.PHENOMENA,
+            MeasuringProgramOutput.CATEGORIES);
+
+    private static final FieldProjection ALL = new FieldProjection(Collections.emptySet());
+
+    private final Set<String> fields;
+
+    // bit i is set if the i-th known field is selected
+    private final long knownFieldMask;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+        long mask = 0L;
+        for (Map.Entry<String, Integer> known : KNOWN_FIELDS.entrySet()) {
+            if (fields.contains(known.getKey().toLowerCase(Locale.ROOT))) {
+                mask |= 1L << known.getValue();
+            }
+        }
+        this.knownFieldMask = mask;
+    }
+
+    private static Map<String, Integer> indexKnownFields(String... names) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (String name : names) {
+            if (!indexes.containsKey(name)) {
+                indexes.put(name, indexes.size());
+            }
+        }
+        if (indexes.size() > Long.SIZE) {
+            throw new IllegalStateException("Too many known fields for a bit mask: " + indexes.size());
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    /**
+     * @param fields
+     *        the field names to project (can be <code>null</code>).
+     * @return a projection including the given fields only, or all fields if none are given.
+     */
+    public static FieldProjection of(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL;
+        }
+        Set<String> lowerCased = new HashSet<>(fields.size());
+        for (String field : fields) {
+            lowerCased.add(field.toLowerCase(Locale.ROOT));
+        }
+        return new FieldProjection(Collections.unmodifiableSet(lowerCased));
+    }
+
+    /**
+     * @return a projection including all fields.
+     */
+    public static FieldProjection all() {
+        return ALL;
+    }
+
+    /**
+     * @return <code>true</code> if no fields have been selected, so all fields are included.
+     */
+    public boolean includesAll() {
+        return fields.isEmpty();
+    }
+
+    /**
+     * @param field
+     *        the field name
+     * @return <code>true</code> if the field shall be part of the output.
+     */
+    public boolean includes(String field) {
+        if (fields.isEmpty()) {
+            return true;
+        }
+        if (field == null) {
+            return false;
+        }
+        Integer known = KNOWN_FIELDS.get(field);
+        return known != null
+                ? (knownFieldMask & 1L << known) != 0
+                : fields.contains(field.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the (lower cased) field names selected.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldProjection" + fields;
+    }
+
+}
@@ -46,6 +46,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -100,12 +101,17 @@ public final class IoParameters implements Parameters {
 
     private BiConsumer<String, IoParseException> parseExceptionHandle;
 
+    private CancellationToken cancellationToken = CancellationToken.NONE;
+
+    private volatile FieldProjection fieldProjection;
+
     protected IoParameters() {
         this(Collections.<String, JsonNode> emptyMap());
     }
 
     protected IoParameters(IoParameters other) {
         this(other.query);
+        this.cancellationToken = other.cancellationToken;
     }
 
     protected IoParameters(Map<String, JsonNode> queryParameters) {
@@ -182,6 +188,31 @@ public final class IoParameters implements Parameters {
         return this;
     }
 
+    /**
+     * @return the token signalling that processing the request has become obsolete, never <code>null</code>.
+     * @since 3.1.1
+     */
+    public CancellationToken getCancellationToken() {
+        return cancellationToken;
+    }
+
+    /**
+     * Binds the parameters to a cancellation token. Like the parse exception handle, the token is not part of
+     * the parameter values (e.g. of {@link #toCanonicalString()}) but is passed on to instances derived from
+     * this one.
+     *
+     * @param token
+     *        the token of the request, <code>null</code> to unbind.
+     * @return this instance
+     * @since 3.1.1
+     */
+    public IoParameters setCancellationToken(CancellationToken token) {
+        this.cancellationToken = token == null
+                ? CancellationToken.NONE
+                : token;
+        return this;
+    }
+
     /**
      * @return the value of {@value #OFFSET} parameter. If not present, the default {@value #DEFAULT_OFFSET}
      *         is returned.
@@ -202,6 +233,29 @@ public final class IoParameters implements Parameters {
         return getAsInteger(LIMIT, DEFAULT_LIMIT);
     }
 
+    /**
+     * @return the cursor of the {@value #CURSOR} parameter, or empty if not present or empty (first page).
+     * @throws IoParseException
+     *         if parameter could not be parsed.
+     */
+    public Optional<KeysetCursor> getCursor() {
+        return containsParameter(CURSOR)
+            ? Optional.ofNullable(handleSimpleValueParseException(CURSOR, this::parseCursor))
+            : Optional.empty();
+    }
+
+    private KeysetCursor parseCursor(String parameter) {
+        String value = getAsString(parameter);
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(value);
+        } catch (IllegalArgumentException e) {
+            throw createIoParseException(parameter, e).addHint("Use cursor values from 'Link' headers only!");
+        }
+    }
+
     /**
      * @return the requested chart width in pixels or the default {@value #DEFAULT_WIDTH}.
      * @throws IoParseException
@@ -512,6 +566,20 @@ public final class IoParameters implements Parameters {
         return getValuesOf(FILTER_FIELDS);
     }
 
+    /**
+     * @return the {@value #FILTER_FIELDS} parameter compiled to a projection. The projection is created only
+     *         once per instance.
+     */
+    public FieldProjection getFieldProjection() {
+        FieldProjection projection = fieldProjection;
+        if (projection == null) {
+            // benign race: projection is immutable and built from immutable state
+            projection = FieldProjection.of(getFields());
+            fieldProjection = projection;
+        }
+        return projection;
+    }
+
     public Set<String> getPlatformGeometryTypes() {
         return getValuesOf(FILTER_PLATFORM_GEOMETRIES);
     }
@@ -544,6 +612,40 @@ public final class IoParameters implements Parameters {
         return getValuesOf(SEARCH_TERM);
     }
 
+    /**
+     * @return the value of {@value #SEARCH_TYPEAHEAD} parameter. If not present, the default
+     *         {@value #DEFAULT_SEARCH_TYPEAHEAD} is returned.
+     * @throws IoParseException
+     *         if parsing parameter fails.
+     * @since 3.1.1
+     */
+    public boolean isSearchTypeahead() {
+        return getAsBoolean(SEARCH_TYPEAHEAD, DEFAULT_SEARCH_TYPEAHEAD);
+    }
+
+    /**
+     * @return the maximum number of typeahead results, i.e. the value of {@value #LIMIT} parameter or
+     *         {@value #DEFAULT_SEARCH_TYPEAHEAD_LIMIT} if not present.
+     * @throws IoParseException
+     *         if parsing parameter fails.
+     * @since 3.1.1
+     */
+    public int getSearchTypeaheadLimit() {
+        int limit = getLimit();
+        return limit > 0
+            ? limit
+            : DEFAULT_SEARCH_TYPEAHEAD_LIMIT;
+    }
+
+    /**
+     * @return the (lower cased) resource types search results shall be restricted to, or an empty set if
+     *         all types are of interest.
+     * @since 3.1.1
+     */
+    public Set<String> getSearchTypes() {
+        return getValuesOf(SEARCH_TYPES);
+    }
+
     public Set<String> getGeometryTypes() {
         return getValuesOf(GEOMETRY_TYPES);
     }
@@ -660,7 +762,35 @@ public final class IoParameters implements Parameters {
 
     }
 
+    /**
+     * @return the bounding box given by the {@value #BBOX} parameter or <code>null</code> if no such parameter
+     *         is present.
+     * @throws IoParseException
+     *         if parsing parameter fails.
+     * @since 3.1.1
+     */
+    public BoundingBox getBoundingBox() {
+        return createBbox();
+    }
+
     private BoundingBox parseBoundsFromVicinity() {
+        Vicinity vicinity = getVicinity();
+        if (vicinity == null) {
+            return null;
+        }
+        BoundingBox bounds = vicinity.calculateBounds();
+        LOGGER.debug("Parsed vicinity bounds: {}", bounds.toString());
+        return bounds;
+    }
+
+    /**
+     * @return the vicinity given by the {@value #NEAR} parameter (center in CRS:84) or <code>null</code> if no
+     *         such parameter is present.
+     * @throws IoParseException
+     *         if parsing parameter fails.
+     * @since 3.1.1
+     */
+    public Vicinity getVicinity() {
         if (!containsParameter(NEAR)) {
             return null;
         }
@@ -680,9 +810,7 @@ public final class IoParameters implements Parameters {
         if (containsParameter(CRS)) {
             vicinity.setCenter(convertToCrs84(vicinity.getCenter()));
         }
-        BoundingBox bounds = vicinity.calculateBounds();
-        LOGGER.debug("Parsed vicinity bounds: {}", bounds.toString());
-        return bounds;
+        return vicinity;
     }
 
     private boolean bboxMatching(String value, int repeats) {
@@ -975,7 +1103,8 @@ public final class IoParameters implements Parameters {
     public IoParameters removeAllOf(String key) {
         MultiValueMap<String, JsonNode> newValues = new LinkedMultiValueMap<>(query);
         newValues.remove(key.toLowerCase());
-        return new IoParameters(newValues).setParseExceptionHandle(parseExceptionHandle);
+        return new IoParameters(newValues).setParseExceptionHandle(parseExceptionHandle)
+                                          .setCancellationToken(cancellationToken);
     }
 
     /**
@@ -1000,7 +1129,8 @@ public final class IoParameters implements Parameters {
 
         MultiValueMap<String, JsonNode> mergedValues = new LinkedMultiValueMap<>(query);
         mergedValues.putAll(convertToJsonNodes(newValues));
-        return new IoParameters(mergedValues).setParseExceptionHandle(parseExceptionHandle);
+        return new IoParameters(mergedValues).setParseExceptionHandle(parseExceptionHandle)
+                                             .setCancellationToken(cancellationToken);
     }
 
     public IoParameters replaceWith(String key, String... values) {
@@ -1037,6 +1167,14 @@ public final class IoParameters implements Parameters {
         return "IoParameters{ behaveBackwardsCompatible: " + behaveBackwardsCompatible + ", query=" + query + '}';
     }
 
+    /**
+     * @return a representation of all parameters independent from the order the parameters were given, e.g.
+     *         to be used as cache key.
+     */
+    public String toCanonicalString() {
+        return new TreeMap<>(query).toString();
+    }
+
     protected Map<String, JsonNode> mergeToLowerCasedKeys(Map<String, JsonNode> parameters) {
         Map<String, JsonNode> queryParameters = new HashMap<>();
         for (Entry<String, JsonNode> entry : parameters.entrySet()) {
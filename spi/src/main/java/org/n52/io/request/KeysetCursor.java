@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+import org.n52.io.response.ParameterOutput;
+
+/**
+ * Marks the position of the last item of a page when paging through a collection by its natural ordering
+ * (label first, id second, see {@link ParameterOutput#defaultComparator()}). In contrast to an offset, a
+ * cursor allows backends to seek directly to the next page (keyset pagination) instead of counting and
+ * skipping all preceding items.
+ * <p>
+ * The cursor is passed as opaque token via the {@value Parameters#CURSOR} parameter. For backends not
+ * supporting cursors, the token also carries the {@value Parameters#OFFSET} of the page it points to.
+ * </p>
+ */
+public final class KeysetCursor {
+
+    private static final char LENGTH_SEPARATOR = ':';
+
+    private static final char PAGE_SEPARATOR = '@';
+
+    private static final int UNKNOWN_PAGE = -1;
+
+    private static final Comparator<String> LABEL_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final String label;
+
+    private final String id;
+
+    private final int page;
+
+    public KeysetCursor(String label, String id) {
+        this(label, id, UNKNOWN_PAGE);
+    }
+
+    /**
+     * @param label
+     *        the label of the last item seen (can be <code>null</code>).
+     * @param id
+     *        the id of the last item seen.
+     * @param page
+     *        the page offset the cursor points to, or a negative number if unknown.
+     */
+    public KeysetCursor(String label, String id, int page) {
+        Objects.requireNonNull(id, "id must not be null");
+        this.label = label;
+        this.id = id;
+        this.page = page < 0
+                ? UNKNOWN_PAGE
+                : page;
+    }
+
+    /**
+     * @return the label of the last item seen (can be <code>null</code>).
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the id of the last item seen.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the page offset the cursor points to, or empty if unknown.
+     */
+    public OptionalInt getPage() {
+        return page == UNKNOWN_PAGE
+                ? OptionalInt.empty()
+                : OptionalInt.of(page);
+    }
+
+    /**
+     * @param output
+     *        the output to check
+     * @return <code>true</code> if the given output is ordered after this cursor position
+     */
+    public boolean isBefore(ParameterOutput output) {
+        int labelOrder = LABEL_COMPARATOR.compare(label, output.getLabel());
+        return labelOrder < 0 || labelOrder == 0 && id.compareTo(output.getId()) < 0;
+    }
+
+    /**
+     * @return the opaque token representing this cursor.
+     */
+    public String encode() {
+        // prefix label length to keep label and id distinguishable
+        String plain = label == null
+                ? -1 + "" + LENGTH_SEPARATOR + id
+                : label.length() + "" + LENGTH_SEPARATOR + label + id;
+        if (page != UNKNOWN_PAGE) {
+            plain = page + "" + PAGE_SEPARATOR + plain;
+        }
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token
+     *        a token created by {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException
+     *         if the token is invalid
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("Empty cursor.");
+        }
+        String plain = new String(Base64.getUrlDecoder()
+                                        .decode(token),
+                                  StandardCharsets.UTF_8);
+        int separatorIndex = plain.indexOf(LENGTH_SEPARATOR);
+        if (separatorIndex < 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        try {
+            // page is prefixed to the label length, so it precedes the first length separator
+            int pageIndex = plain.lastIndexOf(PAGE_SEPARATOR, separatorIndex);
+            int page = pageIndex < 0
+                    ? UNKNOWN_PAGE
+                    : Integer.parseInt(plain.substring(0, pageIndex));
+            int labelLength = Integer.parseInt(plain.substring(pageIndex + 1, separatorIndex));
+            int labelStart = separatorIndex + 1;
+            if (labelLength < 0) {
+                return new KeysetCursor(null, plain.substring(labelStart), page);
+            }
+            int idStart = labelStart + labelLength;
+            if (idStart > plain.length()) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(plain.substring(labelStart, idStart), plain.substring(idStart), page);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * @param output
+     *        the last output of a page.
+     * @return a cursor pointing after the given output.
+     */
+    public static KeysetCursor after(ParameterOutput output) {
+        return new KeysetCursor(output.getLabel(), output.getId());
+    }
+
+    /**
+     * @param output
+     *        the last output of a page.
+     * @param page
+     *        the offset of the page following the given output.
+     * @return a cursor pointing after the given output, additionally carrying the offset of the next page.
+     */
+    public static KeysetCursor after(ParameterOutput output, int page) {
+        return new KeysetCursor(output.getLabel(), output.getId(), page);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(label, id, page);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor other = (KeysetCursor) obj;
+        return Objects.equals(label, other.label)
+                && Objects.equals(id, other.id)
+                && page == other.page;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+
+}
@@ -41,6 +41,27 @@ public interface Parameters {
 
     String SEARCH_TERM = "q";
 
+    /**
+     * If search shall run in typeahead mode, i.e. only the best matches (at most {@link #LIMIT}) are
+     * returned and the search term is treated as prefix.
+     */
+    String SEARCH_TYPEAHEAD = "typeahead";
+
+    /**
+     * The default search mode. Refer to {@link #SEARCH_TYPEAHEAD}
+     */
+    boolean DEFAULT_SEARCH_TYPEAHEAD = false;
+
+    /**
+     * The default number of typeahead results if no {@link #LIMIT} is given.
+     */
+    int DEFAULT_SEARCH_TYPEAHEAD_LIMIT = 10;
+
+    /**
+     * Restricts search results to the given resource types, e.g. <code>phenomenon,station</code>.
+     */
+    String SEARCH_TYPES = "types";
+
     /**
      * How detailed the output shall be.
      */
@@ -83,6 +104,14 @@ public interface Parameters {
      */
     int DEFAULT_LIMIT = -1;
 
+    /**
+     * Marks the last item of the previous page (keyset pagination). Backends supporting it shall only return
+     * items ordered after the referenced item (by label, then by id). Takes precedence over {@link #OFFSET}.
+     * For backends not supporting cursors, the web layer translates the cursor into an {@link #OFFSET}.
+     * Refer to {@link KeysetCursor}.
+     */
+    String CURSOR = "cursor";
+
     /**
      * Determines the locale the output shall have.
      */
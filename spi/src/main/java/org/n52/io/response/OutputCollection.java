@@ -29,19 +29,28 @@
 package org.n52.io.response;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class OutputCollection<T extends ParameterOutput> implements Iterable<T> {
 
+    /**
+     * Collections larger than this are sorted in parallel.
+     */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 14;
+
     private final List<T> items;
 
+    private boolean sorted;
+
     protected OutputCollection() {
         this(new ArrayList<>());
     }
@@ -57,25 +66,81 @@ public class OutputCollection<T extends ParameterOutput> implements Iterable<T>
 
     public final void addItem(T item) {
         items.add(item);
+        sorted = false;
     }
 
     public final void addItems(Collection<T> toAdd) {
         this.items.addAll(toAdd);
+        sorted = false;
     }
 
     public void removeItem(T item) {
         items.remove(item);
     }
 
+    /**
+     * Removes all items not matching the given filter. The order of the remaining items is kept.
+     *
+     * @param filter
+     *        the filter items have to match
+     */
+    public void retainItems(Predicate<T> filter) {
+        items.removeIf(filter.negate());
+    }
+
     public T getItem(int i) {
         return items.get(i);
     }
 
+    /**
+     * @return the items sorted by {@link #getComparator()}. Items are sorted only once unless new items get
+     *         added.
+     */
     public List<T> getItems() {
-        Collections.sort(items, getComparator());
+        if (!sorted) {
+            sort();
+            sorted = true;
+        }
         return Collections.unmodifiableList(items);
     }
 
+    private void sort() {
+        Comparator<T> comparator = getComparator();
+        if (comparator == ParameterOutput.defaultComparator()) {
+            sortByDefaultKeys();
+        } else if (items.size() > PARALLEL_SORT_THRESHOLD) {
+            @SuppressWarnings("unchecked")
+            T[] array = (T[]) items.toArray(new ParameterOutput[0]);
+            Arrays.parallelSort(array, comparator);
+            replaceItems(Arrays.asList(array));
+        } else {
+            items.sort(comparator);
+        }
+    }
+
+    private void sortByDefaultKeys() {
+        // resolve label and id once per item instead of once per comparison
+        @SuppressWarnings("unchecked")
+        SortKey<T>[] keys = new SortKey[items.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new SortKey<>(items.get(i));
+        }
+        if (keys.length > PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            items.set(i, keys[i].item);
+        }
+    }
+
+    private void replaceItems(List<T> sortedItems) {
+        for (int i = 0; i < sortedItems.size(); i++) {
+            items.set(i, sortedItems.get(i));
+        }
+    }
+
     public int size() {
         return items.size();
     }
@@ -97,4 +162,27 @@ public class OutputCollection<T extends ParameterOutput> implements Iterable<T>
         return items.iterator();
     }
 
+    private static final class SortKey<T extends ParameterOutput> implements Comparable<SortKey<T>> {
+
+        private final String label;
+
+        private final String id;
+
+        private final T item;
+
+        SortKey(T item) {
+            this.label = item.getLabel();
+            this.id = item.getId();
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(SortKey<T> other) {
+            int labelOrder = ParameterOutput.LABEL_COMPARATOR.compare(label, other.label);
+            return labelOrder != 0
+                    ? labelOrder
+                    : id.compareTo(other.id);
+        }
+    }
+
 }
@@ -52,6 +52,13 @@ public abstract class ParameterOutput extends SelfSerializedOutput implements Ra
     public static final String EXTRAS = "extras";
     public static final String RAWFORMATS = "service";
 
+    // some outputs don't have labels, e.g. GeometryInfo
+    static final Comparator<String> LABEL_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private static final Comparator<ParameterOutput> DEFAULT_COMPARATOR =
+            Comparator.comparing(ParameterOutput::getLabel, LABEL_COMPARATOR)
+                      .thenComparing(ParameterOutput::getId);
+
     private String id;
 
     private OptionalOutput<String> href;
@@ -73,8 +80,8 @@ public abstract class ParameterOutput extends SelfSerializedOutput implements Ra
                              T value,
                              IoParameters parameters,
                              Consumer<OptionalOutput<T>> consumer) {
-        Set<String> fields = parameters.getFields();
-        boolean serialize = fields.isEmpty() || fields.contains(parameter);
+        boolean serialize = parameters.getFieldProjection()
+                                      .includes(parameter);
         consumer.accept(OptionalOutput.of(value, serialize));
     }
 
@@ -208,14 +215,9 @@ public abstract class ParameterOutput extends SelfSerializedOutput implements Ra
      *        the actual type.
      * @return a label comparing {@link Comparator}
      */
+    @SuppressWarnings("unchecked")
     public static <T extends ParameterOutput> Comparator<T> defaultComparator() {
-        return (T o1, T o2) -> {
-            // some outputs don't have labels, e.g. GeometryInfo
-            Comparator<String> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
-            return Comparator.comparing(ParameterOutput::getLabel, nullsFirst)
-                             .thenComparing(ParameterOutput::getId)
-                             .compare(o1, o2);
-        };
+        return (Comparator<T>) DEFAULT_COMPARATOR;
     }
 
 }
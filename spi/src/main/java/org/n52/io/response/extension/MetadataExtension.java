@@ -28,11 +28,12 @@
  */
 package org.n52.io.response.extension;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import org.n52.io.request.IoParameters;
 import org.n52.io.response.ParameterOutput;
@@ -49,7 +50,7 @@ public abstract class MetadataExtension<T extends ParameterOutput> {
      * </p>
      * <p>
      * Implementation is responsible to respect selected fields from the query
-     * which can be obtained by {@link IoParameters#getFields() }.</p>
+     * which can be obtained by {@link IoParameters#getFieldProjection() }.</p>
      *
      * @param output the actual parameter output to get extra metadata for.
      * @param parameters I/O parameters to fine grain extra metadata assembly.
@@ -61,15 +62,26 @@ public abstract class MetadataExtension<T extends ParameterOutput> {
         return Collections.singletonList(getExtensionName());
     }
 
-    protected boolean hasExtrasToReturn(T output, IoParameters parameters) {
-        return parameters.getFields().isEmpty()
-                || containsIgnoreCase(parameters.getFields());
+    /**
+     * Gets the extra metadata field names of multiple outputs in one pass. Implementations may override this
+     * to resolve shared state only once per collection. By default,
+     * {@link #getExtraMetadataFieldNames(ParameterOutput)} is called for each output.
+     *
+     * @param outputs the outputs to get the extra metadata field names for.
+     * @return the field names of each output, in the same order as the given outputs.
+     * @since 3.1.1
+     */
+    public List<Collection<String>> getAllExtraMetadataFieldNames(List<T> outputs) {
+        List<Collection<String>> fieldNames = new ArrayList<>(outputs.size());
+        for (T output : outputs) {
+            fieldNames.add(getExtraMetadataFieldNames(output));
+        }
+        return fieldNames;
     }
 
-
-    private boolean containsIgnoreCase(Set<String> fields) {
-        return fields.stream().map(String::toLowerCase)
-                .anyMatch(getExtensionName().toLowerCase()::equals);
+    protected boolean hasExtrasToReturn(T output, IoParameters parameters) {
+        return parameters.getFieldProjection()
+                         .includes(getExtensionName());
     }
 
     protected Map<String, Object> wrapSingleIntoMap(Object metadata) {
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.n52.io.geojson.GeoJSONGeometrySerializer;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A GeoJSON point feature summarizing a number of geometries close to each other. Single geometries keep
+ * their id so clients can link to the actual resource.
+ *
+ * @since 3.1.1
+ */
+@JsonPropertyOrder({
+    "type",
+    "geometry",
+    "properties"
+})
+public class GeometryCluster {
+
+    public static final String COUNT = "count";
+
+    public static final String ID = "id";
+
+    private final Point center;
+
+    private final int count;
+
+    private final String id;
+
+    public GeometryCluster(Point center, int count, String id) {
+        this.center = center;
+        this.count = count;
+        this.id = count == 1
+                ? id
+                : null;
+    }
+
+    public String getType() {
+        return "Feature";
+    }
+
+    @JsonSerialize(using = GeoJSONGeometrySerializer.class)
+    public Geometry getGeometry() {
+        return center;
+    }
+
+    public Map<String, Object> getProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(COUNT, count);
+        if (id != null) {
+            properties.put(ID, id);
+        }
+        return properties;
+    }
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.n52.io.crs.WGS84Util;
+
+/**
+ * An immutable in-memory spatial index (STR-tree) over items having a geometry. All geometries are expected
+ * to be given in CRS:84 (lon/lat ordered WGS84).
+ *
+ * Instances are safe to be queried concurrently.
+ *
+ * @param <T>
+ *        the type of indexed items
+ * @since 3.1.1
+ */
+public final class SpatialIndex<T> {
+
+    private static final double MAX_LONGITUDE = 180d;
+
+    private static final double MAX_LATITUDE = 90d;
+
+    private final STRtree tree;
+
+    private final int size;
+
+    private SpatialIndex(STRtree tree, int size) {
+        this.tree = tree;
+        this.size = size;
+    }
+
+    /**
+     * Creates an index over all items having a non-empty geometry. Items without geometry are skipped.
+     *
+     * @param <T>
+     *        the type of indexed items
+     * @param items
+     *        the items to index
+     * @param geometryOf
+     *        resolves the CRS:84 geometry of an item
+     * @return the index
+     */
+    public static <T> SpatialIndex<T> build(Collection<T> items, Function<T, Geometry> geometryOf) {
+        STRtree tree = new STRtree();
+        int size = 0;
+        for (T item : items) {
+            Geometry geometry = geometryOf.apply(item);
+            if (geometry != null && !geometry.isEmpty()) {
+                tree.insert(geometry.getEnvelopeInternal(), new Entry<>(item, geometry));
+                size++;
+            }
+        }
+        // build eagerly, a built tree is read-only and can be queried concurrently
+        tree.build();
+        return new SpatialIndex<>(tree, size);
+    }
+
+    /**
+     * @return the number of indexed items.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param envelope
+     *        the CRS:84 envelope
+     * @return all items whose geometries are completely contained by the given envelope.
+     */
+    public List<T> within(Envelope envelope) {
+        List<T> result = new ArrayList<>();
+        for (Entry<T> entry : query(envelope)) {
+            if (envelope.contains(entry.geometry.getEnvelopeInternal())) {
+                result.add(entry.item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds all items within a given great-circle distance. Non-point geometries match if at least one of
+     * their coordinates is within the distance.
+     *
+     * @param center
+     *        the CRS:84 center point
+     * @param radius
+     *        the distance in kilometer
+     * @return all items within the given distance around the center.
+     */
+    public List<T> near(Point center, double radius) {
+        if (center == null || center.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>();
+        for (Entry<T> entry : query(createSearchEnvelope(center.getX(), center.getY(), radius))) {
+            if (isWithinDistance(entry.geometry, center.getX(), center.getY(), radius)) {
+                result.add(entry.item);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Entry<T>> query(Envelope envelope) {
+        return tree.query(envelope);
+    }
+
+    private static Envelope createSearchEnvelope(double lon, double lat, double radius) {
+        double latitudeDelta = WGS84Util.getLatitudeDelta(radius);
+        double minLat = lat - latitudeDelta;
+        double maxLat = lat + latitudeDelta;
+        if (minLat <= -MAX_LATITUDE || maxLat >= MAX_LATITUDE) {
+            // circle covers a pole, so all longitudes are affected
+            return new Envelope(-MAX_LONGITUDE,
+                                MAX_LONGITUDE,
+                                Math.max(minLat, -MAX_LATITUDE),
+                                Math.min(maxLat, MAX_LATITUDE));
+        }
+        // longitude delta grows with latitude, so take the one closest to the pole
+        double farthestLatitude = Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        if (latitudeDelta >= MAX_LONGITUDE * Math.cos(farthestLatitude)) {
+            // the latitude circle is shorter than the circle's diameter
+            return new Envelope(-MAX_LONGITUDE, MAX_LONGITUDE, minLat, maxLat);
+        }
+        double longitudeDelta = WGS84Util.getLongitudeDelta(farthestLatitude, radius);
+        double minLon = lon - longitudeDelta;
+        double maxLon = lon + longitudeDelta;
+        if (minLon < -MAX_LONGITUDE || maxLon > MAX_LONGITUDE) {
+            // crossing the antimeridian: keep it simple and query the whole latitude band
+            return new Envelope(-MAX_LONGITUDE, MAX_LONGITUDE, minLat, maxLat);
+        }
+        return new Envelope(minLon, maxLon, minLat, maxLat);
+    }
+
+    private static boolean isWithinDistance(Geometry geometry, double lon, double lat, double radius) {
+        if (geometry instanceof Point) {
+            Point point = (Point) geometry;
+            return WGS84Util.shortestDistanceBetween(lon, lat, point.getX(), point.getY()) <= radius;
+        }
+        for (Coordinate coordinate : geometry.getCoordinates()) {
+            if (WGS84Util.shortestDistanceBetween(lon, lat, coordinate.x, coordinate.y) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry<T> {
+
+        private final T item;
+
+        private final Geometry geometry;
+
+        Entry(T item, Geometry geometry) {
+            this.item = item;
+            this.geometry = geometry;
+        }
+    }
+
+}
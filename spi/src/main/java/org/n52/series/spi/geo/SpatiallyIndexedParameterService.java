@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.locationtech.jts.geom.Envelope;
+import org.n52.io.crs.BoundingBox;
+import org.n52.io.geojson.GeoJSONFeature;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.request.Vicinity;
+import org.n52.io.response.OutputCollection;
+import org.n52.io.response.ParameterOutput;
+import org.n52.series.spi.srv.ParameterService;
+import org.n52.series.spi.srv.RawDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Composes a {@link ParameterService} and answers {@value Parameters#BBOX} and {@value Parameters#NEAR}
+ * filters from an in-memory {@link SpatialIndex}. The composed service receives the query with the spatial
+ * filters replaced by an id filter (e.g. {@value Parameters#PLATFORMS} for platforms) listing the indexed items
+ * matching those filters. All other filters as well as paging are still applied by the composed service.
+ *
+ * If more than {@link #setMaxIdFilterSize(int) maxIdFilterSize} items match, the query is passed unchanged to
+ * the composed service so the backend applies the spatial filter itself instead of receiving a huge id list.
+ *
+ * The index is built lazily on first spatial request. It is rebuilt on the first spatial request after the
+ * {@link #setRefreshInterval(long) refresh interval} has passed (while other requests keep using the previous
+ * index), or whenever the owner calls {@link #refresh()}. With the interval disabled (the default), the owner
+ * of this service is responsible for scheduling {@link #refresh()} to reflect changes of the underlying data.
+ * Geometries are expected in CRS:84, so compose this service before any transforming service.
+ *
+ * @param <T>
+ *        the actual parameter type.
+ * @since 3.1.1
+ */
+public class SpatiallyIndexedParameterService<T extends ParameterOutput & GeoJSONFeature>
+        extends ParameterService<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpatiallyIndexedParameterService.class);
+
+    private static final int DEFAULT_MAX_ID_FILTER_SIZE = 1000;
+
+    private final ParameterService<T> composedService;
+
+    private final String idFilter;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile SpatialIndex<T> index;
+
+    private volatile long lastRefresh;
+
+    private int maxIdFilterSize = DEFAULT_MAX_ID_FILTER_SIZE;
+
+    private long refreshInterval;
+
+    /**
+     * @param toCompose
+     *        the service to compose
+     * @param idFilter
+     *        the name of the filter parameter the composed service restricts its items by id with, e.g.
+     *        {@value Parameters#PLATFORMS} for a platform service
+     */
+    public SpatiallyIndexedParameterService(ParameterService<T> toCompose, String idFilter) {
+        this.composedService = toCompose;
+        this.idFilter = idFilter;
+    }
+
+    /**
+     * @param maxIdFilterSize
+     *        the maximum number of matching ids passed as id filter to the composed service. Above this
+     *        size the spatial filter is left to the composed service (default: 1000).
+     */
+    public void setMaxIdFilterSize(int maxIdFilterSize) {
+        this.maxIdFilterSize = maxIdFilterSize;
+    }
+
+    /**
+     * @param refreshInterval
+     *        the age in milliseconds after which the index is rebuilt on the next spatial request. Values
+     *        {@code <= 0} disable automatic rebuilds (default).
+     */
+    public void setRefreshInterval(long refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Rebuilds the spatial index from all items of the composed service. Requests are served from the
+     * previous index until the new one is ready.
+     */
+    public void refresh() {
+        IoParameters parameters = IoParameters.createDefaults()
+                                              .extendWith(Parameters.EXPANDED, Boolean.TRUE.toString());
+        OutputCollection<T> items = composedService.getExpandedParameters(parameters);
+        SpatialIndex<T> refreshed = SpatialIndex.build(items.getItems(), GeoJSONFeature::getGeometry);
+        LOGGER.debug("Refreshed spatial index with {} items.", refreshed.size());
+        lastRefresh = System.currentTimeMillis();
+        index = refreshed;
+    }
+
+    private SpatialIndex<T> getIndex() {
+        SpatialIndex<T> current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    refresh();
+                }
+                current = index;
+            }
+        } else if (isStale() && refreshing.compareAndSet(false, true)) {
+            try {
+                refresh();
+                current = index;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale() {
+        return refreshInterval > 0
+                && System.currentTimeMillis() - lastRefresh >= refreshInterval;
+    }
+
+    @Override
+    public OutputCollection<T> getExpandedParameters(IoParameters query) {
+        if (!hasSpatialFilter(query)) {
+            return composedService.getExpandedParameters(query);
+        }
+        Set<String> ids = getFilteredIds(query);
+        if (ids.size() > maxIdFilterSize) {
+            LOGGER.debug("{} items match spatial filter, leaving it to the composed service.", ids.size());
+            return composedService.getExpandedParameters(query);
+        }
+        return ids.isEmpty()
+                ? new OutputCollection<T>(Collections.emptyList())
+                : retainAll(composedService.getExpandedParameters(replaceSpatialFilter(query, ids)), ids);
+    }
+
+    @Override
+    public OutputCollection<T> getCondensedParameters(IoParameters query) {
+        if (!hasSpatialFilter(query)) {
+            return composedService.getCondensedParameters(query);
+        }
+        Set<String> ids = getFilteredIds(query);
+        if (ids.size() > maxIdFilterSize) {
+            LOGGER.debug("{} items match spatial filter, leaving it to the composed service.", ids.size());
+            return composedService.getCondensedParameters(query);
+        }
+        return ids.isEmpty()
+                ? new OutputCollection<T>(Collections.emptyList())
+                : retainAll(composedService.getCondensedParameters(replaceSpatialFilter(query, ids)), ids);
+    }
+
+    @Override
+    public OutputCollection<T> getParameters(String[] items, IoParameters query) {
+        if (!hasSpatialFilter(query)) {
+            return composedService.getParameters(items, query);
+        }
+        Set<String> ids = getMatchingIds(query);
+        OutputCollection<T> result = composedService.getParameters(items, removeSpatialFilter(query));
+        return retainAll(result, ids);
+    }
+
+    @Override
+    public T getParameter(String item, IoParameters query) {
+        return composedService.getParameter(item, query);
+    }
+
+    @Override
+    public boolean exists(String id, IoParameters parameters) {
+        return composedService.exists(id, parameters);
+    }
+
+    @Override
+    public RawDataService getRawDataService() {
+        return composedService.getRawDataService();
+    }
+
+    @Override
+    public boolean supportsRawData() {
+        return composedService.supportsRawData();
+    }
+
+    @Override
+    public boolean supportsCursor() {
+        return composedService.supportsCursor();
+    }
+
+    private boolean hasSpatialFilter(IoParameters query) {
+        return query.containsParameter(Parameters.BBOX) || query.containsParameter(Parameters.NEAR);
+    }
+
+    private IoParameters removeSpatialFilter(IoParameters query) {
+        return query.removeAllOf(Parameters.BBOX)
+                    .removeAllOf(Parameters.NEAR);
+    }
+
+    private IoParameters replaceSpatialFilter(IoParameters query, Set<String> ids) {
+        return removeSpatialFilter(query).replaceWith(idFilter, String.join(",", ids));
+    }
+
+    /**
+     * @return the ids of all items matching the spatial filter and, if present, the id filter of the query
+     */
+    private Set<String> getFilteredIds(IoParameters query) {
+        Set<String> ids = getMatchingIds(query);
+        if (!query.containsParameter(idFilter)) {
+            return ids;
+        }
+        Set<String> requested = toLowerCase(Arrays.asList(query.getAsString(idFilter)
+                                                               .split(",")));
+        return ids.stream()
+                  .filter(id -> requested.contains(id.toLowerCase(Locale.ROOT)))
+                  .collect(Collectors.toSet());
+    }
+
+    /**
+     * @return the ids of all items matching the bbox or near filter (items matching either one are included).
+     */
+    private Set<String> getMatchingIds(IoParameters query) {
+        SpatialIndex<T> current = getIndex();
+        Set<String> ids = new HashSet<>();
+        BoundingBox bbox = query.getBoundingBox();
+        if (bbox != null) {
+            Envelope envelope = bbox.asEnvelop();
+            ids.addAll(toIds(current.within(envelope)));
+        }
+        Vicinity vicinity = query.getVicinity();
+        if (vicinity != null) {
+            ids.addAll(toIds(current.near(vicinity.getCenter(), vicinity.getRadius())));
+        }
+        return ids;
+    }
+
+    private Set<String> toIds(List<T> items) {
+        return items.stream()
+                    .map(ParameterOutput::getId)
+                    .collect(Collectors.toSet());
+    }
+
+    private Set<String> toLowerCase(List<String> values) {
+        return values.stream()
+                     .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                     .collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes items not matching the spatial filter (in case the composed service ignores the id filter),
+     * keeping the collection instance (and type) of the composed service.
+     */
+    private OutputCollection<T> retainAll(OutputCollection<T> items, Set<String> ids) {
+        if (items != null) {
+            items.retainItems(item -> ids.contains(item.getId()));
+        }
+        return items;
+    }
+
+}
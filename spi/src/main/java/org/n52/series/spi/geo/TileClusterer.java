@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.n52.io.geojson.GeoJSONFeature;
+
+/**
+ * Clusters the geometries of a set of features per map tile. Tiles are addressed in the common XYZ scheme
+ * (web mercator, origin top left). Each tile is divided into a square grid, all geometries falling into the
+ * same grid cell are summarized by a single {@link GeometryCluster} located at their mean position.
+ *
+ * Representative points are computed and indexed once, so clustering a tile only touches the geometries
+ * within that tile. Geometries have to be given in CRS:84. Instances are safe to be used concurrently.
+ *
+ * @since 3.1.1
+ */
+public final class TileClusterer {
+
+    /**
+     * Default number of grid cells per tile axis.
+     */
+    public static final int DEFAULT_GRID_SIZE = 8;
+
+    public static final int MAX_GRID_SIZE = 256;
+
+    public static final int MAX_ZOOM = 24;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    private final SpatialIndex<Member> index;
+
+    private final int gridSize;
+
+    private TileClusterer(SpatialIndex<Member> index, int gridSize) {
+        this.index = index;
+        this.gridSize = gridSize;
+    }
+
+    /**
+     * @param features
+     *        the features to cluster
+     * @param gridSize
+     *        the number of grid cells per tile axis
+     * @return a clusterer for the given features
+     * @throws IllegalArgumentException
+     *         if grid size is not within <code>1</code> and {@link #MAX_GRID_SIZE}
+     */
+    public static TileClusterer of(Collection< ? extends GeoJSONFeature> features, int gridSize) {
+        if (gridSize < 1 || gridSize > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("Grid size must be within 1 and " + MAX_GRID_SIZE);
+        }
+        List<Member> members = new ArrayList<>(features.size());
+        for (GeoJSONFeature feature : features) {
+            if (feature.isSetGeometry()) {
+                Geometry geometry = feature.getGeometry();
+                Point point = geometry instanceof Point
+                        ? (Point) geometry
+                        : geometry.getCentroid();
+                members.add(new Member(feature.getId(), point));
+            }
+        }
+        return new TileClusterer(SpatialIndex.build(members, m -> m.point), gridSize);
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * @param zoom
+     *        the zoom level
+     * @param x
+     *        the tile column
+     * @param y
+     *        the tile row
+     * @return if the given tile address exists
+     */
+    public static boolean isValidTile(int zoom, int x, int y) {
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return false;
+        }
+        long tiles = 1L << zoom;
+        return x >= 0 && x < tiles && y >= 0 && y < tiles;
+    }
+
+    /**
+     * @param zoom
+     *        the zoom level
+     * @param x
+     *        the tile column
+     * @param y
+     *        the tile row
+     * @return the CRS:84 envelope of the given tile
+     */
+    public static Envelope getTileEnvelope(int zoom, int x, int y) {
+        double tiles = 1L << zoom;
+        return new Envelope(toLongitude(x, tiles),
+                            toLongitude(x + 1, tiles),
+                            toLatitude(y + 1, tiles),
+                            toLatitude(y, tiles));
+    }
+
+    private static double toLongitude(double x, double tiles) {
+        return x / tiles * 360d - 180d;
+    }
+
+    private static double toLatitude(double y, double tiles) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / tiles))));
+    }
+
+    private static double toTileX(double longitude, double tiles) {
+        return (longitude + 180d) / 360d * tiles;
+    }
+
+    private static double toTileY(double latitude, double tiles) {
+        double latInRad = Math.toRadians(latitude);
+        return (1 - Math.log(Math.tan(latInRad) + 1 / Math.cos(latInRad)) / Math.PI) / 2 * tiles;
+    }
+
+    /**
+     * @param zoom
+     *        the zoom level
+     * @param x
+     *        the tile column
+     * @param y
+     *        the tile row
+     * @return the clusters of the given tile ordered by grid cell (row major)
+     * @throws IllegalArgumentException
+     *         if the tile does not exist
+     */
+    public GeometryClusters cluster(int zoom, int x, int y) {
+        if (!isValidTile(zoom, x, y)) {
+            throw new IllegalArgumentException("Invalid tile: " + zoom + "/" + x + "/" + y);
+        }
+        double tiles = 1L << zoom;
+        Cell[] cells = new Cell[gridSize * gridSize];
+        for (Member member : index.within(getTileEnvelope(zoom, x, y))) {
+            double tileX = toTileX(member.point.getX(), tiles);
+            double tileY = toTileY(member.point.getY(), tiles);
+            if ((int) Math.floor(tileX) != x || (int) Math.floor(tileY) != y) {
+                // on the edge to a neighbouring tile which takes the member
+                continue;
+            }
+            int column = Math.min(gridSize - 1, (int) ((tileX - x) * gridSize));
+            int row = Math.min(gridSize - 1, (int) ((tileY - y) * gridSize));
+            int cellIndex = row * gridSize + column;
+            if (cells[cellIndex] == null) {
+                cells[cellIndex] = new Cell(member.id);
+            }
+            cells[cellIndex].add(member.point);
+        }
+
+        List<GeometryCluster> clusters = new ArrayList<>();
+        for (Cell cell : cells) {
+            if (cell != null) {
+                Point center = geometryFactory.createPoint(new Coordinate(cell.sumX / cell.count,
+                                                                          cell.sumY / cell.count));
+                clusters.add(new GeometryCluster(center, cell.count, cell.firstId));
+            }
+        }
+        return new GeometryClusters(zoom, clusters);
+    }
+
+    private static final class Member {
+
+        private final String id;
+
+        private final Point point;
+
+        Member(String id, Point point) {
+            this.id = id;
+            this.point = point;
+        }
+    }
+
+    private static final class Cell {
+
+        private final String firstId;
+
+        private int count;
+
+        private double sumX;
+
+        private double sumY;
+
+        Cell(String firstId) {
+            this.firstId = firstId;
+        }
+
+        void add(Point point) {
+            count++;
+            sumX += point.getX();
+            sumY += point.getY();
+        }
+    }
+
+}
@@ -28,9 +28,16 @@
  */
 package org.n52.series.spi.geo;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import org.locationtech.jts.geom.Geometry;
 import org.n52.io.crs.CRSUtils;
 import org.n52.io.request.IoParameters;
+import org.n52.io.response.OutputCollection;
+import org.n52.io.response.ParameterOutput;
 import org.n52.io.response.dataset.StationOutput;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.operation.TransformException;
@@ -41,6 +48,22 @@ public class TransformationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TransformationService.class);
 
+    private boolean transformInPlace;
+
+    public boolean isTransformInPlace() {
+        return transformInPlace;
+    }
+
+    /**
+     * @param transformInPlace
+     *        if the geometries of outputs transformed inline shall be overridden instead of transformed copies.
+     *        Only set if the composed service creates new geometries for each request (and does not cache or
+     *        index them).
+     */
+    public void setTransformInPlace(boolean transformInPlace) {
+        this.transformInPlace = transformInPlace;
+    }
+
     /**
      * @param station
      *        the station to transform
@@ -57,6 +80,80 @@ public class TransformationService {
         station.setValue(StationOutput.GEOMETRY, geometry, parameters, station::setGeometry);
     }
 
+    /**
+     * Transforms the geometries of all outputs within one batch.
+     *
+     * @param <T>
+     *        the output type
+     * @param outputs
+     *        the outputs to transform
+     * @param parameters
+     *        the query containing CRS and how to handle axes order
+     * @param getter
+     *        gets the geometry of an output
+     * @param setter
+     *        sets the transformed geometry of an output
+     */
+    protected <T extends ParameterOutput> void transformInline(OutputCollection<T> outputs,
+                                                               IoParameters parameters,
+                                                               Function<T, Geometry> getter,
+                                                               BiConsumer<T, Geometry> setter) {
+        if (outputs == null || outputs.isEmpty() || CRSUtils.DEFAULT_CRS.equals(parameters.getCrs())) {
+            // no need to transform
+            return;
+        }
+        List<T> items = outputs.stream()
+                               .collect(Collectors.toList());
+        List<Geometry> geometries = items.stream()
+                                         .map(getter)
+                                         .collect(Collectors.toList());
+        List<Geometry> transformed = transform(geometries, parameters, transformInPlace);
+        for (int i = 0; i < items.size(); i++) {
+            setter.accept(items.get(i), transformed.get(i));
+        }
+    }
+
+    /**
+     * @param stations
+     *        the stations to transform
+     * @param parameters
+     *        the query containing CRS and how to handle axes order
+     */
+    protected void transformInline(OutputCollection<StationOutput> stations, IoParameters parameters) {
+        transformInline(stations, parameters, StationOutput::getGeometry, (station, geometry) -> {
+            station.setValue(StationOutput.GEOMETRY, geometry, parameters, station::setGeometry);
+        });
+    }
+
+    /**
+     * Transforms all given geometries within one batch.
+     *
+     * @param geometries
+     *        the geometries to transform (may contain <code>null</code> values)
+     * @param query
+     *        the query containing CRS and how to handle axes order
+     * @return the transformed geometries in the same order
+     */
+    public List<Geometry> transform(List<Geometry> geometries, IoParameters query) {
+        return transform(geometries, query, false);
+    }
+
+    private List<Geometry> transform(List<Geometry> geometries, IoParameters query, boolean inPlace) {
+        String crs = query.getCrs();
+        if (CRSUtils.DEFAULT_CRS.equals(crs)) {
+            // no need to transform
+            return geometries;
+        }
+        try {
+            return getCrsUtils(query).transformInnerToOuter(geometries, crs, inPlace);
+        } catch (TransformException e) {
+            throwRuntimeException(crs, e);
+        } catch (FactoryException e) {
+            LOGGER.debug("Couldn't create geometry factory", e);
+        }
+        return geometries;
+    }
+
     public Geometry transform(Geometry geometry, IoParameters query) {
         String crs = query.getCrs();
         if (CRSUtils.DEFAULT_CRS.equals(crs)) {
@@ -71,9 +168,7 @@ public class TransformationService {
                                        String crs)
             throws RuntimeException {
         try {
-            CRSUtils crsUtils = query.isForceXY()
-                    ? CRSUtils.createEpsgForcedXYAxisOrder()
-                    : CRSUtils.createEpsgStrictAxisOrder();
+            CRSUtils crsUtils = getCrsUtils(query);
             return geometry != null
                     ? crsUtils.transformInnerToOuter(geometry, crs)
                     : geometry;
@@ -85,6 +180,12 @@ public class TransformationService {
         return geometry;
     }
 
+    private CRSUtils getCrsUtils(IoParameters query) {
+        return query.isForceXY()
+                ? CRSUtils.createEpsgForcedXYAxisOrder()
+                : CRSUtils.createEpsgStrictAxisOrder();
+    }
+
     private void throwRuntimeException(String crs, TransformException e) throws RuntimeException {
         throw new RuntimeException("Could not transform to requested CRS: " + crs, e);
     }
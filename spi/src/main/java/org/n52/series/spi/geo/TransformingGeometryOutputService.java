@@ -49,6 +49,15 @@ public class TransformingGeometryOutputService extends ParameterService<Geometry
         this.transformationService = new TransformationService();
     }
 
+    /**
+     * @param transformInPlace
+     *        if geometries of batch transformed outputs shall be overridden instead of transformed copies
+     * @see TransformationService#setTransformInPlace(boolean)
+     */
+    public void setTransformInPlace(boolean transformInPlace) {
+        transformationService.setTransformInPlace(transformInPlace);
+    }
+
     @Override
     public OutputCollection<GeometryOutput> getExpandedParameters(IoParameters query) {
         return transform(query, composedService.getExpandedParameters(query));
@@ -74,12 +83,15 @@ public class TransformingGeometryOutputService extends ParameterService<Geometry
         return composedService.exists(id, parameters);
     }
 
+    @Override
+    public boolean supportsCursor() {
+        return composedService.supportsCursor();
+    }
+
     private OutputCollection<GeometryOutput> transform(IoParameters query, OutputCollection<GeometryOutput> infos) {
-        if (infos != null) {
-            for (GeometryOutput info : infos) {
-                transformInline(info, query);
-            }
-        }
+        transformationService.transformInline(infos, query, GeometryOutput::getGeometry, (info, geometry) -> {
+            info.setValue(GeometryOutput.GEOMETRY, geometry, query, info::setGeometry);
+        });
         return infos;
     }
 
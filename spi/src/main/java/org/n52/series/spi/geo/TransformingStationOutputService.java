@@ -57,6 +57,15 @@ public class TransformingStationOutputService extends ParameterService<StationOu
         this.transformService = new TransformationService();
     }
 
+    /**
+     * @param transformInPlace
+     *        if geometries of batch transformed outputs shall be overridden instead of transformed copies
+     * @see TransformationService#setTransformInPlace(boolean)
+     */
+    public void setTransformInPlace(boolean transformInPlace) {
+        transformService.setTransformInPlace(transformInPlace);
+    }
+
     @Override
     public OutputCollection<StationOutput> getExpandedParameters(IoParameters query) {
         OutputCollection<StationOutput> features = composedService.getExpandedParameters(query);
@@ -84,11 +93,7 @@ public class TransformingStationOutputService extends ParameterService<StationOu
 
     private OutputCollection<StationOutput> transformFeatures(IoParameters query,
             OutputCollection<StationOutput> features) {
-        if (features != null) {
-            for (StationOutput feature : features) {
-                transformService.transformInline(feature, query);
-            }
-        }
+        transformService.transformInline(features, query);
         return features;
     }
 
@@ -107,4 +112,9 @@ public class TransformingStationOutputService extends ParameterService<StationOu
         return composedService.supportsRawData();
     }
 
+    @Override
+    public boolean supportsCursor() {
+        return composedService.supportsCursor();
+    }
+
 }
@@ -28,8 +28,13 @@
  */
 package org.n52.series.spi.geo;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import org.n52.io.request.IoParameters;
 import org.n52.io.response.OutputCollection;
+import org.n52.io.response.dataset.StationOutput;
 import org.n52.io.response.dataset.TimeseriesMetadataOutput;
 import org.n52.series.spi.srv.ParameterService;
 import org.n52.series.spi.srv.RawDataService;
@@ -47,6 +52,15 @@ public class TransformingTimeseriesService extends ParameterService<TimeseriesMe
         this.transformationService = new TransformationService();
     }
 
+    /**
+     * @param transformInPlace
+     *        if geometries of batch transformed outputs shall be overridden instead of transformed copies
+     * @see TransformationService#setTransformInPlace(boolean)
+     */
+    public void setTransformInPlace(boolean transformInPlace) {
+        transformationService.setTransformInPlace(transformInPlace);
+    }
+
     @Override
     public OutputCollection<TimeseriesMetadataOutput> getExpandedParameters(
             IoParameters query) {
@@ -84,10 +98,11 @@ public class TransformingTimeseriesService extends ParameterService<TimeseriesMe
     private OutputCollection<TimeseriesMetadataOutput> transformStations(
             IoParameters query,
             OutputCollection<TimeseriesMetadataOutput> metadata) {
-        for (TimeseriesMetadataOutput timeseriesMetadata : metadata) {
-            transformationService.transformInline(timeseriesMetadata
-                    .getStation(), query);
-        }
+        List<StationOutput> stations = metadata.stream()
+                                               .map(TimeseriesMetadataOutput::getStation)
+                                               .filter(Objects::nonNull)
+                                               .collect(Collectors.toList());
+        transformationService.transformInline(new OutputCollection<>(stations), query);
         return metadata;
     }
 
@@ -106,4 +121,9 @@ public class TransformingTimeseriesService extends ParameterService<TimeseriesMe
         return composedService.supportsRawData();
     }
 
+    @Override
+    public boolean supportsCursor() {
+        return composedService.supportsCursor();
+    }
+
 }
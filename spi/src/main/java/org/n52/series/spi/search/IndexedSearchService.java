@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.OutputCollection;
+import org.n52.io.response.ParameterOutput;
+import org.n52.series.spi.srv.ParameterService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link SearchService} answering search requests from an in-memory {@link SearchIndex}. Resources are
+ * loaded from registered {@link ParameterService}s (one per resource type) and indexed per locale on first
+ * use. Only {@link #setSupportedLocales(String...) supported locales} get an index of their own, requests of
+ * other locales are served from the index of the default locale.
+ *
+ * Call {@link #refresh()} or {@link #refresh(String)} to reload resources. A refresh of one resource type
+ * only reloads the listing of that type, requests are served from the previous index until the new one is
+ * ready.
+ *
+ * @since 3.1.1
+ */
+public class IndexedSearchService implements SearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexedSearchService.class);
+
+    /**
+     * Upper bound of locales indexed, each index holds all resources of all types.
+     */
+    private static final int MAX_INDEXES = 16;
+
+    private final Map<String, Source< ? >> sources = new ConcurrentHashMap<>();
+
+    private final Map<String, LocalizedIndex> indexes = new ConcurrentHashMap<>();
+
+    private volatile Set<String> supportedLocales = Collections.singleton(Parameters.DEFAULT_LOCALE);
+
+    /**
+     * Registers a resource type to be indexed.
+     *
+     * @param <T>
+     *        the parameter type
+     * @param service
+     *        the service listing all resources of the type
+     * @param resultFactory
+     *        creates empty search results of the type
+     * @return this instance
+     */
+    public <T extends ParameterOutput> IndexedSearchService addSource(ParameterService<T> service,
+            Supplier< ? extends SearchResult> resultFactory) {
+        Source<T> source = new Source<>(service, resultFactory);
+        sources.put(source.getType(), source);
+        indexes.clear();
+        return this;
+    }
+
+    /**
+     * @param locales
+     *        the language tags (e.g. <code>de</code> or <code>en-US</code>) getting an index of their own. At
+     *        most {@value #MAX_INDEXES} locales are supported.
+     * @return this instance
+     */
+    public IndexedSearchService setSupportedLocales(String... locales) {
+        Set<String> supported = new HashSet<>();
+        supported.add(Parameters.DEFAULT_LOCALE);
+        if (locales != null) {
+            for (String locale : locales) {
+                if (locale != null && !locale.trim().isEmpty()) {
+                    supported.add(toLanguageTag(locale.trim()));
+                }
+            }
+        }
+        if (supported.size() > MAX_INDEXES) {
+            throw new IllegalArgumentException("At most " + MAX_INDEXES + " locales are supported: " + supported);
+        }
+        this.supportedLocales = Collections.unmodifiableSet(supported);
+        indexes.clear();
+        return this;
+    }
+
+    public Set<String> getSupportedLocales() {
+        return supportedLocales;
+    }
+
+    @Override
+    public Collection<SearchResult> searchResources(IoParameters parameters) {
+        SearchIndex index = getIndex(parameters.getLocale());
+        return parameters.isSearchTypeahead()
+                ? typeahead(index, parameters)
+                : search(index, parameters);
+    }
+
+    private Collection<SearchResult> search(SearchIndex index, IoParameters parameters) {
+        Set<String> types = parameters.getSearchTypes();
+        Set<SearchResult> results = new LinkedHashSet<>();
+        for (String term : parameters.getSearchTerms()) {
+            for (SearchResult result : index.search(term)) {
+                if (types.isEmpty() || types.contains(result.getType().toLowerCase(Locale.ROOT))) {
+                    results.add(result);
+                }
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    private Collection<SearchResult> typeahead(SearchIndex index, IoParameters parameters) {
+        int limit = parameters.getSearchTypeaheadLimit();
+        Set<String> types = parameters.getSearchTypes();
+        Set<SearchResult> results = new LinkedHashSet<>();
+        for (String term : parameters.getSearchTerms()) {
+            results.addAll(index.typeahead(term, types, limit));
+        }
+        return results.stream()
+                      .limit(limit)
+                      .collect(Collectors.toList());
+    }
+
+    protected SearchIndex getIndex(String locale) {
+        return indexes.computeIfAbsent(normalize(locale), LocalizedIndex::new)
+                      .getIndex();
+    }
+
+    /**
+     * Maps the requested locale to a supported one: the full language tag, the language alone, or the default
+     * locale.
+     */
+    private String normalize(String locale) {
+        if (locale == null || locale.trim().isEmpty()) {
+            return Parameters.DEFAULT_LOCALE;
+        }
+        String tag = toLanguageTag(locale.trim());
+        if (supportedLocales.contains(tag)) {
+            return tag;
+        }
+        String language = Locale.forLanguageTag(tag)
+                                .getLanguage();
+        return supportedLocales.contains(language)
+                ? language
+                : Parameters.DEFAULT_LOCALE;
+    }
+
+    private static String toLanguageTag(String locale) {
+        return Locale.forLanguageTag(locale.replace('_', '-'))
+                     .toLanguageTag();
+    }
+
+    /**
+     * Reloads all resource types for all locales indexed so far.
+     */
+    public void refresh() {
+        for (String type : sources.keySet()) {
+            refresh(type);
+        }
+    }
+
+    /**
+     * Reloads resources of the given type for all locales indexed so far.
+     *
+     * @param type
+     *        the resource type as given by {@link SearchResult#getType()}
+     */
+    public void refresh(String type) {
+        Source< ? > source = sources.get(type);
+        if (source != null) {
+            for (LocalizedIndex index : indexes.values()) {
+                index.refresh(source);
+            }
+        }
+    }
+
+    private final class LocalizedIndex {
+
+        private final String locale;
+
+        private final Map<String, List<SearchResult>> documents = new ConcurrentHashMap<>();
+
+        private volatile SearchIndex index;
+
+        LocalizedIndex(String locale) {
+            this.locale = locale;
+        }
+
+        SearchIndex getIndex() {
+            SearchIndex current = index;
+            if (current == null) {
+                synchronized (this) {
+                    if (index == null) {
+                        for (Source< ? > source : sources.values()) {
+                            documents.put(source.getType(), source.load(locale));
+                        }
+                        rebuild();
+                    }
+                    current = index;
+                }
+            }
+            return current;
+        }
+
+        synchronized void refresh(Source< ? > source) {
+            if (index != null) {
+                documents.put(source.getType(), source.load(locale));
+                rebuild();
+            }
+        }
+
+        private void rebuild() {
+            List<SearchResult> all = new ArrayList<>();
+            documents.values()
+                     .forEach(all::addAll);
+            index = SearchIndex.build(all, Locale.forLanguageTag(locale));
+            LOGGER.debug("Indexed {} resources for locale '{}'.", all.size(), locale);
+        }
+    }
+
+    private static final class Source<T extends ParameterOutput> {
+
+        private final ParameterService<T> service;
+
+        private final Supplier< ? extends SearchResult> resultFactory;
+
+        private final String type;
+
+        Source(ParameterService<T> service, Supplier< ? extends SearchResult> resultFactory) {
+            this.service = service;
+            this.resultFactory = resultFactory;
+            this.type = resultFactory.get()
+                                     .getType();
+        }
+
+        String getType() {
+            return type;
+        }
+
+        List<SearchResult> load(String locale) {
+            IoParameters parameters = IoParameters.createDefaults()
+                                                  .extendWith(Parameters.LOCALE, locale);
+            OutputCollection<T> items = service.getCondensedParameters(parameters);
+            List<SearchResult> results = new ArrayList<>();
+            for (T item : items) {
+                SearchResult result = resultFactory.get();
+                result.setId(item.getId());
+                result.setLabel(item.getLabel());
+                results.add(result);
+            }
+            return results;
+        }
+    }
+
+}
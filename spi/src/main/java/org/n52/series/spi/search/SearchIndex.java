@@ -0,0 +1,516 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable in-memory inverted index over the labels of {@link SearchResult}s. Labels are analyzed per
+ * locale (lower cased, diacritics removed) and split into words. Each word of a query matches all indexed
+ * words it is a prefix of, a document matches if all query words match.
+ *
+ * The term dictionary is kept sorted, so prefix lookups are binary searches. For typeahead requests the
+ * documents are additionally kept in label order (a flattened trie), so labels starting with the query are
+ * found without touching any other document. The minimum label length per block of that order lets typeahead
+ * requests skip whole blocks which can not improve an already filled result. Instances are safe to be queried
+ * concurrently.
+ *
+ * @since 3.1.1
+ */
+public final class SearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String[] NO_WORDS = new String[0];
+
+    private static final int BLOCK_SIZE = 64;
+
+    private static final int RANK_EXACT = 0;
+
+    private static final int RANK_LEADING = 1;
+
+    private static final int RANK_WORD = 2;
+
+    private static final int RANK_OTHER = 3;
+
+    private final Locale locale;
+
+    private final SearchResult[] documents;
+
+    private final String[] labels;
+
+    private final int[] labelOrder;
+
+    private final int[] blockMinLengths;
+
+    private final String[] terms;
+
+    private final int[][] postings;
+
+    private final Map<String, BitSet> documentsByType;
+
+    private SearchIndex(Locale locale, SearchResult[] documents, String[] labels, String[] terms,
+            int[][] postings) {
+        this.locale = locale;
+        this.documents = documents;
+        this.labels = labels;
+        this.terms = terms;
+        this.postings = postings;
+        this.labelOrder = sortByLabel(labels);
+        this.blockMinLengths = getBlockMinLengths(labels, labelOrder);
+        this.documentsByType = groupByType(documents);
+    }
+
+    private static int[] sortByLabel(String[] labels) {
+        return Arrays.stream(boxedRange(labels.length))
+                     .sorted(Comparator.comparing(document -> labels[document]))
+                     .mapToInt(Integer::intValue)
+                     .toArray();
+    }
+
+    private static Integer[] boxedRange(int length) {
+        Integer[] range = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            range[i] = i;
+        }
+        return range;
+    }
+
+    /**
+     * @return the length of the shortest label of each block of {@value #BLOCK_SIZE} documents in label order
+     */
+    private static int[] getBlockMinLengths(String[] labels, int[] labelOrder) {
+        int[] minLengths = new int[(labelOrder.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        Arrays.fill(minLengths, Integer.MAX_VALUE);
+        for (int i = 0; i < labelOrder.length; i++) {
+            int block = i / BLOCK_SIZE;
+            minLengths[block] = Math.min(minLengths[block], labels[labelOrder[i]].length());
+        }
+        return minLengths;
+    }
+
+    private static Map<String, BitSet> groupByType(SearchResult[] documents) {
+        Map<String, BitSet> byType = new HashMap<>();
+        for (int i = 0; i < documents.length; i++) {
+            String type = documents[i].getType();
+            if (type != null) {
+                byType.computeIfAbsent(type.toLowerCase(Locale.ROOT), k -> new BitSet(documents.length))
+                      .set(i);
+            }
+        }
+        return byType;
+    }
+
+    /**
+     * @param results
+     *        the results to index
+     * @param locale
+     *        the locale to analyze labels with
+     * @return an index over the given results
+     */
+    public static SearchIndex build(Collection< ? extends SearchResult> results, Locale locale) {
+        SearchResult[] documents = results.toArray(new SearchResult[0]);
+        String[] labels = new String[documents.length];
+        Map<String, IntArray> index = new HashMap<>();
+        for (int i = 0; i < documents.length; i++) {
+            String[] words = analyze(documents[i].getLabel(), locale);
+            labels[i] = String.join(" ", words);
+            for (String word : words) {
+                index.computeIfAbsent(word, k -> new IntArray()).add(i);
+            }
+        }
+        String[] terms = index.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        int[][] postings = new int[terms.length][];
+        for (int i = 0; i < terms.length; i++) {
+            postings[i] = index.get(terms[i]).toArray();
+        }
+        return new SearchIndex(locale, documents, labels, terms, postings);
+    }
+
+    /**
+     * Lower cases the given text, removes diacritics and splits it into words.
+     *
+     * @param text
+     *        the text to analyze
+     * @param locale
+     *        the locale to lower case with
+     * @return the words of the text
+     */
+    public static String[] analyze(String text, Locale locale) {
+        if (text == null || text.isEmpty()) {
+            return NO_WORDS;
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(locale), Normalizer.Form.NFD);
+        String normalized = DIACRITICS.matcher(decomposed).replaceAll("");
+        return Arrays.stream(SEPARATORS.split(normalized))
+                     .filter(word -> !word.isEmpty())
+                     .toArray(String[]::new);
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return the number of indexed documents
+     */
+    public int size() {
+        return documents.length;
+    }
+
+    /**
+     * @param query
+     *        the query text
+     * @return all matching results, best matches first
+     */
+    public List<SearchResult> search(String query) {
+        String[] words = analyze(query, locale);
+        BitSet matches = match(words);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String phrase = String.join(" ", words);
+        String wordPhrase = " " + phrase;
+        TopHits hits = new TopHits(matches.cardinality());
+        for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+            hits.offer(document, rank(labels[document], phrase, wordPhrase));
+        }
+        return hits.toResults();
+    }
+
+    /**
+     * Finds the best matches of the given query. Only the requested number of results is kept while
+     * collecting matches (bounded heap), labels starting with the query are collected first. If these
+     * already fill the result, no further documents are visited. Within the labels starting with the query,
+     * blocks of labels not shorter than the worst result collected so far are skipped.
+     *
+     * @param query
+     *        the query text
+     * @param types
+     *        the (lower cased) resource types of interest, all types if empty or <code>null</code>
+     * @param limit
+     *        the maximum number of results
+     * @return the best matching results, best matches first
+     */
+    public List<SearchResult> typeahead(String query, Set<String> types, int limit) {
+        String[] words = analyze(query, locale);
+        if (words.length == 0 || limit < 1) {
+            return Collections.emptyList();
+        }
+        String phrase = String.join(" ", words);
+        String wordPhrase = " " + phrase;
+        BitSet typeFilter = createTypeFilter(types);
+        TopHits best = new TopHits(limit);
+
+        // labels are visited in ascending order, so a later label only wins over the worst hit if it is shorter
+        int to = upperBound(phrase);
+        for (int i = lowerBound(phrase); i < to; i++) {
+            if (best.isFull() && i % BLOCK_SIZE == 0 && blockMinLengths[i / BLOCK_SIZE] >= best.getWorstLength()) {
+                i += BLOCK_SIZE - 1;
+                continue;
+            }
+            int document = labelOrder[i];
+            if ((typeFilter == null || typeFilter.get(document))
+                    && !(best.isFull() && labels[document].length() >= best.getWorstLength())) {
+                best.offer(document, labels[document].equals(phrase)
+                        ? RANK_EXACT
+                        : RANK_LEADING);
+            }
+        }
+        if (!best.isFull()) {
+            // all leading matches are collected, continue with matches within labels
+            BitSet matches = match(words);
+            if (typeFilter != null) {
+                matches.and(typeFilter);
+            }
+            for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+                if (!labels[document].startsWith(phrase)) {
+                    best.offer(document, labels[document].contains(wordPhrase)
+                            ? RANK_WORD
+                            : RANK_OTHER);
+                }
+            }
+        }
+        return best.toResults();
+    }
+
+    private BitSet createTypeFilter(Set<String> types) {
+        if (types == null || types.isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet(documents.length);
+        for (String type : types) {
+            BitSet ofType = documentsByType.get(type.toLowerCase(Locale.ROOT));
+            if (ofType != null) {
+                filter.or(ofType);
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * @return the first position in label order whose label is not smaller than the given prefix
+     */
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = labelOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (labels[labelOrder[mid]].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first position in label order whose label does not start with the given prefix
+     */
+    private int upperBound(String prefix) {
+        int low = lowerBound(prefix);
+        int high = labelOrder.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (labels[labelOrder[mid]].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private BitSet match(String[] words) {
+        BitSet matches = null;
+        for (String word : words) {
+            BitSet wordMatches = matchPrefix(word);
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.and(wordMatches);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches != null
+                ? matches
+                : new BitSet(0);
+    }
+
+    private BitSet matchPrefix(String prefix) {
+        BitSet matches = new BitSet(documents.length);
+        for (int i = firstTermOf(prefix); i < terms.length && terms[i].startsWith(prefix); i++) {
+            for (int document : postings[i]) {
+                matches.set(document);
+            }
+        }
+        return matches;
+    }
+
+    private int firstTermOf(String prefix) {
+        int index = Arrays.binarySearch(terms, prefix);
+        return index < 0
+                ? -(index + 1)
+                : index;
+    }
+
+    /**
+     * @param wordPhrase
+     *        the query preceded by a blank, to match the query at a word boundary
+     * @return the rank of a label matching the query, lower is better
+     */
+    private static int rank(String label, String phrase, String wordPhrase) {
+        if (label.equals(phrase)) {
+            return RANK_EXACT;
+        } else if (label.startsWith(phrase)) {
+            return RANK_LEADING;
+        } else if (label.contains(wordPhrase)) {
+            return RANK_WORD;
+        }
+        return RANK_OTHER;
+    }
+
+    /**
+     * A bounded max-heap of documents with their rank, keeping the best hits seen. Ranks exact label matches
+     * first, followed by labels starting with the query, labels containing the query at a word boundary and
+     * all other matches. Ties are broken by shorter, then alphabetically smaller labels. The rank of each
+     * document is computed once when offered.
+     */
+    private final class TopHits {
+
+        private final int[] hits;
+
+        private final int[] ranks;
+
+        private int size;
+
+        TopHits(int capacity) {
+            this.hits = new int[capacity];
+            this.ranks = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size == hits.length;
+        }
+
+        /**
+         * @return the label length of the worst hit kept
+         */
+        int getWorstLength() {
+            return labels[hits[0]].length();
+        }
+
+        void offer(int document, int rank) {
+            if (size < hits.length) {
+                hits[size] = document;
+                ranks[size] = rank;
+                siftUp(size++);
+            } else if (compare(document, rank, hits[0], ranks[0]) < 0) {
+                hits[0] = document;
+                ranks[0] = rank;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * @return the documents of the kept hits, best first. Empties the heap.
+         */
+        List<SearchResult> toResults() {
+            int count = size;
+            // heap sort: moves the worst remaining hit behind the heap
+            for (int last = size - 1; last > 0; last--) {
+                swap(0, last);
+                siftDown(0, last);
+            }
+            size = 0;
+            List<SearchResult> results = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                results.add(documents[hits[i]]);
+            }
+            return results;
+        }
+
+        private void siftUp(int index) {
+            int child = index;
+            while (child > 0) {
+                int parent = (child - 1) >>> 1;
+                if (compareAt(child, parent) <= 0) {
+                    return;
+                }
+                swap(child, parent);
+                child = parent;
+            }
+        }
+
+        private void siftDown(int index, int heapSize) {
+            int parent = index;
+            int child = 2 * parent + 1;
+            while (child < heapSize) {
+                if (child + 1 < heapSize && compareAt(child + 1, child) > 0) {
+                    child++;
+                }
+                if (compareAt(parent, child) >= 0) {
+                    return;
+                }
+                swap(parent, child);
+                parent = child;
+                child = 2 * parent + 1;
+            }
+        }
+
+        private int compareAt(int i, int j) {
+            return compare(hits[i], ranks[i], hits[j], ranks[j]);
+        }
+
+        private int compare(int document, int rank, int other, int otherRank) {
+            if (rank != otherRank) {
+                return Integer.compare(rank, otherRank);
+            }
+            String label = labels[document];
+            String otherLabel = labels[other];
+            if (label.length() != otherLabel.length()) {
+                return Integer.compare(label.length(), otherLabel.length());
+            }
+            int byLabel = label.compareTo(otherLabel);
+            return byLabel != 0
+                    ? byLabel
+                    : Integer.compare(document, other);
+        }
+
+        private void swap(int i, int j) {
+            int document = hits[i];
+            int rank = ranks[i];
+            hits[i] = hits[j];
+            ranks[i] = ranks[j];
+            hits[j] = document;
+            ranks[j] = rank;
+        }
+    }
+
+    private static final class IntArray {
+
+        private int[] values = new int[2];
+
+        private int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                // word occurs more than once in the same label
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
@@ -39,6 +39,16 @@ import org.n52.io.response.dataset.DataCollection;
  */
 public interface DataService<T extends Data<? extends AbstractValue< ? >>> extends RawDataInfo {
 
+    /**
+     * Implementations querying large amounts of data should check {@link IoParameters#getCancellationToken()}
+     * between queries, and may register a callback to abort a running query once the request got cancelled.
+     *
+     * @param parameters
+     *        the request parameters
+     * @return the requested data
+     * @throws org.n52.io.request.RequestCancelledException
+     *         if the request has been cancelled
+     */
     DataCollection<T> getData(IoParameters parameters);
 
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.srv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.n52.io.request.CancellationToken;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.dataset.AbstractValue;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates a {@link DataService} and fetches the data of multiple requested datasets concurrently. The
+ * requested datasets are split into at most {@link #getMaxParallelism() maxParallelism} batches (each
+ * containing at least {@link #getMinBatchSize() minBatchSize} datasets) which are passed as separate
+ * sub-requests to the composed service. The partial results are merged into one {@link DataCollection}.
+ * <p>
+ * If the request gets cancelled (see {@link CancellationToken}), the requesting thread gets interrupted (e.g.
+ * on request timeout) or one of the sub-requests fails, all pending sub-requests are cancelled.
+ * </p>
+ *
+ * @param <T>
+ *        the data type
+ * @since 3.1.1
+ */
+public class ParallelDataService<T extends Data<? extends AbstractValue< ? >>> implements DataService<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDataService.class);
+
+    private static final int DEFAULT_MAX_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final int DEFAULT_MIN_BATCH_SIZE = 1;
+
+    private final DataService<T> composedService;
+
+    private final ExecutorService executorService;
+
+    private int maxParallelism = DEFAULT_MAX_PARALLELISM;
+
+    private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+
+    public ParallelDataService(DataService<T> toCompose, ExecutorService executorService) {
+        this.composedService = toCompose;
+        this.executorService = executorService;
+    }
+
+    @Override
+    public DataCollection<T> getData(IoParameters parameters) {
+        List<IoParameters> subRequests = partition(parameters);
+        if (subRequests.size() < 2) {
+            return composedService.getData(parameters);
+        }
+
+        CancellationToken cancellationToken = parameters.getCancellationToken();
+        cancellationToken.throwIfCancelled();
+
+        LOGGER.debug("fetch data of {} datasets in {} sub-requests",
+                     parameters.getDatasets().size(),
+                     subRequests.size());
+        List<Future<DataCollection<T>>> futures = new ArrayList<>(subRequests.size());
+        try {
+            for (IoParameters subRequest : subRequests) {
+                futures.add(executorService.submit(() -> composedService.getData(subRequest)));
+            }
+            // runs immediately if the request has been cancelled in the meantime
+            cancellationToken.onCancel(() -> futures.forEach(future -> future.cancel(true)));
+            return merge(futures);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Fetching data has been interrupted.");
+        } catch (CancellationException e) {
+            cancellationToken.throwIfCancelled();
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            // no-op for completed tasks
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<IoParameters> partition(IoParameters parameters) {
+        Set<String> datasets = parameters.getDatasets();
+        int batchCount = Math.min(maxParallelism, datasets.size() / minBatchSize);
+        if (batchCount < 2) {
+            return Collections.singletonList(parameters);
+        }
+
+        List<List<String>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>());
+        }
+        Iterator<String> iterator = datasets.iterator();
+        for (int i = 0; iterator.hasNext(); i++) {
+            batches.get(i % batchCount)
+                   .add(iterator.next());
+        }
+
+        List<IoParameters> subRequests = new ArrayList<>(batchCount);
+        for (List<String> batch : batches) {
+            subRequests.add(parameters.replaceWith(Parameters.DATASETS, batch));
+        }
+        return subRequests;
+    }
+
+    private DataCollection<T> merge(List<Future<DataCollection<T>>> futures)
+            throws InterruptedException, ExecutionException {
+        DataCollection<T> result = null;
+        for (Future<DataCollection<T>> future : futures) {
+            DataCollection<T> partial = future.get();
+            if (result == null) {
+                // keep the collection type provided by the composed service
+                result = partial;
+            } else if (partial != null) {
+                result.addAll(partial);
+            }
+        }
+        return result;
+    }
+
+    private RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException("Could not fetch data: " + cause.getMessage(), cause);
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    /**
+     * @param maxParallelism
+     *        the maximum number of sub-requests executed concurrently for one request (must be positive).
+     */
+    public void setMaxParallelism(int maxParallelism) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("maxParallelism has to be positive: " + maxParallelism);
+        }
+        this.maxParallelism = maxParallelism;
+    }
+
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    /**
+     * @param minBatchSize
+     *        the minimum number of datasets passed to the composed service in one sub-request (must be
+     *        positive).
+     */
+    public void setMinBatchSize(int minBatchSize) {
+        if (minBatchSize < 1) {
+            throw new IllegalArgumentException("minBatchSize has to be positive: " + minBatchSize);
+        }
+        this.minBatchSize = minBatchSize;
+    }
+
+    @Override
+    public boolean supportsRawData() {
+        return composedService.supportsRawData();
+    }
+
+    @Override
+    public RawDataService getRawDataService() {
+        return composedService.getRawDataService();
+    }
+
+}
@@ -96,6 +96,19 @@ public abstract class ParameterService<T extends ParameterOutput> implements Raw
      */
     public abstract boolean exists(String id, IoParameters parameters);
 
+    /**
+     * If the {@link IoParameters#getCursor() cursor} of a query is considered when listing items, i.e. only
+     * items ordered after the cursor are returned (keyset pagination). Callers page with an offset when the
+     * service does not support cursors.
+     *
+     * @return <code>true</code>, if cursors are supported. The default implementation returns
+     *         <code>false</code>
+     * @since 3.1.1
+     */
+    public boolean supportsCursor() {
+        return false;
+    }
+
     /**
      * Check if raw data output is supported
      *
@@ -29,6 +29,8 @@
 package org.n52.series.spi.srv;
 
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 import org.n52.io.request.IoParameters;
 
@@ -59,4 +61,45 @@ public interface RawDataService {
      */
     InputStream getRawData(IoParameters parameters);
 
+    /**
+     * Get raw data as channel. Implementations able to provide raw data as channel (e.g. a
+     * {@link java.nio.channels.FileChannel} of a cached export) should override this method, so that large
+     * outputs can be transferred without copying them through an {@link InputStream}.
+     * <p>
+     * File channels are transferred on the request thread. Other channels are read in chunks of 64 KB on a
+     * thread pool shared by all raw data downloads (<code>request.rawdata.readThreads</code>, 8 by default), so
+     * reads which block for long (e.g. on a remote source) may delay other downloads, but never pin a container
+     * thread.
+     * </p>
+     *
+     * @param id
+     *        Resource id
+     * @param parameters
+     *        the request parameters
+     * @return Raw data output as {@link ReadableByteChannel}
+     * @since 3.1.1
+     */
+    default ReadableByteChannel getRawDataChannel(String id, IoParameters parameters) {
+        InputStream stream = getRawData(id, parameters);
+        return stream == null
+                ? null
+                : Channels.newChannel(stream);
+    }
+
+    /**
+     * Get raw data as channel.
+     *
+     * @param parameters
+     *        the request parameters
+     * @return Raw data output as {@link ReadableByteChannel}
+     * @see #getRawDataChannel(String, IoParameters)
+     * @since 3.1.1
+     */
+    default ReadableByteChannel getRawDataChannel(IoParameters parameters) {
+        InputStream stream = getRawData(parameters);
+        return stream == null
+                ? null
+                : Channels.newChannel(stream);
+    }
+
 }
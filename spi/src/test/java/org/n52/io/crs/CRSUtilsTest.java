@@ -35,12 +35,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.n52.io.crs.CRSUtils.DEFAULT_CRS;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
+import org.geotools.referencing.CRS;
 import org.junit.jupiter.api.Test;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.NoSuchAuthorityCodeException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.io.ParseException;
@@ -71,6 +78,80 @@ public class CRSUtilsTest {
         assertThat(referenceHelper.isLatLonAxesOrder("EPSG:4326"), is(false));
     }
 
+    @Test
+    public void shouldShareInstancesPerAxisOrder() {
+        assertThat(CRSUtils.createEpsgStrictAxisOrder() == CRSUtils.createEpsgStrictAxisOrder(), is(true));
+        assertThat(CRSUtils.createEpsgForcedXYAxisOrder() == CRSUtils.createEpsgStrictAxisOrder(), is(false));
+    }
+
+    @Test
+    public void shouldCacheTransforms() throws FactoryException {
+        CoordinateReferenceSystem src = referenceHelper.getCrsFor("EPSG:25832");
+        CoordinateReferenceSystem dest = referenceHelper.getCrsFor(DEFAULT_CRS);
+        assertThat(referenceHelper.getCrsFor("EPSG:25832") == src, is(true));
+        assertThat(referenceHelper.getTransform(src, dest) == referenceHelper.getTransform(src, dest), is(true));
+    }
+
+    @Test
+    public void shouldCacheTransformsOfEqualReferenceSystems() throws FactoryException {
+        CoordinateReferenceSystem src = referenceHelper.getCrsFor("EPSG:25832");
+        CoordinateReferenceSystem decoded = CRS.parseWKT(src.toWKT());
+        CoordinateReferenceSystem dest = referenceHelper.getCrsFor(DEFAULT_CRS);
+        MathTransform transform = referenceHelper.getTransform(src, dest);
+        assertThat(decoded == src, is(false));
+        assertThat(referenceHelper.getTransform(decoded, dest) == transform, is(true));
+        assertThat(referenceHelper.getTransform(referenceHelper.getCrsFor("EPSG:25833"), dest) == transform,
+                   is(false));
+    }
+
+    @Test
+    public void shouldBatchTransformLikeSingleTransforms() throws FactoryException, TransformException {
+        Geometry first = referenceHelper.createPoint(7.0, 52.0, DEFAULT_CRS);
+        Geometry second = referenceHelper.createLineString(new Coordinate[] {
+            new Coordinate(6.5, 51.0),
+            new Coordinate(8.5, 53.0)
+        }, DEFAULT_CRS);
+        List<Geometry> transformed = referenceHelper.transformInnerToOuter(Arrays.asList(first, null, second),
+                                                                           "EPSG:25832");
+        assertThat(transformed.get(0).equalsExact(referenceHelper.transformInnerToOuter(first, "EPSG:25832"), 1e-6),
+                   is(true));
+        assertThat(transformed.get(1) == null, is(true));
+        assertThat(transformed.get(2).equalsExact(referenceHelper.transformInnerToOuter(second, "EPSG:25832"), 1e-6),
+                   is(true));
+        assertThat(first.getCoordinate().x, is(7.0));
+    }
+
+    @Test
+    public void shouldBatchTransformLargeCollectionsInChunks() throws FactoryException, TransformException {
+        Coordinate[] coordinates = new Coordinate[100_000];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new Coordinate(6.0 + i * 1e-5, 51.0 + i * 1e-5);
+        }
+        Geometry line = referenceHelper.createLineString(coordinates, DEFAULT_CRS);
+        List<Geometry> transformed = referenceHelper.transformInnerToOuter(Arrays.asList(line), "EPSG:25832");
+        assertThat(transformed.get(0).equalsExact(referenceHelper.transformInnerToOuter(line, "EPSG:25832"), 1e-6),
+                   is(true));
+    }
+
+    @Test
+    public void shouldBatchTransformInPlace() throws FactoryException, TransformException {
+        Geometry point = referenceHelper.createPoint(7.0, 52.0, DEFAULT_CRS);
+        Geometry expected = referenceHelper.transformInnerToOuter(point, "EPSG:25832");
+        List<Geometry> transformed = referenceHelper.transformInnerToOuter(Arrays.asList(point),
+                                                                           "EPSG:25832",
+                                                                           true);
+        assertThat(transformed.get(0) == point, is(true));
+        assertThat(point.equalsExact(expected, 1e-6), is(true));
+    }
+
+    @Test
+    public void shouldKeepZWhenBatchTransformingHorizontally() throws FactoryException, TransformException {
+        Geometry point = referenceHelper.createPoint(7.0, 52.0, 100.0, DEFAULT_CRS);
+        List<Geometry> transformed = referenceHelper.transformInnerToOuter(Arrays.asList(point), "EPSG:25832");
+        assertThat(transformed.get(0).getCoordinate().getZ(), is(100.0));
+        assertThat(point.getCoordinate().x, is(7.0));
+    }
+
     @Test
     public void testIsStationContainedByBBox() throws NoSuchAuthorityCodeException,
             FactoryException,
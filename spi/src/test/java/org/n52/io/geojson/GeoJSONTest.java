@@ -35,11 +35,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.Random;
 
 import org.n52.io.crs.CRSUtils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
@@ -81,6 +86,8 @@ public class GeoJSONTest {
 
     private final GeoJSONDecoder dec = new GeoJSONDecoder();
 
+    private final ObjectMapper mapper = new ObjectMapper();
+
     private Coordinate randomCoordinate() {
         return new Coordinate(random.nextInt(1000), random.nextInt(1000));
     }
@@ -297,6 +304,52 @@ public class GeoJSONTest {
             // errors.checkThat(json, is(instanceOf(JSONConstants.GEOMETRY)));
             // errors.checkThat(json2, is(instanceOf(JSONConstants.GEOMETRY)));
             assertThat(json, is(equalTo(json2)));
+            assertThat(stream(geom, GeoJSONWriter.unlimited()), is(equalTo(json)));
+    }
+
+    private JsonNode stream(Geometry geometry, GeoJSONWriter writer) throws GeoJSONException {
+        try {
+            StringWriter out = new StringWriter();
+            try (JsonGenerator gen = mapper.getFactory().createGenerator(out)) {
+                writer.writeGeometry(geometry, gen);
+            }
+            return mapper.readTree(out.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    public void testStreamingWithPrecision() throws GeoJSONException {
+        Point point = geometryFactory.createPoint(new Coordinate(7.123456789, 51.987654321, 100.55555));
+        JsonNode json = stream(point, GeoJSONWriter.withPrecision(3));
+        assertThat(json.get(JSONConstants.COORDINATES).get(0).asDouble(), is(7.123));
+        assertThat(json.get(JSONConstants.COORDINATES).get(1).asDouble(), is(51.988));
+        assertThat(json.get(JSONConstants.COORDINATES).get(2).asDouble(), is(100.556));
+    }
+
+    @Test
+    public void testSerializingWithMapperPrecision() throws IOException {
+        ObjectMapper om = new ObjectMapper().registerModule(new SimpleModule()
+                .addSerializer(Geometry.class, new GeoJSONGeometrySerializer()));
+        Point point = geometryFactory.createPoint(new Coordinate(7.123456789, 51.987654321));
+        JsonNode json = om.readTree(GeoJSONWriter.setPrecision(om, 2).writeValueAsString(point));
+        assertThat(json.get(JSONConstants.COORDINATES).get(0).asDouble(), is(7.12));
+        json = om.readTree(GeoJSONWriter.setPrecision(om, -1).writeValueAsString(point));
+        assertThat(json.get(JSONConstants.COORDINATES).get(0).asDouble(), is(7.123456789));
+    }
+
+    @Test
+    public void testStreamingNullAndEmpty() throws GeoJSONException {
+        assertThat(stream(null, GeoJSONWriter.unlimited()).isNull(), is(true));
+        assertThat(stream(new EmptyGeometry(geometryFactory), GeoJSONWriter.unlimited()).isNull(), is(true));
+    }
+
+    @Test
+    public void testStreamingUnknownGeometry() throws GeoJSONException {
+        assertThrows(GeoJSONException.class, () -> {
+            stream(new UnknownGeometry(geometryFactory), GeoJSONWriter.unlimited());
+        });
     }
 
     @Test
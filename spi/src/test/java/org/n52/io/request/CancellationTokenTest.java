@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.request;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CancellationTokenTest {
+
+    @Test
+    public void when_created_then_notCancelled() {
+        CancellationToken token = CancellationToken.create();
+        token.throwIfCancelled();
+        assertThat(token.isCancelled(), is(false));
+    }
+
+    @Test
+    public void when_cancelled_then_throwWithReason() {
+        CancellationToken token = CancellationToken.create();
+        token.cancel("client gone");
+        RequestCancelledException e = assertThrows(RequestCancelledException.class, token::throwIfCancelled);
+        assertThat(e.getMessage(), is("client gone"));
+    }
+
+    @Test
+    public void when_cancelledTwice_then_callbacksRunOnceAndFirstReasonKept() {
+        CancellationToken token = CancellationToken.create();
+        AtomicInteger calls = new AtomicInteger();
+        token.onCancel(calls::incrementAndGet);
+        token.cancel("first");
+        token.cancel("second");
+        assertThat(calls.get(), is(1));
+        assertThat(token.getReason(), is("first"));
+    }
+
+    @Test
+    public void when_callbackRegisteredAfterCancel_then_runImmediately() {
+        CancellationToken token = CancellationToken.create();
+        token.cancel("timeout");
+        AtomicInteger calls = new AtomicInteger();
+        token.onCancel(calls::incrementAndGet);
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void when_noneCancelled_then_ignored() {
+        CancellationToken.NONE.cancel("ignored");
+        assertThat(CancellationToken.NONE.isCancelled(), is(false));
+    }
+
+    @Test
+    public void when_parametersDerived_then_tokenPassedOn() {
+        CancellationToken token = CancellationToken.create();
+        IoParameters parameters = IoParameters.createDefaults()
+                                              .setCancellationToken(token)
+                                              .extendWith(Parameters.LIMIT, "10")
+                                              .removeAllOf(Parameters.OFFSET);
+        assertThat(parameters.getCancellationToken(), sameInstance(token));
+    }
+
+    @Test
+    public void when_noTokenSet_then_none() {
+        assertThat(IoParameters.createDefaults()
+                               .getCancellationToken(),
+                   sameInstance(CancellationToken.NONE));
+    }
+
+}
@@ -335,6 +335,33 @@ public class IoParametersTest {
     }
 
 
+    @Test
+    public void when_noFields_then_projectionIncludesAll() {
+        FieldProjection projection = createDefaults().getFieldProjection();
+        assertTrue(projection.includesAll());
+        assertTrue(projection.includes("label"));
+    }
+
+    @Test
+    public void when_fields_then_projectionIncludesFieldsIgnoringCase() {
+        FieldProjection projection = createDefaults().extendWith(Parameters.FILTER_FIELDS, "label,domainId")
+                                                     .getFieldProjection();
+        assertTrue(projection.includes("label"));
+        assertTrue(projection.includes("domainId"));
+        assertFalse(projection.includes("extras"));
+    }
+
+    @Test
+    public void when_fieldsInOtherCase_then_projectionMatchesKnownAndExtensionFields() {
+        FieldProjection projection = createDefaults().extendWith(Parameters.FILTER_FIELDS, "DOMAINID,myExtension")
+                                                     .getFieldProjection();
+        assertTrue(projection.includes("domainId"));
+        assertTrue(projection.includes("MyExtension"));
+        assertFalse(projection.includes("label"));
+        assertFalse(projection.includes("otherExtension"));
+        assertFalse(projection.includes(null));
+    }
+
     private File getAlternativeConfigFile() throws URISyntaxException {
         Path root = Paths.get(getClass().getResource("/")
                                         .toURI());
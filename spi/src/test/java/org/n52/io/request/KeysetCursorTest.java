@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.request;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.ParameterOutput;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void when_encoded_then_decodedCursorEquals() {
+        KeysetCursor cursor = new KeysetCursor("Wind:speed 10", "42");
+        assertThat(KeysetCursor.decode(cursor.encode()), is(cursor));
+    }
+
+    @Test
+    public void when_labelIsNull_then_decodedLabelIsNull() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(null, "foo").encode());
+        assertThat(cursor.getLabel(), is(nullValue()));
+        assertThat(cursor.getId(), is("foo"));
+    }
+
+    @Test
+    public void when_encodedWithPage_then_decodedPageEquals() {
+        KeysetCursor cursor = new KeysetCursor("user@host:1", "42", 3);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+        assertThat(decoded, is(cursor));
+        assertThat(decoded.getLabel(), is("user@host:1"));
+        assertThat(decoded.getPage().getAsInt(), is(3));
+        assertThat(KeysetCursor.decode(new KeysetCursor(null, "foo").encode()).getPage().isPresent(), is(false));
+    }
+
+    @Test
+    public void when_invalidToken_then_throwException() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("Zm9v"));
+    }
+
+    @Test
+    public void when_sameLabelAndGreaterId_then_outputIsAfterCursor() {
+        KeysetCursor cursor = new KeysetCursor("a", "1");
+        assertThat(cursor.isBefore(createOutput("a", "2")), is(true));
+        assertThat(cursor.isBefore(createOutput("a", "1")), is(false));
+        assertThat(cursor.isBefore(createOutput("0", "3")), is(false));
+        assertThat(cursor.isBefore(createOutput("b", "0")), is(true));
+    }
+
+    @Test
+    public void when_cursorFromParameters_then_cursorDecoded() {
+        KeysetCursor cursor = new KeysetCursor("a", "1");
+        IoParameters parameters = IoParameters.createDefaults()
+                                              .extendWith(Parameters.CURSOR, cursor.encode());
+        assertThat(parameters.getCursor().get(), is(cursor));
+    }
+
+    @Test
+    public void when_emptyCursorParameter_then_noCursor() {
+        IoParameters parameters = IoParameters.createDefaults()
+                                              .extendWith(Parameters.CURSOR, "");
+        assertThat(parameters.getCursor().isPresent(), is(false));
+    }
+
+    private ParameterOutput createOutput(String label, String id) {
+        ParameterOutput output = new ParameterOutput() {};
+        output.setId(id);
+        output.setLabel(OptionalOutput.of(label));
+        return output;
+    }
+
+}
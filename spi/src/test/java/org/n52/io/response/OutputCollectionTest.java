@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.io.response;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class OutputCollectionTest {
+
+    @Test
+    public void when_gettingItems_then_sortedByLabelAndId() {
+        OutputCollection<ParameterOutput> collection = new OutputCollection<>(Arrays.asList(
+                createOutput("b", "1"),
+                createOutput(null, "2"),
+                createOutput("a", "4"),
+                createOutput("a", "3")));
+        assertThat(getIds(collection), contains("2", "3", "4", "1"));
+    }
+
+    @Test
+    public void when_addingItemAfterSort_then_sortedAgain() {
+        OutputCollection<ParameterOutput> collection = new OutputCollection<>(Arrays.asList(
+                createOutput("b", "1"),
+                createOutput("c", "2")));
+        assertThat(getIds(collection), contains("1", "2"));
+        collection.addItem(createOutput("a", "3"));
+        assertThat(getIds(collection), contains("3", "1", "2"));
+    }
+
+    private List<String> getIds(OutputCollection<ParameterOutput> collection) {
+        return collection.getItems()
+                         .stream()
+                         .map(ParameterOutput::getId)
+                         .collect(Collectors.toList());
+    }
+
+    private ParameterOutput createOutput(String label, String id) {
+        ParameterOutput output = new ParameterOutput() {};
+        output.setId(id);
+        output.setLabel(OptionalOutput.of(label));
+        return output;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+public class SpatialIndexTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    private Point muenster;
+
+    private Point berlin;
+
+    private Point oslo;
+
+    private SpatialIndex<Point> index;
+
+    @BeforeEach
+    public void setUp() {
+        muenster = createPoint(7.6261, 51.9607);
+        berlin = createPoint(13.4050, 52.5200);
+        oslo = createPoint(10.7522, 59.9139);
+        index = SpatialIndex.build(Arrays.asList(muenster, berlin, oslo), Function.identity());
+    }
+
+    private Point createPoint(double lon, double lat) {
+        return factory.createPoint(new Coordinate(lon, lat));
+    }
+
+    @Test
+    public void when_queryingEnvelope_then_returnContainedItems() {
+        assertThat(index.within(new Envelope(5, 15, 50, 55)), containsInAnyOrder(muenster, berlin));
+        assertThat(index.within(new Envelope(-10, 0, 50, 55)), is(empty()));
+    }
+
+    @Test
+    public void when_queryingNear_then_refineByGreatCircleDistance() {
+        // Münster - Berlin is about 400 km
+        assertThat(index.near(muenster, 350), containsInAnyOrder(muenster));
+        assertThat(index.near(muenster, 450), containsInAnyOrder(muenster, berlin));
+    }
+
+    @Test
+    public void when_queryingNearAntimeridian_then_findItemsOnBothSides() {
+        Point east = createPoint(179.9, 0);
+        Point west = createPoint(-179.9, 0);
+        SpatialIndex<Point> dateline = SpatialIndex.build(Arrays.asList(east, west), Function.identity());
+        assertThat(dateline.near(east, 50), containsInAnyOrder(east, west));
+    }
+
+    @Test
+    public void when_itemsHaveNoGeometry_then_skipThem() {
+        SpatialIndex<Point> withEmpty = SpatialIndex.build(Arrays.asList(muenster,
+                                                                            factory.createPoint(),
+                                                                            null),
+                                                              Function.identity());
+        assertThat(withEmpty.size(), is(1));
+    }
+
+}
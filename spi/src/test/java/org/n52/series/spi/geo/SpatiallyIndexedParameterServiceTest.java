@@ -0,0 +1,218 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.FeatureOutput;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.OutputCollection;
+import org.n52.series.spi.srv.ParameterService;
+
+public class SpatiallyIndexedParameterServiceTest {
+
+    private FeatureService composed;
+
+    private SpatiallyIndexedParameterService<FeatureOutput> service;
+
+    @BeforeEach
+    public void setUp() {
+        composed = new FeatureService(feature("muenster", 7.6261, 51.9607),
+                                      feature("berlin", 13.4050, 52.5200),
+                                      feature("oslo", 10.7522, 59.9139));
+        service = new SpatiallyIndexedParameterService<>(composed, Parameters.FEATURES);
+        service.refresh();
+    }
+
+    @Test
+    public void when_filteringByBbox_then_replaceBboxWithIdFilterAndKeepOtherParameters() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55")
+                                         .extendWith(Parameters.PHENOMENA, "temperature")
+                                         .extendWith(Parameters.LIMIT, "1")
+                                         .extendWith(Parameters.OFFSET, "1");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+
+        IoParameters forwarded = composed.lastQuery;
+        assertThat(forwarded.containsParameter(Parameters.BBOX), is(false));
+        assertThat(forwarded.getAsString(Parameters.PHENOMENA), is("temperature"));
+        assertThat(forwarded.getAsString(Parameters.LIMIT), is("1"));
+        assertThat(forwarded.getAsString(Parameters.OFFSET), is("1"));
+        assertThat(Arrays.asList(forwarded.getAsString(Parameters.FEATURES).split(",")),
+                   containsInAnyOrder("muenster", "berlin"));
+        assertThat(result, sameInstance(composed.lastResult));
+    }
+
+    @Test
+    public void when_composedServiceIgnoresIdFilter_then_retainMatchingItemsInPlace() {
+        composed.ignoreIdFilter = true;
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55");
+        OutputCollection<FeatureOutput> result = service.getExpandedParameters(query);
+
+        assertThat(result, sameInstance(composed.lastResult));
+        assertThat(ids(result), containsInAnyOrder("muenster", "berlin"));
+    }
+
+    @Test
+    public void when_filteringByBboxAndIds_then_intersectIdFilter() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55")
+                                         .extendWith(Parameters.FEATURES, "BERLIN,oslo");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+
+        assertThat(composed.lastQuery.getAsString(Parameters.FEATURES), is("berlin"));
+        assertThat(ids(result), containsInAnyOrder("berlin"));
+    }
+
+    @Test
+    public void when_noItemMatches_then_skipComposedListing() {
+        composed.lastQuery = null;
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "-10,50,0,55");
+        assertThat(service.getCondensedParameters(query).getItems(), is(empty()));
+        assertThat(composed.lastQuery == null, is(true));
+    }
+
+    @Test
+    public void when_noSpatialFilter_then_delegateUnchanged() {
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.PHENOMENA, "temperature");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+        assertThat(composed.lastQuery, sameInstance(query));
+        assertThat(result, sameInstance(composed.lastResult));
+    }
+
+    @Test
+    public void when_moreMatchesThanMaxIdFilterSize_then_delegateSpatialFilter() {
+        service.setMaxIdFilterSize(1);
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+        assertThat(composed.lastQuery, sameInstance(query));
+        assertThat(result, sameInstance(composed.lastResult));
+    }
+
+    @Test
+    public void when_indexIsStale_then_rebuildOnNextSpatialRequest() throws InterruptedException {
+        service.setRefreshInterval(1);
+        composed.features.add(feature("hamburg", 9.9937, 53.5511));
+        Thread.sleep(5);
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+        assertThat(ids(result), containsInAnyOrder("muenster", "berlin", "hamburg"));
+    }
+
+    @Test
+    public void when_refreshIntervalDisabled_then_keepIndex() {
+        composed.features.add(feature("hamburg", 9.9937, 53.5511));
+        IoParameters query = IoParameters.createDefaults()
+                                         .extendWith(Parameters.BBOX, "5,50,15,55");
+        OutputCollection<FeatureOutput> result = service.getCondensedParameters(query);
+        assertThat(ids(result), containsInAnyOrder("muenster", "berlin"));
+    }
+
+    private static List<String> ids(OutputCollection<FeatureOutput> items) {
+        return items.getItems()
+                    .stream()
+                    .map(FeatureOutput::getId)
+                    .collect(Collectors.toList());
+    }
+
+    private static FeatureOutput feature(String id, double lon, double lat) {
+        FeatureOutput output = new FeatureOutput();
+        output.setId(id);
+        output.setGeometry(OptionalOutput.of(new GeometryFactory().createPoint(new Coordinate(lon, lat))));
+        return output;
+    }
+
+    private static final class FeatureService extends ParameterService<FeatureOutput> {
+
+        private final List<FeatureOutput> features;
+
+        private IoParameters lastQuery;
+
+        private OutputCollection<FeatureOutput> lastResult;
+
+        private boolean ignoreIdFilter;
+
+        FeatureService(FeatureOutput... features) {
+            this.features = new ArrayList<>(Arrays.asList(features));
+        }
+
+        @Override
+        public OutputCollection<FeatureOutput> getCondensedParameters(IoParameters query) {
+            lastQuery = query;
+            List<FeatureOutput> items = new ArrayList<>(features);
+            if (!ignoreIdFilter && query.containsParameter(Parameters.FEATURES)) {
+                List<String> ids = Arrays.asList(query.getAsString(Parameters.FEATURES).split(","));
+                items.removeIf(item -> !ids.contains(item.getId()));
+            }
+            lastResult = new OutputCollection<FeatureOutput>(items) {};
+            return lastResult;
+        }
+
+        @Override
+        public OutputCollection<FeatureOutput> getExpandedParameters(IoParameters query) {
+            return getCondensedParameters(query);
+        }
+
+        @Override
+        public OutputCollection<FeatureOutput> getParameters(String[] items, IoParameters query) {
+            return getCondensedParameters(query);
+        }
+
+        @Override
+        public FeatureOutput getParameter(String item, IoParameters query) {
+            return null;
+        }
+
+        @Override
+        public boolean exists(String id, IoParameters parameters) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.geo;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.n52.io.geojson.GeoJSONFeature;
+import org.n52.io.response.OptionalOutput;
+
+public class TileClustererTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    private final List<Feature> features = Arrays.asList(feature("muenster", 7.6261, 51.9607),
+                                                         feature("greven", 7.6083, 52.0917),
+                                                         feature("sydney", 151.2093, -33.8688));
+
+    @Test
+    public void when_zoomedOut_then_clusterNearbyGeometries() {
+        TileClusterer clusterer = TileClusterer.of(features, TileClusterer.DEFAULT_GRID_SIZE);
+        List<GeometryCluster> clusters = clusterer.cluster(0, 0, 0).getFeatures();
+        assertThat(clusters, hasSize(2));
+        assertThat(clusters.get(0).getProperties().get(GeometryCluster.COUNT), is(2));
+        assertThat(clusters.get(0).getGeometry().getCoordinate().x, closeTo(7.6172, 0.0001));
+        assertThat(clusters.get(1).getProperties().get(GeometryCluster.ID), is("sydney"));
+    }
+
+    @Test
+    public void when_zoomedIn_then_keepGeometriesApart() {
+        TileClusterer clusterer = TileClusterer.of(features, TileClusterer.DEFAULT_GRID_SIZE);
+        // tile 8/133/84 contains Münster and Greven
+        List<GeometryCluster> clusters = clusterer.cluster(8, 133, 84).getFeatures();
+        assertThat(clusters, hasSize(2));
+        for (GeometryCluster cluster : clusters) {
+            assertThat(cluster.getProperties().get(GeometryCluster.COUNT), is(1));
+        }
+    }
+
+    @Test
+    public void when_tileIsEmpty_then_returnNoClusters() {
+        TileClusterer clusterer = TileClusterer.of(features, TileClusterer.DEFAULT_GRID_SIZE);
+        assertThat(clusterer.cluster(1, 0, 0).getFeatures(), hasSize(0));
+    }
+
+    @Test
+    public void when_zoomIsZero_then_tileCoversWorld() {
+        Envelope envelope = TileClusterer.getTileEnvelope(0, 0, 0);
+        assertThat(envelope.getMinX(), closeTo(-180, 0.0001));
+        assertThat(envelope.getMaxX(), closeTo(180, 0.0001));
+        assertThat(envelope.getMaxY(), closeTo(85.0511, 0.0001));
+    }
+
+    @Test
+    public void when_tileDoesNotExist_then_throwException() {
+        TileClusterer clusterer = TileClusterer.of(Collections.<Feature> emptyList(), 1);
+        assertThat(TileClusterer.isValidTile(1, 2, 0), is(false));
+        assertThrows(IllegalArgumentException.class, () -> clusterer.cluster(1, 2, 0));
+    }
+
+    private Feature feature(String id, double lon, double lat) {
+        return new Feature(id, factory.createPoint(new Coordinate(lon, lat)));
+    }
+
+    private static final class Feature implements GeoJSONFeature {
+
+        private final String id;
+
+        private final Geometry geometry;
+
+        Feature(String id, Geometry geometry) {
+            this.id = id;
+            this.geometry = geometry;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public boolean isSetGeometry() {
+            return geometry != null;
+        }
+
+        @Override
+        public Geometry getGeometry() {
+            return geometry;
+        }
+
+        @Override
+        public void setGeometry(OptionalOutput<Geometry> geometry) {
+            // not needed
+        }
+
+        @Override
+        public Map<String, Object> getProperties() {
+            return Collections.emptyMap();
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.response.OptionalOutput;
+import org.n52.io.response.OutputCollection;
+import org.n52.io.response.ParameterOutput;
+import org.n52.series.spi.srv.ParameterService;
+
+public class IndexedSearchServiceTest {
+
+    private LabelService service;
+
+    private IndexedSearchService searchService;
+
+    @BeforeEach
+    public void setUp() {
+        service = new LabelService();
+        searchService = new IndexedSearchService().addSource(service, PhenomenonSearchResult::new);
+    }
+
+    @Test
+    public void when_searchingUnsupportedLocales_then_useDefaultIndex() {
+        for (String locale : new String[] {"en", "xx", "yy-ZZ", "de", "en-US"}) {
+            assertThat(search("temp", locale), contains("temperature_en"));
+        }
+        assertThat(service.loadedLocales, contains(Parameters.DEFAULT_LOCALE));
+    }
+
+    @Test
+    public void when_searchingSupportedLocales_then_useLocalizedIndexes() {
+        searchService.setSupportedLocales("de", "nl");
+        assertThat(search("temp", "de"), contains("temperature_de"));
+        assertThat(search("temp", "de-AT"), contains("temperature_de"));
+        assertThat(search("temp", "de_CH"), contains("temperature_de"));
+        assertThat(search("temp", "fr"), contains("temperature_en"));
+        assertThat(service.loadedLocales, contains("de", Parameters.DEFAULT_LOCALE));
+    }
+
+    @Test
+    public void when_configuringTooManyLocales_then_throwIllegalArgument() {
+        String[] locales = new String[20];
+        for (int i = 0; i < locales.length; i++) {
+            locales[i] = "l" + (char) ('a' + i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> searchService.setSupportedLocales(locales));
+    }
+
+    private List<String> search(String term, String locale) {
+        IoParameters parameters = IoParameters.createDefaults()
+                                              .extendWith(Parameters.SEARCH_TERM, term)
+                                              .extendWith(Parameters.LOCALE, locale);
+        Collection<SearchResult> results = searchService.searchResources(parameters);
+        return results.stream()
+                      .map(SearchResult::getId)
+                      .collect(Collectors.toList());
+    }
+
+    private static final class LabelService extends ParameterService<ParameterOutput> {
+
+        private final List<String> loadedLocales = new java.util.ArrayList<>();
+
+        @Override
+        public OutputCollection<ParameterOutput> getCondensedParameters(IoParameters query) {
+            String locale = query.getLocale();
+            loadedLocales.add(locale);
+            ParameterOutput output = new ParameterOutput() {};
+            output.setId("temperature_" + locale);
+            output.setLabel(OptionalOutput.of("Temperature"));
+            return new OutputCollection<>(Collections.singletonList(output));
+        }
+
+        @Override
+        public OutputCollection<ParameterOutput> getExpandedParameters(IoParameters query) {
+            return getCondensedParameters(query);
+        }
+
+        @Override
+        public OutputCollection<ParameterOutput> getParameters(String[] items, IoParameters query) {
+            return getCondensedParameters(query);
+        }
+
+        @Override
+        public ParameterOutput getParameter(String item, IoParameters query) {
+            return null;
+        }
+
+        @Override
+        public boolean exists(String id, IoParameters parameters) {
+            return false;
+        }
+    }
+
+}
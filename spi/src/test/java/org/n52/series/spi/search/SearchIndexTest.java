@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.search;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = SearchIndex.build(Arrays.asList(createResult("1", "Air Temperature"),
+                                                createResult("2", "Water Temperature"),
+                                                createResult("3", "Temperature"),
+                                                createResult("4", "Münster Hafen"),
+                                                createResult("5", "Temperature Dew Point"),
+                                                new StationSearchResult().setId("6")
+                                                                         .setLabel("Temple Station")),
+                                  Locale.ENGLISH);
+    }
+
+    @Test
+    public void when_searchingPrefix_then_rankExactAndLeadingMatchesFirst() {
+        assertThat(getIds(index.search("tempe")), contains("3", "5", "1", "2"));
+        assertThat(getIds(index.search("Temperature")), contains("3", "5", "1", "2"));
+    }
+
+    @Test
+    public void when_searchingMultipleWords_then_allWordsHaveToMatch() {
+        assertThat(getIds(index.search("wat temp")), contains("2"));
+        assertThat(getIds(index.search("air water")), is(empty()));
+    }
+
+    @Test
+    public void when_searchingWithoutDiacritics_then_matchLabelsWithDiacritics() {
+        assertThat(getIds(index.search("munster")), contains("4"));
+        assertThat(getIds(index.search("MÜNST")), contains("4"));
+    }
+
+    @Test
+    public void when_typeahead_then_returnBestMatchesOnly() {
+        assertThat(getIds(index.typeahead("tem", null, 2)), contains("3", "6"));
+        assertThat(getIds(index.typeahead("tem", null, 5)), contains("3", "6", "5", "1", "2"));
+        assertThat(getIds(index.typeahead("temp", null, 10)), contains("3", "6", "5", "1", "2"));
+    }
+
+    @Test
+    public void when_typeaheadSkipsLongerLabels_then_shorterLabelLaterInOrderIsFound() {
+        List<SearchResult> results = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            results.add(createResult("long_" + i, String.format("Temperature Station %03d", i)));
+        }
+        results.add(createResult("short", "Tempz"));
+        SearchIndex catalog = SearchIndex.build(results, Locale.ENGLISH);
+        assertThat(getIds(catalog.typeahead("temp", null, 2)), contains("short", "long_0"));
+    }
+
+    @Test
+    public void when_typeaheadWithTypes_then_filterByType() {
+        Set<String> types = Collections.singleton("station");
+        assertThat(getIds(index.typeahead("tem", types, 10)), contains("6"));
+        assertThat(getIds(index.typeahead("tem", Collections.singleton("phenomenon"), 1)), contains("3"));
+    }
+
+    @Test
+    public void when_searchingBlank_then_returnNothing() {
+        assertThat(index.search(" - "), is(empty()));
+    }
+
+    private List<String> getIds(List<SearchResult> results) {
+        return results.stream()
+                      .map(SearchResult::getId)
+                      .collect(Collectors.toList());
+    }
+
+    private SearchResult createResult(String id, String label) {
+        return new PhenomenonSearchResult().setId(id)
+                                           .setLabel(label);
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2013-2020 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public License
+ * version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License
+ * for more details.
+ */
+package org.n52.series.spi.srv;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.n52.io.request.CancellationToken;
+import org.n52.io.request.IoParameters;
+import org.n52.io.request.Parameters;
+import org.n52.io.request.RequestCancelledException;
+import org.n52.io.response.dataset.Data;
+import org.n52.io.response.dataset.DataCollection;
+import org.n52.io.response.dataset.quantity.QuantityValue;
+
+public class ParallelDataServiceTest {
+
+    private ExecutorService executor;
+
+    private Map<String, Set<String>> requestedBatches;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        requestedBatches = new ConcurrentHashMap<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void when_multipleDatasets_then_allDatasetsMerged() {
+        ParallelDataService<Data<QuantityValue>> service =
+                new ParallelDataService<>(new StubDataService(this::getData), executor);
+        service.setMaxParallelism(4);
+        IoParameters parameters = createParameters("a", "b", "c", "d", "e");
+        DataCollection<Data<QuantityValue>> data = service.getData(parameters);
+        assertThat(data.getAllSeries().keySet(), containsInAnyOrder("a", "b", "c", "d", "e"));
+        assertThat(requestedBatches.size(), is(4));
+    }
+
+    @Test
+    public void when_lessDatasetsThanMinBatchSize_then_singleRequest() {
+        ParallelDataService<Data<QuantityValue>> service =
+                new ParallelDataService<>(new StubDataService(this::getData), executor);
+        service.setMinBatchSize(3);
+        DataCollection<Data<QuantityValue>> data = service.getData(createParameters("a", "b", "c"));
+        assertThat(data.size(), is(3));
+        assertThat(requestedBatches.size(), is(1));
+    }
+
+    @Test
+    public void when_subRequestFails_then_exceptionIsPropagated() {
+        StubDataService failingService = new StubDataService(p -> {
+            throw new IllegalArgumentException("failing backend");
+        });
+        ParallelDataService<Data<QuantityValue>> service = new ParallelDataService<>(failingService, executor);
+        IoParameters parameters = createParameters("a", "b");
+        assertThrows(IllegalArgumentException.class, () -> service.getData(parameters));
+    }
+
+    @Test
+    public void when_cancelledBeforeFetching_then_noSubRequestSubmitted() {
+        ParallelDataService<Data<QuantityValue>> service =
+                new ParallelDataService<>(new StubDataService(this::getData), executor);
+        CancellationToken token = CancellationToken.create();
+        token.cancel("client gone");
+        IoParameters parameters = createParameters("a", "b").setCancellationToken(token);
+        assertThrows(RequestCancelledException.class, () -> service.getData(parameters));
+        assertThat(requestedBatches.isEmpty(), is(true));
+    }
+
+    @Test
+    public void when_cancelledWhileFetching_then_subRequestsInterrupted() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch interrupted = new CountDownLatch(2);
+        StubDataService blockingService = new StubDataService(p -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return getData(p);
+        });
+        ParallelDataService<Data<QuantityValue>> service = new ParallelDataService<>(blockingService, executor);
+        CancellationToken token = CancellationToken.create();
+        IoParameters parameters = createParameters("a", "b").setCancellationToken(token);
+
+        ExecutorService requester = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> request = requester.submit(() -> service.getData(parameters));
+            assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+            token.cancel("timeout");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> request.get(10, TimeUnit.SECONDS));
+            assertThat(e.getCause(), instanceOf(RequestCancelledException.class));
+            assertThat(interrupted.await(10, TimeUnit.SECONDS), is(true));
+        } finally {
+            requester.shutdownNow();
+        }
+    }
+
+    private IoParameters createParameters(String... datasets) {
+        return IoParameters.createDefaults()
+                           .extendWith(Parameters.DATASETS, datasets);
+    }
+
+    private DataCollection<Data<QuantityValue>> getData(IoParameters parameters) {
+        Set<String> datasets = parameters.getDatasets();
+        requestedBatches.put(String.join(",", datasets), datasets);
+        DataCollection<Data<QuantityValue>> collection = new DataCollection<>();
+        HashMap<String, Data<QuantityValue>> series = new HashMap<>();
+        datasets.forEach(id -> series.put(id, new Data<>()));
+        collection.setAllSeries(series);
+        return collection;
+    }
+
+    private static class StubDataService implements DataService<Data<QuantityValue>> {
+
+        private final Function<IoParameters, DataCollection<Data<QuantityValue>>> dataProvider;
+
+        StubDataService(Function<IoParameters, DataCollection<Data<QuantityValue>>> dataProvider) {
+            this.dataProvider = dataProvider;
+        }
+
+        @Override
+        public DataCollection<Data<QuantityValue>> getData(IoParameters parameters) {
+            return dataProvider.apply(parameters);
+        }
+
+        @Override
+        public boolean supportsRawData() {
+            return false;
+        }
+
+        @Override
+        public RawDataService getRawDataService() {
+            return null;
+        }
+    }
+
+}